@@ -0,0 +1,28 @@
+package de.kodestruktor.grief.loadtest;
+
+import java.io.IOException;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.web.context.ConfigurableWebApplicationContext;
+import org.springframework.web.context.support.ServletContextResource;
+
+/**
+ * Adds the configuration of grief used by the load test pages, <code>/WEB-INF/grief.properties</code>, to the environment of the application.
+ *
+ * @author Christoph Wende
+ */
+public class GriefPropertiesInitializer implements ApplicationContextInitializer<ConfigurableWebApplicationContext> {
+
+  private static final String LOCATION = "/WEB-INF/grief.properties";
+
+  @Override
+  public void initialize(final ConfigurableWebApplicationContext applicationContext) {
+    try {
+      applicationContext.getEnvironment().getPropertySources()
+          .addFirst(new ResourcePropertySource("grief", new ServletContextResource(applicationContext.getServletContext(), LOCATION)));
+    } catch (final IOException e) {
+      throw new IllegalStateException("Could not read " + LOCATION, e);
+    }
+  }
+}
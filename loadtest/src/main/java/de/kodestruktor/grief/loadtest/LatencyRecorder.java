@@ -0,0 +1,81 @@
+package de.kodestruktor.grief.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Records the latencies of the requests to a single page. Each client thread records to its own instances, which are merged once the load test
+ * has finished, so recording does not need any synchronization.
+ *
+ * @author Christoph Wende
+ */
+final class LatencyRecorder {
+
+  private long[] latencies = new long[4096];
+
+  private int count;
+
+  private int errors;
+
+  private boolean sorted = true;
+
+  /**
+   * @param nanos
+   *          the latency of a successful request
+   */
+  void record(final long nanos) {
+    if (this.count == this.latencies.length) {
+      this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+    }
+    this.latencies[this.count++] = nanos;
+    this.sorted = false;
+  }
+
+  void recordError() {
+    this.errors++;
+  }
+
+  /**
+   * @param other
+   *          the recorder whose latencies and errors are added to this one
+   */
+  void merge(final LatencyRecorder other) {
+    if (this.count + other.count > this.latencies.length) {
+      this.latencies = Arrays.copyOf(this.latencies, this.count + other.count);
+    }
+    System.arraycopy(other.latencies, 0, this.latencies, this.count, other.count);
+    this.count += other.count;
+    this.errors += other.errors;
+    this.sorted = false;
+  }
+
+  int getCount() {
+    return this.count;
+  }
+
+  int getErrors() {
+    return this.errors;
+  }
+
+  /**
+   * Get a percentile of the recorded latencies, using the nearest rank.
+   *
+   * @param percentile
+   *          the percentile, e.g. <code>99.9</code>
+   * @return the latency in nanoseconds or <code>0</code>, if nothing has been recorded
+   */
+  long getPercentile(final double percentile) {
+    if (this.count == 0) {
+      return 0L;
+    }
+    if (!this.sorted) {
+      Arrays.sort(this.latencies, 0, this.count);
+      this.sorted = true;
+    }
+    final int rank = (int) Math.ceil(percentile / 100d * this.count);
+    return this.latencies[Math.min(this.count, Math.max(1, rank)) - 1];
+  }
+
+  long getMax() {
+    return this.getPercentile(100d);
+  }
+}
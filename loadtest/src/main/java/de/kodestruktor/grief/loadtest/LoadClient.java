@@ -0,0 +1,184 @@
+package de.kodestruktor.grief.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drives the pages of the load test with a fixed number of concurrent clients. Every client requests the pages round robin, as fast as it can,
+ * over a kept alive connection. Requests during the warmup are not recorded, so the JIT compiler and the caches of grief reach a steady state
+ * before the latencies are measured.
+ *
+ * @author Christoph Wende
+ */
+final class LoadClient {
+
+  private static final String SURROGATE_CAPABILITY = "loadtest=\"ESI/1.0\"";
+
+  private final String baseUrl;
+
+  private final List<String> pages;
+
+  private final boolean esi;
+
+  private final byte[] buffer = new byte[8192];
+
+  /**
+   * @param baseUrl
+   *          the URL of the application, e.g. <code>http://localhost:8080/app</code>
+   * @param pages
+   *          the paths of the pages to request, relative to the application
+   * @param esi
+   *          <code>true</code> to announce an ESI capable surrogate, so fragments are rendered as includes
+   */
+  LoadClient(final String baseUrl, final List<String> pages, final boolean esi) {
+    this.baseUrl = baseUrl;
+    this.pages = pages;
+    this.esi = esi;
+  }
+
+  /**
+   * Request every page once, one after the other, measuring the compilation of the JSPs and the initialization of the tags on first use.
+   *
+   * @return the results of the pages, mapped by their paths
+   * @throws IOException
+   *           in case a page could not be requested or answered with an error
+   */
+  Map<String, PageResult> requestFirst() throws IOException {
+    final Map<String, PageResult> results = new LinkedHashMap<>();
+    for (final String page : this.pages) {
+      final long start = System.nanoTime();
+      final Response response = this.request(page, this.buffer);
+      if (response.status != HttpURLConnection.HTTP_OK) {
+        throw new IOException("Page " + page + " answered with status " + response.status);
+      }
+      results.put(page, new PageResult(System.nanoTime() - start, response.bytes));
+    }
+    return results;
+  }
+
+  /**
+   * Run the load test.
+   *
+   * @param results
+   *          the results of the pages, mapped by their paths, receiving the latencies of the measurement
+   * @param threads
+   *          the number of concurrent clients
+   * @param warmupNanos
+   *          the duration of the warmup
+   * @param durationNanos
+   *          the duration of the measurement, following the warmup
+   * @throws InterruptedException
+   *           in case the load test has been interrupted
+   */
+  void run(final Map<String, PageResult> results, final int threads, final long warmupNanos, final long durationNanos)
+      throws InterruptedException {
+    final long measureFrom = System.nanoTime() + warmupNanos;
+    final long measureUntil = measureFrom + durationNanos;
+
+    final List<Callable<Map<String, LatencyRecorder>>> clients = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      clients.add(this.createClient(i, measureFrom, measureUntil));
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (final Future<Map<String, LatencyRecorder>> result : executor.invokeAll(clients)) {
+        try {
+          for (final Map.Entry<String, LatencyRecorder> entry : result.get().entrySet()) {
+            results.get(entry.getKey()).getLatencies().merge(entry.getValue());
+          }
+        } catch (final ExecutionException e) {
+          throw new IllegalStateException("Client failed", e.getCause());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Callable<Map<String, LatencyRecorder>> createClient(final int client, final long measureFrom, final long measureUntil) {
+    return new Callable<Map<String, LatencyRecorder>>() {
+
+      @Override
+      public Map<String, LatencyRecorder> call() {
+        final Map<String, LatencyRecorder> latencies = new LinkedHashMap<>();
+        for (final String page : LoadClient.this.pages) {
+          latencies.put(page, new LatencyRecorder());
+        }
+        final byte[] buffer = new byte[8192];
+
+        // the clients start with different pages, so the pages are requested evenly from the start
+        int next = client;
+        while (true) {
+          final String page = LoadClient.this.pages.get(next++ % LoadClient.this.pages.size());
+          final long start = System.nanoTime();
+          if (start >= measureUntil) {
+            return latencies;
+          }
+
+          Response response;
+          try {
+            response = LoadClient.this.request(page, buffer);
+          } catch (final IOException e) {
+            response = null;
+          }
+
+          if (start >= measureFrom) {
+            if (response == null || response.status != HttpURLConnection.HTTP_OK) {
+              latencies.get(page).recordError();
+            } else {
+              latencies.get(page).record(System.nanoTime() - start);
+            }
+          }
+        }
+      }
+    };
+  }
+
+  private Response request(final String page, final byte[] buffer) throws IOException {
+    final HttpURLConnection connection = (HttpURLConnection) new URL(this.baseUrl + page).openConnection();
+    connection.setUseCaches(false);
+    if (this.esi) {
+      connection.setRequestProperty("Surrogate-Capability", SURROGATE_CAPABILITY);
+    }
+
+    final int status = connection.getResponseCode();
+    long bytes = 0;
+    // the body is read completely, so the connection is kept alive for the next request
+    try (InputStream in = status >= HttpURLConnection.HTTP_BAD_REQUEST ? connection.getErrorStream() : connection.getInputStream()) {
+      if (in != null) {
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+          bytes += read;
+        }
+      }
+    }
+    return new Response(status, bytes);
+  }
+
+  /**
+   * Status and size of the answer to a request.
+   */
+  private static final class Response {
+
+    private final int status;
+
+    private final long bytes;
+
+    Response(final int status, final long bytes) {
+      this.status = status;
+      this.bytes = bytes;
+    }
+  }
+}
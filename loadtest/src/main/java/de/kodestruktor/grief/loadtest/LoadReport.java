@@ -0,0 +1,161 @@
+package de.kodestruktor.grief.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import de.kodestruktor.grief.taglib.init.GriefTaglibInitializer;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+
+/**
+ * Writes the results of a load test as JSON, along with the environment they were measured in, so runs of different releases on the same
+ * machine may be compared, e.g.:<br>
+ * <br>
+ * <code>{"timestamp":"...","grief":"0.1.4","threads":8,...,"total":{"requests":120000,"throughput":4000.0,"p50":1.2,"p99":6.3,"p999":14.8,...},
+ * "pages":{"/home.jsp":{...}}}</code><br>
+ * <br>
+ * All latencies are given in milliseconds, the throughput in requests per second.
+ *
+ * @author Christoph Wende
+ */
+final class LoadReport {
+
+  private static final String POM_PROPERTIES = "/META-INF/maven/de.kodestruktor.grief/grief-taglib/pom.properties";
+
+  private final Map<String, PageResult> results;
+
+  private final int threads;
+
+  private final long warmupNanos;
+
+  private final long durationNanos;
+
+  private final boolean esi;
+
+  LoadReport(final Map<String, PageResult> results, final int threads, final long warmupNanos, final long durationNanos, final boolean esi) {
+    this.results = results;
+    this.threads = threads;
+    this.warmupNanos = warmupNanos;
+    this.durationNanos = durationNanos;
+    this.esi = esi;
+  }
+
+  /**
+   * @return the report as JSON
+   */
+  String toJson() {
+    final StringBuilder json = new StringBuilder(2048).append('{');
+    appendProperty(json, "timestamp", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX", Locale.ROOT).format(new Date()));
+    json.append(',');
+    appendProperty(json, "grief", getGriefVersion());
+    json.append(',');
+    appendProperty(json, "java", System.getProperty("java.version"));
+    json.append(',');
+    appendProperty(json, "vm", System.getProperty("java.vm.name"));
+    json.append(',');
+    appendProperty(json, "os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+    json.append(",\"processors\":").append(Runtime.getRuntime().availableProcessors());
+    json.append(",\"threads\":").append(this.threads);
+    json.append(",\"warmupSeconds\":").append(TimeUnit.NANOSECONDS.toSeconds(this.warmupNanos));
+    json.append(",\"durationSeconds\":").append(TimeUnit.NANOSECONDS.toSeconds(this.durationNanos));
+    json.append(",\"esi\":").append(this.esi);
+
+    final LatencyRecorder total = new LatencyRecorder();
+    for (final PageResult result : this.results.values()) {
+      total.merge(result.getLatencies());
+    }
+    json.append(",\"total\":{");
+    this.appendLatencies(json, total);
+    json.append('}');
+
+    json.append(",\"pages\":{");
+    boolean first = true;
+    for (final Map.Entry<String, PageResult> entry : this.results.entrySet()) {
+      if (!first) {
+        json.append(',');
+      }
+      first = false;
+
+      final PageResult result = entry.getValue();
+      MarkupUtil.appendJsonString(json, entry.getKey());
+      json.append(":{\"firstRequest\":").append(toMillis(result.getFirstRequestNanos()));
+      json.append(",\"bytes\":").append(result.getBytes()).append(',');
+      this.appendLatencies(json, result.getLatencies());
+      json.append('}');
+    }
+    return json.append("}}").toString();
+  }
+
+  /**
+   * Write the report to a file, replacing a previous one.
+   *
+   * @param file
+   *          the file
+   * @return the report as written
+   * @throws IOException
+   *           in case the report could not be written
+   */
+  String write(final File file) throws IOException {
+    final String json = this.toJson();
+    final File directory = file.getAbsoluteFile().getParentFile();
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create directory " + directory);
+    }
+    try (Writer out = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+      out.write(json);
+      out.write('\n');
+    }
+    return json;
+  }
+
+  private void appendLatencies(final StringBuilder json, final LatencyRecorder latencies) {
+    json.append("\"requests\":").append(latencies.getCount());
+    json.append(",\"errors\":").append(latencies.getErrors());
+    json.append(",\"throughput\":").append(String.format(Locale.ROOT, "%.1f", latencies.getCount() * 1e9d / this.durationNanos));
+    json.append(",\"p50\":").append(toMillis(latencies.getPercentile(50d)));
+    json.append(",\"p99\":").append(toMillis(latencies.getPercentile(99d)));
+    json.append(",\"p999\":").append(toMillis(latencies.getPercentile(99.9d)));
+    json.append(",\"max\":").append(toMillis(latencies.getMax()));
+  }
+
+  /**
+   * @return the version of the taglib, taken from its manifest or the properties Maven packages along with it
+   */
+  private static String getGriefVersion() {
+    final String version = GriefTaglibInitializer.class.getPackage().getImplementationVersion();
+    if (version != null) {
+      return version;
+    }
+
+    try (InputStream in = GriefTaglibInitializer.class.getResourceAsStream(POM_PROPERTIES)) {
+      if (in != null) {
+        final Properties properties = new Properties();
+        properties.load(in);
+        return properties.getProperty("version", "unknown");
+      }
+    } catch (final IOException e) {
+      // the version is just informational
+    }
+    return "unknown";
+  }
+
+  private static void appendProperty(final StringBuilder json, final String name, final String value) {
+    MarkupUtil.appendJsonString(json, name);
+    json.append(':');
+    MarkupUtil.appendJsonString(json, value);
+  }
+
+  private static String toMillis(final long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / 1e6d);
+  }
+}
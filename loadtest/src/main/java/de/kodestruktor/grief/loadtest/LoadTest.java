@@ -0,0 +1,78 @@
+package de.kodestruktor.grief.loadtest;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the taglib inside a servlet container. Unlike measuring single tags, it includes the compilation of the JSPs, the pooling of the
+ * tag handlers and the buffering of the JSP writers. It starts an embedded Tomcat on the loopback interface, drives the sample pages with
+ * concurrent clients and writes throughput and latency percentiles to a JSON file; no network or other services are needed. It is configured by
+ * system properties:
+ * <ul>
+ * <li><code>loadtest.threads</code>: the number of concurrent clients; defaults to twice the number of processors</li>
+ * <li><code>loadtest.warmup</code>: the seconds to warm up before measuring; defaults to 10</li>
+ * <li><code>loadtest.duration</code>: the seconds to measure; defaults to 30</li>
+ * <li><code>loadtest.pages</code>: comma separated paths of the pages to request; defaults to all sample pages</li>
+ * <li><code>loadtest.esi</code>: announce an ESI capable surrogate, so fragments are rendered as includes; defaults to <code>false</code></li>
+ * <li><code>loadtest.webapp</code>: the directory of the web application; defaults to <code>src/main/webapp</code></li>
+ * <li><code>loadtest.report</code>: the file to write the report to; defaults to <code>target/loadtest-report.json</code></li>
+ * </ul>
+ *
+ * @author Christoph Wende
+ * @see LoadReport
+ */
+public final class LoadTest {
+
+  private static final String DEFAULT_PAGES = "/home.jsp,/list.jsp,/manifest.jsp";
+
+  /**
+   * Empty private constructor to avoid instantiation.
+   */
+  private LoadTest() {
+    // Here be dragons...
+  }
+
+  /**
+   * Run the load test.
+   *
+   * @param args
+   *          ignored, the load test is configured by system properties
+   * @throws Exception
+   *           in case the server could not be started or a page failed
+   */
+  public static void main(final String[] args) throws Exception {
+    final int threads = Integer.getInteger("loadtest.threads", Runtime.getRuntime().availableProcessors() * 2).intValue();
+    final long warmupNanos = TimeUnit.SECONDS.toNanos(Long.getLong("loadtest.warmup", 10L).longValue());
+    final long durationNanos = TimeUnit.SECONDS.toNanos(Long.getLong("loadtest.duration", 30L).longValue());
+    final List<String> pages = Arrays.asList(System.getProperty("loadtest.pages", DEFAULT_PAGES).split("\\s*,\\s*"));
+    final boolean esi = Boolean.getBoolean("loadtest.esi");
+    final File webapp = new File(System.getProperty("loadtest.webapp", "src/main/webapp"));
+    final File report = new File(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+    if (!new File(webapp, "WEB-INF/web.xml").isFile()) {
+      throw new IllegalArgumentException("No web application found at " + webapp.getAbsolutePath());
+    }
+
+    final LoadTestServer server = new LoadTestServer(webapp, Files.createTempDirectory("grief-loadtest").toFile());
+    server.start();
+    try {
+      final LoadClient client = new LoadClient(server.getBaseUrl(), pages, esi);
+      final Map<String, PageResult> results = client.requestFirst();
+
+      System.out.println(String.format(Locale.ROOT, "Running %d clients against %s for %d s after a warmup of %d s", Integer.valueOf(threads),
+          server.getBaseUrl(), Long.valueOf(TimeUnit.NANOSECONDS.toSeconds(durationNanos)),
+          Long.valueOf(TimeUnit.NANOSECONDS.toSeconds(warmupNanos))));
+      client.run(results, threads, warmupNanos, durationNanos);
+
+      System.out.println(new LoadReport(results, threads, warmupNanos, durationNanos, esi).write(report));
+      System.out.println("Report written to " + report.getAbsolutePath());
+    } finally {
+      server.stop();
+    }
+  }
+}
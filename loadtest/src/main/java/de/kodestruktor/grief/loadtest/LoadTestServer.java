@@ -0,0 +1,50 @@
+package de.kodestruktor.grief.loadtest;
+
+import java.io.File;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+
+/**
+ * Embedded Tomcat serving the load test pages on a free port of the loopback interface. The JSPs are compiled by Jasper on first request and
+ * the tag handlers are pooled, the same way they are in a deployed application.
+ *
+ * @author Christoph Wende
+ */
+final class LoadTestServer {
+
+  static final String CONTEXT_PATH = "/app";
+
+  private final Tomcat tomcat = new Tomcat();
+
+  /**
+   * @param webapp
+   *          the directory of the web application
+   * @param baseDir
+   *          the working directory of Tomcat, e.g. receiving the compiled JSPs
+   */
+  LoadTestServer(final File webapp, final File baseDir) {
+    this.tomcat.setBaseDir(baseDir.getAbsolutePath());
+    this.tomcat.setHostname("localhost");
+    this.tomcat.setPort(0);
+    this.tomcat.getConnector().setProperty("address", "127.0.0.1");
+    this.tomcat.getHost().setAutoDeploy(false);
+    this.tomcat.addWebapp(CONTEXT_PATH, webapp.getAbsolutePath());
+  }
+
+  void start() throws LifecycleException {
+    this.tomcat.start();
+  }
+
+  void stop() throws LifecycleException {
+    this.tomcat.stop();
+    this.tomcat.destroy();
+  }
+
+  /**
+   * @return the URL of the application, e.g. <code>http://127.0.0.1:8080/app</code>
+   */
+  String getBaseUrl() {
+    return "http://127.0.0.1:" + this.tomcat.getConnector().getLocalPort() + CONTEXT_PATH;
+  }
+}
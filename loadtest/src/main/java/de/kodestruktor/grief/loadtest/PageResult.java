@@ -0,0 +1,38 @@
+package de.kodestruktor.grief.loadtest;
+
+/**
+ * The result of the load test for a single page.
+ *
+ * @author Christoph Wende
+ */
+final class PageResult {
+
+  private final long firstRequestNanos;
+
+  private final long bytes;
+
+  private final LatencyRecorder latencies = new LatencyRecorder();
+
+  /**
+   * @param firstRequestNanos
+   *          the latency of the first request, including the compilation of the JSP
+   * @param bytes
+   *          the size of the page as sent to the client
+   */
+  PageResult(final long firstRequestNanos, final long bytes) {
+    this.firstRequestNanos = firstRequestNanos;
+    this.bytes = bytes;
+  }
+
+  long getFirstRequestNanos() {
+    return this.firstRequestNanos;
+  }
+
+  long getBytes() {
+    return this.bytes;
+  }
+
+  LatencyRecorder getLatencies() {
+    return this.latencies;
+  }
+}
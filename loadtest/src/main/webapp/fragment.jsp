@@ -0,0 +1,6 @@
+<%@ page contentType="text/html; charset=UTF-8" trimDirectiveWhitespaces="true" %>
+<%@ taglib prefix="g" uri="http://grief.kodestruktor.de/taglib" %>
+<nav>
+  <g:image uri="logo.png" alt="Logo" />
+  <g:svg uri="arrow.svg" cssClass="arrow" />
+</nav>
@@ -0,0 +1,40 @@
+<%@ page contentType="text/html; charset=UTF-8" trimDirectiveWhitespaces="true" %>
+<%@ taglib prefix="g" uri="http://grief.kodestruktor.de/taglib" %>
+<g:etag keys="grief.app.root">
+  <g:validator value="home" />
+</g:etag>
+<g:compact>
+<!DOCTYPE html>
+<html lang="en">
+  <head>
+    <meta charset="UTF-8">
+    <title>grief load test</title>
+    <!-- resources of the page -->
+    <g:hint rel="preload" uri="app.js" as="script" />
+    <g:font family="Roboto" uri="roboto.woff2" />
+    <g:style uri="app.css" />
+    <g:favicon uri="icon.png" />
+    <g:importmap entry="app" />
+    <g:script uri="app.js" defer="true" />
+    <g:version type="both" style="meta" />
+  </head>
+  <g:flush />
+  <body>
+    <header>
+      <g:image uri="logo.png" alt="Logo" />
+      <g:icon uri="icon.png" alt="Icon" />
+    </header>
+    <main>
+      <g:constants className="de.kodestruktor.grief.taglib.property.GriefTaglibProperty" var="grief" />
+      <p>
+        Trace enabled by <code>${grief.TRACE_PROP_ENABLED}</code>
+        <g:svg uri="arrow.svg" cssClass="arrow" />
+      </p>
+      <pre>
+  preformatted   text
+      </pre>
+    </main>
+  </body>
+</html>
+</g:compact>
+<g:trace />
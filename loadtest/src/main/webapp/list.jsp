@@ -0,0 +1,31 @@
+<%@ page contentType="text/html; charset=UTF-8" trimDirectiveWhitespaces="true" %>
+<%@ page import="java.util.ArrayList, java.util.List, org.springframework.data.domain.PageImpl, org.springframework.data.domain.PageRequest" %>
+<%@ taglib prefix="g" uri="http://grief.kodestruktor.de/taglib" %>
+<%
+  final int number = request.getParameter("page") == null ? 2 : Integer.parseInt(request.getParameter("page"));
+  final List<String> items = new ArrayList<String>();
+  for (int i = 0; i < 20; i++) {
+    items.add("Item " + (number * 20 + i));
+  }
+  request.setAttribute("items", new PageImpl<String>(items, new PageRequest(number, 20), 2000));
+%>
+<!DOCTYPE html>
+<html lang="en">
+  <head>
+    <meta charset="UTF-8">
+    <title>grief load test</title>
+    <g:style uri="app.css" />
+    <g:script uri="util.js" />
+  </head>
+  <body>
+    <g:fragment src="/fragment.jsp">
+      <jsp:include page="/fragment.jsp" />
+    </g:fragment>
+    <ul>
+      <% for (final String item : items) { %>
+      <li><g:icon uri="icon.png" alt="Item" /> <%= item %></li>
+      <% } %>
+    </ul>
+    <g:pagination page="${items}" uri="/list.jsp" prevCode="loadtest.previous" nextCode="loadtest.next" />
+  </body>
+</html>
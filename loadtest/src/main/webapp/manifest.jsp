@@ -0,0 +1,3 @@
+<%@ page contentType="application/json; charset=UTF-8" trimDirectiveWhitespaces="true" %>
+<%@ taglib prefix="g" uri="http://grief.kodestruktor.de/taglib" %>
+<g:precache />
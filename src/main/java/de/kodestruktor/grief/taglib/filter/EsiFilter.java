@@ -0,0 +1,177 @@
+package de.kodestruktor.grief.taglib.filter;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.HtmlUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Fragment;
+
+/**
+ * Local stand-in for an ESI processing edge cache, e.g. for development or integration tests without Varnish. The filter announces itself as ESI
+ * capable surrogate, so fragment tags render <code>&lt;esi:include&gt;</code> references as they would behind the edge cache, and resolves these
+ * references afterwards by including the fragments from the application itself. Fragments may reference further fragments, up to a depth of
+ * {@value #MAX_DEPTH}.<br>
+ * <br>
+ * As the references are resolved already, the <code>Surrogate-Control</code> header set by fragment tags is not passed on to the client or to
+ * further caches. Only the output written to the writer of the response is processed; output written to the output stream is passed through
+ * unchanged. Fragment tags only render references if {@link GriefTaglibProperty#ESI_PROP_ENABLED} is set.
+ *
+ * @author Christoph Wende
+ * @see Fragment
+ */
+public class EsiFilter extends OncePerRequestFilter {
+
+  /**
+   * Request attribute marking a request as processed by this filter.
+   */
+  public static final String REQUEST_ATTRIBUTE = EsiFilter.class.getName();
+
+  private static final Logger LOG = LoggerFactory.getLogger(EsiFilter.class);
+
+  private static final Pattern INCLUDE = Pattern.compile("<esi:include\\s+src=\"([^\"]*)\"[^>]*?/>");
+
+  private static final int MAX_DEPTH = 3;
+
+  private static final String SURROGATE_CONTROL = "Surrogate-Control";
+
+  @Override
+  protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+      throws ServletException, IOException {
+    request.setAttribute(REQUEST_ATTRIBUTE, Boolean.TRUE);
+
+    final CapturingResponse capture = new CapturingResponse(response);
+    filterChain.doFilter(request, capture);
+
+    final String content = capture.getContent();
+    if (!content.isEmpty()) {
+      response.getWriter().write(this.process(request, response, content, 0));
+    }
+  }
+
+  private String process(final HttpServletRequest request, final HttpServletResponse response, final String content, final int depth)
+      throws ServletException, IOException {
+    if (!content.contains("<esi:include")) {
+      return content;
+    }
+    if (depth >= MAX_DEPTH) {
+      LOG.warn("Fragments of [{}] are nested deeper than {}; leaving the remaining references unresolved", request.getRequestURI(),
+          Integer.valueOf(MAX_DEPTH));
+      return content;
+    }
+
+    final StringBuilder processed = new StringBuilder(content.length() + 1024);
+    final Matcher matcher = INCLUDE.matcher(content);
+    int last = 0;
+    while (matcher.find()) {
+      processed.append(content, last, matcher.start());
+      processed.append(this.process(request, response, this.include(request, response, HtmlUtils.htmlUnescape(matcher.group(1))), depth + 1));
+      last = matcher.end();
+    }
+    processed.append(content, last, content.length());
+    return processed.toString();
+  }
+
+  private String include(final HttpServletRequest request, final HttpServletResponse response, final String src)
+      throws ServletException, IOException {
+    final String contextPath = request.getContextPath();
+    final String path = !contextPath.isEmpty() && src.startsWith(contextPath + "/") ? src.substring(contextPath.length()) : src;
+
+    final RequestDispatcher dispatcher = path.startsWith("/") ? request.getRequestDispatcher(path) : null;
+    if (dispatcher == null) {
+      LOG.warn("Cannot resolve fragment [{}]; only fragments of the application itself are supported", src);
+      return "";
+    }
+
+    final CapturingResponse fragment = new CapturingResponse(response);
+    dispatcher.include(request, fragment);
+    return fragment.getContent();
+  }
+
+  /**
+   * Response keeping everything written to its writer in memory, until it is processed.
+   */
+  private static final class CapturingResponse extends HttpServletResponseWrapper {
+
+    private final CharArrayWriter buffer = new CharArrayWriter(8192);
+
+    private PrintWriter writer;
+
+    CapturingResponse(final HttpServletResponse response) {
+      super(response);
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (this.writer == null) {
+        this.writer = new PrintWriter(this.buffer);
+      }
+      return this.writer;
+    }
+
+    @Override
+    public void setContentLength(final int length) {
+      // the length changes as soon as fragments are included
+    }
+
+    @Override
+    public void setContentLengthLong(final long length) {
+      // the length changes as soon as fragments are included
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+      if (!SURROGATE_CONTROL.equalsIgnoreCase(name)) {
+        super.setHeader(name, value);
+      }
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+      if (!SURROGATE_CONTROL.equalsIgnoreCase(name)) {
+        super.addHeader(name, value);
+      }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      // committing the response has to wait until the fragments have been included
+      if (this.writer != null) {
+        this.writer.flush();
+      }
+    }
+
+    @Override
+    public void resetBuffer() {
+      super.resetBuffer();
+      this.buffer.reset();
+    }
+
+    @Override
+    public void reset() {
+      super.reset();
+      this.buffer.reset();
+    }
+
+    String getContent() {
+      if (this.writer != null) {
+        this.writer.flush();
+      }
+      return this.buffer.toString();
+    }
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * @author Christoph Wende
+ */
+package de.kodestruktor.grief.taglib.filter;
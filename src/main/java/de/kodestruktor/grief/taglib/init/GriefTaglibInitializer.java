@@ -0,0 +1,364 @@
+package de.kodestruktor.grief.taglib.init;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.context.WebApplicationContext;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+import de.kodestruktor.grief.taglib.tag.Compact;
+import de.kodestruktor.grief.taglib.tag.Constants;
+import de.kodestruktor.grief.taglib.tag.Etag;
+import de.kodestruktor.grief.taglib.tag.Favicon;
+import de.kodestruktor.grief.taglib.tag.Flush;
+import de.kodestruktor.grief.taglib.tag.Font;
+import de.kodestruktor.grief.taglib.tag.Fragment;
+import de.kodestruktor.grief.taglib.tag.Hint;
+import de.kodestruktor.grief.taglib.tag.Icon;
+import de.kodestruktor.grief.taglib.tag.Image;
+import de.kodestruktor.grief.taglib.tag.Importmap;
+import de.kodestruktor.grief.taglib.tag.Pagination;
+import de.kodestruktor.grief.taglib.tag.Precache;
+import de.kodestruktor.grief.taglib.tag.Script;
+import de.kodestruktor.grief.taglib.tag.Style;
+import de.kodestruktor.grief.taglib.tag.Svg;
+import de.kodestruktor.grief.taglib.tag.Trace;
+import de.kodestruktor.grief.taglib.tag.Validator;
+import de.kodestruktor.grief.taglib.tag.Version;
+import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.util.ConstantsRegistry;
+import de.kodestruktor.grief.taglib.util.ImageDimensions;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+import de.kodestruktor.grief.taglib.util.ScriptDependencyGraph;
+import de.kodestruktor.grief.taglib.util.ThemeIndex;
+
+/**
+ * Eagerly initializes the taglib as soon as the application context has been refreshed, so the first requests after a deployment do not have to
+ * pay for loading the tag classes, resolving the configuration or filling caches. To enable it, register the initializer as a bean in the web
+ * application context, e.g.:<br>
+ * <br>
+ * <code>&lt;bean class="de.kodestruktor.grief.taglib.init.GriefTaglibInitializer" /&gt;</code><br>
+ * <br>
+ * All {@link InitializationTask}s of a phase are executed in parallel, the phases one after another; the time taken is logged per task and in
+ * total. Additional tasks can be passed via
+ * {@link #setTasks(List)}. The number of threads may be configured with {@link GriefTaglibProperty#INIT_PROP_THREADS}.<br>
+ * <br>
+ * Once a context is closed, everything grief cached statically for it is removed again, so a redeployed application does not keep the class
+ * loader of its previous deployment alive, if grief is loaded by a class loader shared between applications.
+ *
+ * @author Christoph Wende
+ */
+public class GriefTaglibInitializer implements ApplicationListener<ApplicationContextEvent> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GriefTaglibInitializer.class);
+
+  private static final Class<?>[] TAG_CLASSES = { Compact.class, Constants.class, Etag.class, Favicon.class, Flush.class, Font.class,
+      Fragment.class, Hint.class, Icon.class, Image.class, Importmap.class, Pagination.class, Precache.class, Script.class, Style.class, Svg.class,
+      Trace.class, Validator.class, Version.class };
+
+  private static final String[] MARKUP_FORMATS = { GriefTaglibProperty.RESOURCE_TAG_FAVICON, GriefTaglibProperty.RESOURCE_TAG_IMAGE,
+      GriefTaglibProperty.RESOURCE_TAG_IMAGE_ATTRIBUTES, GriefTaglibProperty.RESOURCE_TAG_SCRIPT, GriefTaglibProperty.RESOURCE_TAG_SCRIPT_ASYNC,
+      GriefTaglibProperty.RESOURCE_TAG_SCRIPT_DEFER, GriefTaglibProperty.RESOURCE_TAG_SCRIPT_MODULE, GriefTaglibProperty.RESOURCE_TAG_IMPORTMAP,
+      GriefTaglibProperty.RESOURCE_TAG_STYLE, GriefTaglibProperty.RESOURCE_TAG_HINT, GriefTaglibProperty.RESOURCE_TAG_ICON,
+      GriefTaglibProperty.RESOURCE_TAG_SVG_INLINE, GriefTaglibProperty.RESOURCE_TAG_SVG_USE, GriefTaglibProperty.RESOURCE_TAG_SVG_SYMBOL,
+      GriefTaglibProperty.RESOURCE_TAG_SVG_SPRITE, GriefTaglibProperty.RESOURCE_TAG_FONT_FACE, GriefTaglibProperty.RESOURCE_TAG_ESI_INCLUDE };
+
+  private final Set<ApplicationContext> initializedContexts = Collections.newSetFromMap(new IdentityHashMap<ApplicationContext, Boolean>());
+
+  private final List<InitializationTask> tasks = new ArrayList<>();
+
+  /**
+   * Create an initializer executing the default tasks of grief.
+   */
+  public GriefTaglibInitializer() {
+    this.tasks.addAll(createDefaultTasks());
+  }
+
+  @Override
+  public void onApplicationEvent(final ApplicationContextEvent event) {
+    if (event instanceof ContextRefreshedEvent) {
+      this.onRefresh(event.getApplicationContext());
+    } else if (event instanceof ContextClosedEvent) {
+      this.onClose(event.getApplicationContext());
+    }
+  }
+
+  private void onRefresh(final ApplicationContext applicationContext) {
+    if (!(applicationContext instanceof WebApplicationContext)) {
+      LOG.debug("Context [{}] is no web application context; omitting initialization", applicationContext.getId());
+      return;
+    }
+
+    synchronized (this.initializedContexts) {
+      if (!this.initializedContexts.add(applicationContext)) {
+        return;
+      }
+    }
+
+    this.initialize(new InitializationContext((WebApplicationContext) applicationContext));
+  }
+
+  /**
+   * Remove everything cached for a closed context; events of child contexts, e.g. of the dispatcher servlet, are received as well.
+   */
+  private void onClose(final ApplicationContext applicationContext) {
+    synchronized (this.initializedContexts) {
+      this.initializedContexts.remove(applicationContext);
+    }
+
+    final Environment env = applicationContext.getEnvironment();
+    ConfigurationUtil.clearCaches(env);
+    RenderTrace.clear(env);
+    if (applicationContext.getClassLoader() != null) {
+      ConstantsRegistry.clear(applicationContext.getClassLoader());
+    }
+    LOG.debug("Cleared the caches of context [{}]", applicationContext.getId());
+  }
+
+  /**
+   * Execute all tasks phase by phase and wait for them to finish. The tasks of a phase are executed in parallel.
+   *
+   * @param context
+   *          the context of the application being initialized
+   * @throws InitializationException
+   *           in case a task aborted the startup; the remaining phases are not executed
+   */
+  public void initialize(final InitializationContext context) {
+    final long start = System.nanoTime();
+    final SortedMap<Integer, List<InitializationTask>> phases = new TreeMap<>();
+    int maxPhaseSize = 0;
+    for (final InitializationTask task : this.tasks) {
+      final Integer phase = Integer.valueOf(task instanceof Ordered ? ((Ordered) task).getOrder() : InitializationTask.PHASE_DEFAULT);
+      List<InitializationTask> phaseTasks = phases.get(phase);
+      if (phaseTasks == null) {
+        phaseTasks = new ArrayList<>();
+        phases.put(phase, phaseTasks);
+      }
+      phaseTasks.add(task);
+      maxPhaseSize = Math.max(maxPhaseSize, phaseTasks.size());
+    }
+
+    final int threads = Math.max(1, Math.min(maxPhaseSize, context.getEnvironment().getProperty(GriefTaglibProperty.INIT_PROP_THREADS,
+        Integer.class, Integer.valueOf(Runtime.getRuntime().availableProcessors())).intValue()));
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (final List<InitializationTask> phaseTasks : phases.values()) {
+        this.execute(context, phaseTasks, executor);
+      }
+    } catch (final InterruptedException e) {
+      LOG.warn("Initialization has been interrupted");
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    LOG.info("Initialized grief taglib with {} tasks in {} phases on {} threads in {} ms", Integer.valueOf(this.tasks.size()),
+        Integer.valueOf(phases.size()), Integer.valueOf(threads), Long.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+  }
+
+  private void execute(final InitializationContext context, final List<InitializationTask> phaseTasks, final ExecutorService executor)
+      throws InterruptedException {
+    final List<Callable<Long>> callables = new ArrayList<>(phaseTasks.size());
+    for (final InitializationTask task : phaseTasks) {
+      callables.add(new Callable<Long>() {
+
+        @Override
+        public Long call() throws Exception {
+          final long taskStart = System.nanoTime();
+          task.execute(context);
+          return Long.valueOf(System.nanoTime() - taskStart);
+        }
+      });
+    }
+
+    InitializationException abort = null;
+    final List<Future<Long>> results = executor.invokeAll(callables);
+    for (int i = 0; i < results.size(); i++) {
+      final String name = phaseTasks.get(i).getName();
+      try {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(results.get(i).get().longValue());
+        LOG.debug("Initialization task [{}] finished in {} ms", name, Long.valueOf(millis));
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof InitializationException) {
+          LOG.error("Initialization task [{}] aborted the startup: {}", name, e.getCause().getMessage());
+          abort = (InitializationException) e.getCause();
+        } else {
+          LOG.error("Initialization task [" + name + "] failed", e.getCause());
+        }
+      }
+    }
+
+    if (abort != null) {
+      throw abort;
+    }
+  }
+
+  /**
+   * Replace the tasks executed on initialization.
+   *
+   * @param tasks
+   *          the tasks to execute
+   */
+  public void setTasks(final List<InitializationTask> tasks) {
+    this.tasks.clear();
+    this.tasks.addAll(tasks);
+  }
+
+  public List<InitializationTask> getTasks() {
+    return Collections.unmodifiableList(this.tasks);
+  }
+
+  /**
+   * Create the tasks grief executes per default.
+   *
+   * @return the default tasks
+   */
+  public static List<InitializationTask> createDefaultTasks() {
+    final List<InitializationTask> defaultTasks = new ArrayList<>();
+
+    defaultTasks.add(new InitializationTask() {
+
+      @Override
+      public String getName() {
+        return "tag classes";
+      }
+
+      @Override
+      public void execute(final InitializationContext context) throws Exception {
+        final ClassLoader classLoader = GriefTaglibInitializer.class.getClassLoader();
+        for (final Class<?> tagClass : TAG_CLASSES) {
+          Class.forName(tagClass.getName(), true, classLoader);
+        }
+        // prepares the markup formats used by the tags along with the property constants
+        for (final String format : MARKUP_FORMATS) {
+          MarkupUtil.format(format);
+        }
+      }
+    });
+
+    defaultTasks.add(new InitializationTask() {
+
+      @Override
+      public String getName() {
+        return "resource configuration";
+      }
+
+      @Override
+      public void execute(final InitializationContext context) throws Exception {
+        context.getResourceConfiguration();
+        LOG.debug("Resolved revision [{}] on startup", context.getRevision());
+      }
+    });
+
+    defaultTasks.add(new InitializationTask() {
+
+      @Override
+      public String getName() {
+        return "pagination messages";
+      }
+
+      @Override
+      public void execute(final InitializationContext context) throws Exception {
+        final Locale locale = Locale.getDefault();
+        context.getApplicationContext().getMessage(GriefTaglibProperty.PAGINATION_PROP_PREV, null, GriefTaglibProperty.PAGINATION_PROP_PREV, locale);
+        context.getApplicationContext().getMessage(GriefTaglibProperty.PAGINATION_PROP_NEXT, null, GriefTaglibProperty.PAGINATION_PROP_NEXT, locale);
+      }
+    });
+
+    defaultTasks.add(new InitializationTask() {
+
+      @Override
+      public String getName() {
+        return "script dependencies";
+      }
+
+      @Override
+      public void execute(final InitializationContext context) throws Exception {
+        ScriptDependencyGraph.get(context.getApplicationContext());
+      }
+    });
+
+    defaultTasks.add(new InitializationTask() {
+
+      @Override
+      public String getName() {
+        return "image dimensions";
+      }
+
+      @Override
+      public void execute(final InitializationContext context) throws Exception {
+        final ImageDimensions dimensions = ImageDimensions.get(context.getApplicationContext());
+        if (dimensions != null) {
+          final String directory = context.getResourceConfiguration().buildLocation(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, "", false,
+              context.getRevision());
+          LOG.debug("Read dimensions of {} images in [{}]", Integer.valueOf(dimensions.warmUp(context.getServletContext(), directory)), directory);
+        }
+      }
+    });
+
+    defaultTasks.add(new InitializationTask() {
+
+      @Override
+      public String getName() {
+        return "constants";
+      }
+
+      @Override
+      public void execute(final InitializationContext context) throws Exception {
+        final Environment env = context.getEnvironment();
+        final String packages = env.getProperty(GriefTaglibProperty.CONSTANTS_PROP_PACKAGES);
+        if (StringUtils.isNotBlank(packages)) {
+          final int threads = env.getProperty(GriefTaglibProperty.INIT_PROP_THREADS, Integer.class,
+              Integer.valueOf(Runtime.getRuntime().availableProcessors())).intValue();
+          context.getServletContext().setAttribute(env.getProperty(GriefTaglibProperty.CONSTANTS_PROP_VAR, "constants"),
+              ConstantsRegistry.getConstants(packages, context.getApplicationContext().getClassLoader(), threads));
+        }
+      }
+    });
+
+    defaultTasks.add(new InitializationTask() {
+
+      @Override
+      public String getName() {
+        return "theme index";
+      }
+
+      @Override
+      public void execute(final InitializationContext context) throws Exception {
+        ThemeIndex.get(context.getServletContext(), context.getEnvironment(), context.getRevision());
+      }
+    });
+
+    defaultTasks.add(new SpriteSheetTask());
+    defaultTasks.add(new StylesheetRewriteTask());
+    defaultTasks.add(new MinificationTask());
+    defaultTasks.add(new PrecacheManifestTask());
+    defaultTasks.add(new ResourceVerificationTask());
+
+    return defaultTasks;
+  }
+}
@@ -0,0 +1,105 @@
+package de.kodestruktor.grief.taglib.init;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import javax.servlet.ServletContext;
+
+import org.springframework.core.env.Environment;
+import org.springframework.web.context.WebApplicationContext;
+
+import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.util.ResourceConfiguration;
+
+/**
+ * Everything an {@link InitializationTask} may need to know about the application being initialized.
+ *
+ * @author Christoph Wende
+ */
+public class InitializationContext {
+
+  private final WebApplicationContext applicationContext;
+
+  private final String revision;
+
+  /**
+   * @param applicationContext
+   *          the web application context being initialized
+   */
+  public InitializationContext(final WebApplicationContext applicationContext) {
+    this.applicationContext = applicationContext;
+    this.revision = ConfigurationUtil.getRevision(applicationContext.getServletContext());
+  }
+
+  public WebApplicationContext getApplicationContext() {
+    return this.applicationContext;
+  }
+
+  public ServletContext getServletContext() {
+    return this.applicationContext.getServletContext();
+  }
+
+  public Environment getEnvironment() {
+    return this.applicationContext.getEnvironment();
+  }
+
+  public ResourceConfiguration getResourceConfiguration() {
+    return ConfigurationUtil.getResourceConfiguration(this.getEnvironment());
+  }
+
+  /**
+   * @return the revision of the application, as read from its manifest; may be <code>null</code>
+   */
+  public String getRevision() {
+    return this.revision;
+  }
+
+  /**
+   * List all files in a directory of the web application and its subdirectories.
+   *
+   * @param directory
+   *          the location of the directory inside the web application, ending with a slash
+   * @return the locations of the files, sorted
+   */
+  public List<String> listResources(final String directory) {
+    return ConfigurationUtil.listResources(this.getServletContext(), directory);
+  }
+
+  /**
+   * Write a file into the web application, e.g. into the versioned resource directory. The file is written to a temporary file first and moved
+   * in place afterwards, so concurrent readers never see a partially written file.
+   *
+   * @param location
+   *          the location of the file inside the web application
+   * @param content
+   *          the content of the file
+   * @return <code>true</code> if the file has been written, <code>false</code> if the web application is not deployed to the file system
+   * @throws IOException
+   *           in case the file could not be written
+   */
+  public boolean writeResource(final String location, final byte[] content) throws IOException {
+    final String realPath = this.getServletContext().getRealPath(location);
+    if (realPath == null) {
+      return false;
+    }
+
+    final File target = new File(realPath);
+    final File directory = target.getParentFile();
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create directory " + directory);
+    }
+
+    final File temp = File.createTempFile(target.getName(), ".tmp", directory);
+    try {
+      Files.write(temp.toPath(), content);
+      Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp.toPath());
+    }
+    return true;
+  }
+
+}
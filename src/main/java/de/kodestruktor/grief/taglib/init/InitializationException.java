@@ -0,0 +1,21 @@
+package de.kodestruktor.grief.taglib.init;
+
+/**
+ * Thrown by an {@link InitializationTask} to abort the startup of the application. Unlike any other failure of a task, which is logged and
+ * ignored, it is rethrown by the {@link GriefTaglibInitializer} once the phase of the task has finished, failing the refresh of the application
+ * context.
+ *
+ * @author Christoph Wende
+ */
+public class InitializationException extends RuntimeException {
+
+  private static final long serialVersionUID = 7398310842465527603L;
+
+  /**
+   * @param message
+   *          the reason to abort the startup
+   */
+  public InitializationException(final String message) {
+    super(message);
+  }
+}
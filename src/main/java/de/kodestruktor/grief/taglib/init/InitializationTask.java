@@ -0,0 +1,55 @@
+package de.kodestruktor.grief.taglib.init;
+
+import org.springframework.core.Ordered;
+
+/**
+ * A unit of work executed by the {@link GriefTaglibInitializer} on startup, e.g. resolving configuration or filling a cache used by the tags.
+ * Tasks are executed in parallel and must therefore not depend on each other, unless they are executed in different phases: a task implementing
+ * {@link Ordered} is executed in the phase of its order, all other tasks in phase {@link #PHASE_DEFAULT}. The phases are executed one after
+ * another in ascending order.
+ *
+ * @author Christoph Wende
+ */
+public interface InitializationTask {
+
+  /**
+   * Phase of all tasks not implementing {@link Ordered}, e.g. tasks filling caches or writing resources like the sprite sheet.
+   */
+  int PHASE_DEFAULT = 0;
+
+  /**
+   * Phase of tasks rewriting the resources of the application, after the resources written on startup are complete.
+   */
+  int PHASE_REWRITE = 100;
+
+  /**
+   * Phase of tasks optimizing the final resources of the application, e.g. minifying them.
+   */
+  int PHASE_OPTIMIZE = 200;
+
+  /**
+   * Phase of tasks indexing the final resources of the application, e.g. hashing them, after they have been optimized.
+   */
+  int PHASE_INDEX = 300;
+
+  /**
+   * Phase of tasks verifying the final state of the application, after all resources have been written.
+   */
+  int PHASE_VERIFY = 400;
+
+  /**
+   * @return a short name describing the task, used for logging
+   */
+  String getName();
+
+  /**
+   * Execute the task.
+   *
+   * @param context
+   *          the context of the application being initialized
+   * @throws Exception
+   *           in case the task fails; the failure is logged and does not abort the other tasks, unless it is an
+   *           {@link InitializationException}
+   */
+  void execute(InitializationContext context) throws Exception;
+}
@@ -0,0 +1,188 @@
+package de.kodestruktor.grief.taglib.init;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StreamUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.Minifier;
+import de.kodestruktor.grief.taglib.util.ResourceConfiguration;
+import de.kodestruktor.grief.taglib.util.RewrittenStylesheets;
+
+/**
+ * Minifies all versioned scripts and stylesheets on startup, if {@link GriefTaglibProperty#MINIFY_PROP_ENABLED} is set. Every file is minified on
+ * a pool of worker threads and written next to the original, e.g. <code>app.min.js</code> for <code>app.js</code>, starting with a short marker
+ * comment. A minified variant shipped along with the original, e.g. by a vendor library, is recognized by the missing marker; it is registered as
+ * it is instead of being overwritten, while variants written by a previous startup are minified again. Files which are minified
+ * already are left alone. The size of the originals and the minified variants is logged in total and per file.<br>
+ * <br>
+ * Files which cannot be minified, e.g. because of syntax the minifier does not understand, keep being rendered as they are. The task runs in
+ * phase {@link InitializationTask#PHASE_OPTIMIZE}, so stylesheets written or rewritten on startup are minified in their final state: a stylesheet
+ * with a {@link RewrittenStylesheets rewritten} variant is minified from that variant, while the variant itself is not minified on its own.
+ *
+ * @author Christoph Wende
+ * @see MinifiedResources
+ */
+public class MinificationTask implements InitializationTask, Ordered {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MinificationTask.class);
+
+  private static final String MARKER = "/*grief-minified*/";
+
+  @Override
+  public String getName() {
+    return "minification";
+  }
+
+  @Override
+  public int getOrder() {
+    return PHASE_OPTIMIZE;
+  }
+
+  @Override
+  public void execute(final InitializationContext context) throws Exception {
+    final Environment env = context.getEnvironment();
+    if (!env.getProperty(GriefTaglibProperty.MINIFY_PROP_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()) {
+      return;
+    }
+
+    final ResourceConfiguration configuration = context.getResourceConfiguration();
+    final String scriptDirectory = configuration.buildLocation(GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR, "", false, context.getRevision());
+    final String styleDirectory = configuration.buildLocation(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, "", false, context.getRevision());
+
+    if (context.getServletContext().getRealPath(scriptDirectory) == null) {
+      LOG.warn("Application is not deployed to the file system; omitting minification");
+      return;
+    }
+
+    final Map<String, String> scripts = new ConcurrentHashMap<>();
+    final Map<String, String> styles = new ConcurrentHashMap<>();
+    final AtomicLong originalBytes = new AtomicLong();
+    final AtomicLong minifiedBytes = new AtomicLong();
+
+    final RewrittenStylesheets rewritten = RewrittenStylesheets.get(env);
+
+    final List<Callable<Void>> jobs = new ArrayList<>();
+    for (final String location : context.listResources(scriptDirectory)) {
+      if (isMinifiable(location, ".js")) {
+        jobs.add(this.createJob(context, location, location, scriptDirectory, scripts, originalBytes, minifiedBytes));
+      }
+    }
+    for (final String location : context.listResources(styleDirectory)) {
+      if (isMinifiable(location, ".css") && !RewrittenStylesheets.isRewrittenUri(location)) {
+        final String source = rewritten == null ? location : styleDirectory + rewritten.getStyle(location.substring(styleDirectory.length()));
+        jobs.add(this.createJob(context, location, source, styleDirectory, styles, originalBytes, minifiedBytes));
+      }
+    }
+
+    if (jobs.isEmpty()) {
+      return;
+    }
+
+    final int threads = Math.max(1, Math.min(jobs.size(), env.getProperty(GriefTaglibProperty.INIT_PROP_THREADS, Integer.class,
+        Integer.valueOf(Runtime.getRuntime().availableProcessors())).intValue()));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (final Future<Void> result : executor.invokeAll(jobs)) {
+        try {
+          result.get();
+        } catch (final ExecutionException e) {
+          LOG.warn("Could not minify resource; keeping the original", e.getCause());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    MinifiedResources.register(env, new MinifiedResources(scripts, styles, originalBytes.get(), minifiedBytes.get()));
+    LOG.info("Minified {} scripts and {} stylesheets from {} to {} bytes", Integer.valueOf(scripts.size()), Integer.valueOf(styles.size()),
+        Long.valueOf(originalBytes.get()), Long.valueOf(minifiedBytes.get()));
+  }
+
+  private Callable<Void> createJob(final InitializationContext context, final String location, final String source, final String directory,
+      final Map<String, String> minified, final AtomicLong originalBytes, final AtomicLong minifiedBytes) {
+    return new Callable<Void>() {
+
+      @Override
+      public Void call() throws Exception {
+        final String target = MinifiedResources.toMinifiedUri(location);
+        if (isShipped(context, target)) {
+          minified.put(location.substring(directory.length()), target.substring(directory.length()));
+          LOG.debug("Keeping the minified variant [{}] shipped along with [{}]", target, location);
+          return null;
+        }
+
+        final String original;
+        try (InputStream in = context.getServletContext().getResourceAsStream(source)) {
+          if (in == null) {
+            return null;
+          }
+          original = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+
+        final byte[] content;
+        try {
+          content = (MARKER + (isMinifiable(location, ".js") ? Minifier.minifyScript(original) : Minifier.minifyStylesheet(original)))
+              .getBytes(StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException e) {
+          LOG.warn("Could not minify [{}]: {}; keeping the original", location, e.getMessage());
+          return null;
+        }
+
+        if (!context.writeResource(target, content)) {
+          throw new IOException("Could not resolve the real path of " + location);
+        }
+
+        final long originalSize = original.getBytes(StandardCharsets.UTF_8).length;
+        originalBytes.addAndGet(originalSize);
+        minifiedBytes.addAndGet(content.length);
+        minified.put(location.substring(directory.length()), target.substring(directory.length()));
+        LOG.debug("Minified [{}] from {} to {} bytes", location, Long.valueOf(originalSize), Integer.valueOf(content.length));
+        return null;
+      }
+    };
+  }
+
+  /**
+   * Check whether a minified variant exists, which has not been written by this task.
+   */
+  private static boolean isShipped(final InitializationContext context, final String location) throws IOException {
+    try (InputStream in = context.getServletContext().getResourceAsStream(location)) {
+      if (in == null) {
+        return false;
+      }
+      final byte[] marker = MARKER.getBytes(StandardCharsets.UTF_8);
+      final byte[] head = new byte[marker.length];
+      int read = 0;
+      int count;
+      while (read < head.length && (count = in.read(head, read, head.length - read)) >= 0) {
+        read += count;
+      }
+      return !Arrays.equals(marker, head);
+    }
+  }
+
+  private static boolean isMinifiable(final String location, final String extension) {
+    final String name = location.toLowerCase(Locale.ROOT);
+    return name.endsWith(extension) && !name.endsWith(".min" + extension);
+  }
+}
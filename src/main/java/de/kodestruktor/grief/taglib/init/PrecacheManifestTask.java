@@ -0,0 +1,43 @@
+package de.kodestruktor.grief.taglib.init;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.util.PrecacheManifest;
+
+/**
+ * Builds the precache manifest of the current revision on startup, unless {@link GriefTaglibProperty#PRECACHE_PROP_INIT} is disabled, so the
+ * first request for it does not have to hash all versioned resources. The task runs in phase {@link InitializationTask#PHASE_INDEX}, so the
+ * resources written, rewritten and minified on startup are listed in their final state.
+ *
+ * @author Christoph Wende
+ * @see PrecacheManifest
+ */
+public class PrecacheManifestTask implements InitializationTask, Ordered {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PrecacheManifestTask.class);
+
+  @Override
+  public String getName() {
+    return "precache manifest";
+  }
+
+  @Override
+  public int getOrder() {
+    return PHASE_INDEX;
+  }
+
+  @Override
+  public void execute(final InitializationContext context) throws Exception {
+    final Environment env = context.getEnvironment();
+    if (!env.getProperty(GriefTaglibProperty.PRECACHE_PROP_INIT, Boolean.class, Boolean.TRUE).booleanValue()) {
+      return;
+    }
+
+    final PrecacheManifest manifest = PrecacheManifest.get(context.getServletContext(), env, context.getRevision());
+    LOG.debug("Listed {} resources in the precache manifest on startup", Integer.valueOf(manifest.getEntries()));
+  }
+}
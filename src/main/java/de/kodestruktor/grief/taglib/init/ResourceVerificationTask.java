@@ -0,0 +1,230 @@
+package de.kodestruktor.grief.taglib.init;
+
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StreamUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.util.ResourceConfiguration;
+
+/**
+ * Verifies on startup that every resource referenced by a grief tag in the JSPs of the application exists, if
+ * {@link GriefTaglibProperty#VERIFY_PROP_ENABLED} is set. All JSPs, fragments and tag files below the directory configured by
+ * {@link GriefTaglibProperty#VERIFY_PROP_DIR} are scanned on a pool of worker threads for tags of the prefixes the grief taglib is declared with;
+ * files without a declaration, e.g. included fragments, are scanned for all prefixes declared anywhere. The literal <code>uri</code> of every
+ * script, style, image, icon, svg, favicon, font and hint tag is resolved to its location like the tags resolve it, and every location not found
+ * is reported with the file and line of the tag. URIs built by expressions cannot be verified and are skipped.<br>
+ * <br>
+ * If {@link GriefTaglibProperty#VERIFY_PROP_FAIL} is set, missing resources abort the startup of the application. The task runs in phase
+ * {@link InitializationTask#PHASE_VERIFY}, after all resources written on startup are in place.
+ *
+ * @author Christoph Wende
+ */
+public class ResourceVerificationTask implements InitializationTask, Ordered {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ResourceVerificationTask.class);
+
+  private static final String TAGLIB_URI = "http://grief.kodestruktor.de/taglib";
+
+  private static final String DEFAULT_PREFIX = "g";
+
+  private static final String DEFAULT_DIR = "/WEB-INF/";
+
+  private static final String[] EXTENSIONS = { ".jsp", ".jspf", ".jspx", ".tag", ".tagf" };
+
+  private static final Pattern DIRECTIVE = Pattern.compile("<%@\\s*taglib\\s[^%]*%>");
+
+  private static final Pattern ATTRIBUTE = Pattern.compile("([\\w:-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+
+  private static final Map<String, String> DIRECTORIES;
+
+  static {
+    final Map<String, String> directories = new HashMap<>();
+    directories.put("script", GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR);
+    directories.put("style", GriefTaglibProperty.RESOURCE_PROP_STYLEDIR);
+    directories.put("image", GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR);
+    directories.put("icon", GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR);
+    directories.put("svg", GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR);
+    directories.put("favicon", GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR);
+    directories.put("font", GriefTaglibProperty.RESOURCE_PROP_FONTDIR);
+    DIRECTORIES = Collections.unmodifiableMap(directories);
+  }
+
+  @Override
+  public String getName() {
+    return "resource verification";
+  }
+
+  @Override
+  public int getOrder() {
+    return PHASE_VERIFY;
+  }
+
+  @Override
+  public void execute(final InitializationContext context) throws Exception {
+    final Environment env = context.getEnvironment();
+    if (!env.getProperty(GriefTaglibProperty.VERIFY_PROP_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()) {
+      return;
+    }
+
+    // the prefixes have to be known before scanning, as fragments rely on the declaration of the including page
+    final Map<String, String> pages = new HashMap<>();
+    final Set<String> declaredPrefixes = new LinkedHashSet<>();
+    for (final String location : context.listResources(env.getProperty(GriefTaglibProperty.VERIFY_PROP_DIR, DEFAULT_DIR))) {
+      if (StringUtils.endsWithAny(location.toLowerCase(Locale.ROOT), EXTENSIONS)) {
+        try (InputStream in = context.getServletContext().getResourceAsStream(location)) {
+          if (in != null) {
+            final String page = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+            pages.put(location, page);
+            declaredPrefixes.addAll(findPrefixes(page));
+          }
+        }
+      }
+    }
+
+    if (pages.isEmpty()) {
+      return;
+    }
+    if (declaredPrefixes.isEmpty()) {
+      declaredPrefixes.add(DEFAULT_PREFIX);
+    }
+
+    final List<Callable<List<String>>> jobs = new ArrayList<>(pages.size());
+    for (final Map.Entry<String, String> page : pages.entrySet()) {
+      jobs.add(new Callable<List<String>>() {
+
+        @Override
+        public List<String> call() throws Exception {
+          final Set<String> prefixes = findPrefixes(page.getValue());
+          return verify(context, page.getKey(), page.getValue(), prefixes.isEmpty() ? declaredPrefixes : prefixes);
+        }
+      });
+    }
+
+    final List<String> missing = new ArrayList<>();
+    final int threads = Math.max(1, Math.min(jobs.size(), env.getProperty(GriefTaglibProperty.INIT_PROP_THREADS, Integer.class,
+        Integer.valueOf(Runtime.getRuntime().availableProcessors())).intValue()));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (final Future<List<String>> result : executor.invokeAll(jobs)) {
+        try {
+          missing.addAll(result.get());
+        } catch (final ExecutionException e) {
+          LOG.warn("Could not verify the resources of a page", e.getCause());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Collections.sort(missing);
+    for (final String reference : missing) {
+      LOG.warn("Missing resource: {}", reference);
+    }
+    LOG.info("Verified the resources of {} pages; {} missing", Integer.valueOf(pages.size()), Integer.valueOf(missing.size()));
+
+    if (!missing.isEmpty() && env.getProperty(GriefTaglibProperty.VERIFY_PROP_FAIL, Boolean.class, Boolean.FALSE).booleanValue()) {
+      throw new InitializationException(missing.size() + " resources referenced by the pages are missing, e.g. " + missing.get(0));
+    }
+  }
+
+  private static Set<String> findPrefixes(final String page) {
+    final Set<String> prefixes = new LinkedHashSet<>();
+    final Matcher directive = DIRECTIVE.matcher(page);
+    while (directive.find()) {
+      final Map<String, String> attributes = parseAttributes(directive.group());
+      if (TAGLIB_URI.equals(attributes.get("uri")) && StringUtils.isNotBlank(attributes.get("prefix"))) {
+        prefixes.add(attributes.get("prefix").trim());
+      }
+    }
+    return prefixes;
+  }
+
+  private static List<String> verify(final InitializationContext context, final String location, final String page, final Set<String> prefixes) {
+    final List<String> missing = new ArrayList<>();
+    final ResourceConfiguration configuration = context.getResourceConfiguration();
+
+    for (final String prefix : prefixes) {
+      final Matcher tag = Pattern.compile("<" + Pattern.quote(prefix) + ":(\\w+)(\\s[^>]*)?>").matcher(page);
+      while (tag.find()) {
+        final Map<String, String> attributes = parseAttributes(StringUtils.defaultString(tag.group(2)));
+        final String directoryProp = resolveDirectory(tag.group(1), attributes);
+        final String uri = attributes.get("uri");
+
+        if (directoryProp == null || StringUtils.isBlank(uri) || uri.contains("${") || uri.contains("#{") || uri.contains("<%")) {
+          continue;
+        }
+
+        final boolean staticResource = StringUtils.equalsIgnoreCase(attributes.get("staticResource"), "true");
+        // fonts may list several files in order of preference
+        final String[] uris = "font".equals(tag.group(1)) ? StringUtils.split(uri, ", ") : new String[] { uri.trim() };
+        for (final String resource : uris) {
+          final String resourceLocation = configuration.buildLocation(directoryProp, resource, staticResource, context.getRevision());
+          if (!exists(context, resourceLocation)) {
+            missing.add(location + ":" + lineOf(page, tag.start()) + " <" + prefix + ":" + tag.group(1) + " uri=\"" + resource + "\"> -> "
+                + resourceLocation);
+          }
+        }
+      }
+    }
+    return missing;
+  }
+
+  private static String resolveDirectory(final String tagName, final Map<String, String> attributes) {
+    if (!"hint".equals(tagName)) {
+      return DIRECTORIES.get(tagName);
+    }
+    // like the hint tag itself, a hint without resource type hints a script
+    final String resourceType = StringUtils.defaultIfBlank(attributes.get("resourceType"), GriefTaglibProperty.RESOURCE_TYPE_SCRIPT);
+    return DIRECTORIES.get(resourceType.trim().toLowerCase(Locale.ROOT));
+  }
+
+  private static Map<String, String> parseAttributes(final String markup) {
+    final Map<String, String> attributes = new HashMap<>();
+    final Matcher attribute = ATTRIBUTE.matcher(markup);
+    while (attribute.find()) {
+      attributes.put(attribute.group(1), attribute.group(2) != null ? attribute.group(2) : attribute.group(3));
+    }
+    return attributes;
+  }
+
+  private static int lineOf(final String page, final int index) {
+    int line = 1;
+    for (int i = 0; i < index; i++) {
+      if (page.charAt(i) == '\n') {
+        line++;
+      }
+    }
+    return line;
+  }
+
+  private static boolean exists(final InitializationContext context, final String location) {
+    try {
+      return context.getServletContext().getResource(location) != null;
+    } catch (final MalformedURLException e) {
+      return false;
+    }
+  }
+}
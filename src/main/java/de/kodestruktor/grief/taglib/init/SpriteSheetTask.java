@@ -0,0 +1,105 @@
+package de.kodestruktor.grief.taglib.init;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.util.ResourceConfiguration;
+import de.kodestruktor.grief.taglib.util.SpriteSheet;
+
+/**
+ * Packs the icons of the directory configured in {@link GriefTaglibProperty#SPRITE_PROP_DIR} into a sprite sheet. The sheet image is written to
+ * the versioned image directory and its stylesheet to the versioned style directory, both named after
+ * {@link GriefTaglibProperty#SPRITE_PROP_NAME}. Afterwards the sheet is registered, so icons are rendered as references into it.
+ *
+ * @author Christoph Wende
+ * @see SpriteSheet
+ */
+public class SpriteSheetTask implements InitializationTask {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpriteSheetTask.class);
+
+  private static final String DEFAULT_NAME = "grief-sprite";
+
+  private static final int DEFAULT_MAX_SIZE = 64;
+
+  @Override
+  public String getName() {
+    return "sprite sheet";
+  }
+
+  @Override
+  public void execute(final InitializationContext context) throws Exception {
+    final Environment env = context.getEnvironment();
+    final String spriteDirectory = StringUtils.strip(env.getProperty(GriefTaglibProperty.SPRITE_PROP_DIR), "/ ");
+    if (StringUtils.isBlank(spriteDirectory)) {
+      return;
+    }
+
+    final ResourceConfiguration configuration = context.getResourceConfiguration();
+    final String imageDirectory = configuration.buildLocation(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, "", false, context.getRevision());
+    final int maxSize = env.getProperty(GriefTaglibProperty.SPRITE_PROP_MAX_SIZE, Integer.class, Integer.valueOf(DEFAULT_MAX_SIZE)).intValue();
+
+    final Map<String, BufferedImage> icons = new TreeMap<>();
+    for (final String location : context.listResources(imageDirectory + spriteDirectory + "/")) {
+      final String extension = StringUtils.substringAfterLast(location, ".").toLowerCase(Locale.ROOT);
+      if (!"png".equals(extension) && !"gif".equals(extension)) {
+        continue;
+      }
+
+      final BufferedImage icon = this.read(context, location);
+      if (icon == null) {
+        LOG.warn("Could not read icon [{}]; omitting it from the sprite sheet", location);
+      } else if (icon.getWidth() > maxSize || icon.getHeight() > maxSize) {
+        LOG.debug("Icon [{}] exceeds {}px; omitting it from the sprite sheet", location, Integer.valueOf(maxSize));
+      } else {
+        icons.put(location.substring(imageDirectory.length()), icon);
+      }
+    }
+
+    if (icons.isEmpty()) {
+      LOG.warn("No icons found in [{}]; omitting sprite sheet", imageDirectory + spriteDirectory);
+      return;
+    }
+
+    final SpriteSheet sheet = SpriteSheet.pack(icons);
+    final String name = env.getProperty(GriefTaglibProperty.SPRITE_PROP_NAME, DEFAULT_NAME);
+    final String imageUri = name + ".png";
+
+    final ByteArrayOutputStream image = new ByteArrayOutputStream();
+    ImageIO.write(sheet.paint(icons), "png", image);
+    final String css = sheet.toCss(ConfigurationUtil.buildImagePath(env, context.getRevision(), imageUri, false));
+
+    if (!context.writeResource(configuration.buildLocation(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, imageUri, false, context.getRevision()),
+        image.toByteArray())
+        || !context.writeResource(configuration.buildLocation(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, name + ".css", false, context.getRevision()),
+            css.getBytes(StandardCharsets.UTF_8))) {
+      LOG.warn("Application is not deployed to the file system; omitting sprite sheet");
+      return;
+    }
+
+    SpriteSheet.register(env, sheet);
+    LOG.debug("Packed {} icons into a {}x{} sprite sheet", Integer.valueOf(icons.size()), Integer.valueOf(sheet.getWidth()),
+        Integer.valueOf(sheet.getHeight()));
+  }
+
+  private BufferedImage read(final InitializationContext context, final String location) throws IOException {
+    try (InputStream in = context.getServletContext().getResourceAsStream(location)) {
+      return in == null ? null : ImageIO.read(in);
+    }
+  }
+}
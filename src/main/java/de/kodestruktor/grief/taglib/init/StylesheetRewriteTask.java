@@ -0,0 +1,231 @@
+package de.kodestruktor.grief.taglib.init;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StreamUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.util.ResourceConfiguration;
+import de.kodestruktor.grief.taglib.util.RewrittenStylesheets;
+
+/**
+ * Rewrites the relative <code>url()</code> references of all versioned stylesheets to the paths the tags would render for the referenced images
+ * and fonts, if {@link GriefTaglibProperty#REWRITE_PROP_ENABLED} is set. A reference like <code>url(../images/logo.png)</code> becomes e.g.
+ * <code>url(/app/resources/r1234/images/logo.png)</code>, including asset hosts, so the referenced resources are cache busted along with the
+ * stylesheet and may be cached as immutable, even if the stylesheets and images are served from different hosts.<br>
+ * <br>
+ * The stylesheets are rewritten on a pool of worker threads to a variant next to the original, e.g. <code>app.rewritten.css</code> for
+ * <code>app.css</code>, and registered as {@link RewrittenStylesheets}. The originals are left untouched, so every startup rewrites them for the
+ * current asset hosts and paths, instead of finding the absolute references of a previous configuration. The task runs in phase
+ * {@link InitializationTask#PHASE_REWRITE}, after the sprite sheet has been written and before the stylesheets are minified. References to
+ * resources outside of the image and font directories, absolute references and data URIs are left alone; references to missing resources are
+ * logged and left alone as well.
+ *
+ * @author Christoph Wende
+ * @see RewrittenStylesheets
+ */
+public class StylesheetRewriteTask implements InitializationTask, Ordered {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StylesheetRewriteTask.class);
+
+  private static final Pattern URL = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]*)\\1\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+  private static final String[] TARGET_DIRECTORIES = { GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, GriefTaglibProperty.RESOURCE_PROP_FONTDIR };
+
+  @Override
+  public String getName() {
+    return "stylesheet rewriting";
+  }
+
+  @Override
+  public int getOrder() {
+    return PHASE_REWRITE;
+  }
+
+  @Override
+  public void execute(final InitializationContext context) throws Exception {
+    final Environment env = context.getEnvironment();
+    if (!env.getProperty(GriefTaglibProperty.REWRITE_PROP_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()) {
+      return;
+    }
+
+    final ResourceConfiguration configuration = context.getResourceConfiguration();
+    final String styleDirectory = configuration.buildLocation(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, "", false, context.getRevision());
+
+    if (context.getServletContext().getRealPath(styleDirectory) == null) {
+      LOG.warn("Application is not deployed to the file system; omitting stylesheet rewriting");
+      return;
+    }
+
+    final Map<String, String> stylesheets = new ConcurrentHashMap<>();
+    final AtomicInteger references = new AtomicInteger();
+
+    final List<Callable<Void>> jobs = new ArrayList<>();
+    for (final String location : context.listResources(styleDirectory)) {
+      final String name = location.toLowerCase(Locale.ROOT);
+      if (name.endsWith(".css") && !name.endsWith(".min.css") && !RewrittenStylesheets.isRewrittenUri(name)) {
+        jobs.add(this.createJob(context, location, styleDirectory, stylesheets, references));
+      }
+    }
+
+    if (jobs.isEmpty()) {
+      RewrittenStylesheets.register(env, new RewrittenStylesheets(stylesheets));
+      return;
+    }
+
+    final int threads = Math.max(1, Math.min(jobs.size(), env.getProperty(GriefTaglibProperty.INIT_PROP_THREADS, Integer.class,
+        Integer.valueOf(Runtime.getRuntime().availableProcessors())).intValue()));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (final Future<Void> result : executor.invokeAll(jobs)) {
+        try {
+          result.get();
+        } catch (final ExecutionException e) {
+          LOG.warn("Could not rewrite stylesheet; keeping the original", e.getCause());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    RewrittenStylesheets.register(env, new RewrittenStylesheets(stylesheets));
+    LOG.info("Rewrote {} references in {} stylesheets", Integer.valueOf(references.get()), Integer.valueOf(stylesheets.size()));
+  }
+
+  private Callable<Void> createJob(final InitializationContext context, final String location, final String directory,
+      final Map<String, String> stylesheets, final AtomicInteger references) {
+    return new Callable<Void>() {
+
+      @Override
+      public Void call() throws Exception {
+        final String original;
+        try (InputStream in = context.getServletContext().getResourceAsStream(location)) {
+          if (in == null) {
+            return null;
+          }
+          original = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+
+        final StringBuilder rewritten = new StringBuilder(original.length() + 256);
+        final Matcher matcher = URL.matcher(original);
+        int last = 0;
+        int count = 0;
+        while (matcher.find()) {
+          final String path = rewrite(context, location, matcher.group(2).trim());
+          if (path != null) {
+            rewritten.append(original, last, matcher.start()).append("url(").append(matcher.group(1)).append(path).append(matcher.group(1))
+                .append(')');
+            last = matcher.end();
+            count++;
+          }
+        }
+
+        if (count > 0) {
+          rewritten.append(original, last, original.length());
+          final String target = RewrittenStylesheets.toRewrittenUri(location);
+          if (!context.writeResource(target, rewritten.toString().getBytes(StandardCharsets.UTF_8))) {
+            throw new IOException("Could not resolve the real path of " + target);
+          }
+          stylesheets.put(location.substring(directory.length()), target.substring(directory.length()));
+          references.addAndGet(count);
+          LOG.debug("Rewrote {} references of [{}] to [{}]", Integer.valueOf(count), location, target);
+        }
+        return null;
+      }
+    };
+  }
+
+  /**
+   * Rewrite a single reference of a stylesheet.
+   *
+   * @param context
+   *          the context of the application being initialized
+   * @param stylesheet
+   *          the location of the stylesheet inside the web application
+   * @param reference
+   *          the reference, as found inside <code>url()</code>
+   * @return the path to render instead of the reference or <code>null</code>, if the reference has to be left alone
+   */
+  static String rewrite(final InitializationContext context, final String stylesheet, final String reference) {
+    if (reference.isEmpty() || reference.startsWith("/") || reference.startsWith("#") || reference.indexOf(':') >= 0) {
+      return null;
+    }
+
+    // query strings and fragments, e.g. of SVG fonts, are kept as they are
+    final int suffixStart = StringUtils.indexOfAny(reference, '?', '#');
+    final String suffix = suffixStart < 0 ? "" : reference.substring(suffixStart);
+    final String location = resolve(stylesheet, suffixStart < 0 ? reference : reference.substring(0, suffixStart));
+    if (location == null) {
+      return null;
+    }
+
+    final ResourceConfiguration configuration = context.getResourceConfiguration();
+    for (final String directoryProp : TARGET_DIRECTORIES) {
+      for (final boolean staticResource : new boolean[] { false, true }) {
+        final String directory = configuration.buildLocation(directoryProp, "", staticResource, context.getRevision());
+        if (location.startsWith(directory)) {
+          if (!exists(context, location)) {
+            LOG.warn("Stylesheet [{}] references missing resource [{}]", stylesheet, reference);
+            return null;
+          }
+          return configuration.buildPath(directoryProp, location.substring(directory.length()), staticResource, context.getRevision()) + suffix;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Resolve a relative reference against the location of the stylesheet it is contained in.
+   *
+   * @param stylesheet
+   *          the location of the stylesheet inside the web application
+   * @param reference
+   *          the relative reference, without query string or fragment
+   * @return the location of the referenced resource inside the web application or <code>null</code>, if it points outside of it
+   */
+  static String resolve(final String stylesheet, final String reference) {
+    final Deque<String> segments = new ArrayDeque<>();
+    for (final String segment : StringUtils.split(stylesheet.substring(0, stylesheet.lastIndexOf('/') + 1) + reference, '/')) {
+      if ("..".equals(segment)) {
+        if (segments.pollLast() == null) {
+          return null;
+        }
+      } else if (!".".equals(segment)) {
+        segments.addLast(segment);
+      }
+    }
+    return "/" + StringUtils.join(segments, '/');
+  }
+
+  private static boolean exists(final InitializationContext context, final String location) {
+    try {
+      return context.getServletContext().getResource(location) != null;
+    } catch (final MalformedURLException e) {
+      return false;
+    }
+  }
+}
@@ -1,16 +1,47 @@
 package de.kodestruktor.grief.taglib.property;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
+import de.kodestruktor.grief.taglib.filter.EsiFilter;
+import de.kodestruktor.grief.taglib.init.GriefTaglibInitializer;
+import de.kodestruktor.grief.taglib.init.MinificationTask;
+import de.kodestruktor.grief.taglib.init.PrecacheManifestTask;
+import de.kodestruktor.grief.taglib.init.ResourceVerificationTask;
+import de.kodestruktor.grief.taglib.init.SpriteSheetTask;
+import de.kodestruktor.grief.taglib.init.StylesheetRewriteTask;
+import de.kodestruktor.grief.taglib.render.ImageLoading;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+import de.kodestruktor.grief.taglib.tag.Compact;
+import de.kodestruktor.grief.taglib.tag.Constants;
+import de.kodestruktor.grief.taglib.tag.Etag;
 import de.kodestruktor.grief.taglib.tag.Favicon;
+import de.kodestruktor.grief.taglib.tag.Flush;
+import de.kodestruktor.grief.taglib.tag.Font;
+import de.kodestruktor.grief.taglib.tag.Fragment;
+import de.kodestruktor.grief.taglib.tag.Hint;
+import de.kodestruktor.grief.taglib.tag.Icon;
 import de.kodestruktor.grief.taglib.tag.Image;
+import de.kodestruktor.grief.taglib.tag.Importmap;
 import de.kodestruktor.grief.taglib.tag.Pagination;
+import de.kodestruktor.grief.taglib.tag.Precache;
 import de.kodestruktor.grief.taglib.tag.Script;
 import de.kodestruktor.grief.taglib.tag.Style;
+import de.kodestruktor.grief.taglib.tag.Svg;
+import de.kodestruktor.grief.taglib.tag.Trace;
 import de.kodestruktor.grief.taglib.tag.Version;
+import de.kodestruktor.grief.taglib.util.ConstantsRegistry;
+import de.kodestruktor.grief.taglib.util.ImageDimensions;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.ModuleImportMap;
+import de.kodestruktor.grief.taglib.util.PrecacheManifest;
+import de.kodestruktor.grief.taglib.util.ScriptDependencyGraph;
+import de.kodestruktor.grief.taglib.util.SvgCache;
+import de.kodestruktor.grief.taglib.util.ThemeIndex;
 
 /**
  * Constants used in grief internally.
@@ -146,6 +177,41 @@ public final class GriefTaglibProperty {
    */
   public static final String PAGINATION_PAGE_NUMBER_PARAMETER = "page";
 
+  /**
+   * Value of the paginations <code>hint</code> attribute, emitting a prefetch hint for the next page.
+   *
+   * @see Pagination
+   */
+  public static final String PAGINATION_HINT_PREFETCH = "prefetch";
+
+  /**
+   * Value of the paginations <code>hint</code> attribute, emitting <code>prev</code> and <code>next</code> hints for the adjacent pages.
+   *
+   * @see Pagination
+   */
+  public static final String PAGINATION_HINT_ADJACENT = "adjacent";
+
+  /**
+   * Value of the paginations <code>hint</code> attribute, emitting both the prefetch and the adjacent page hints.
+   *
+   * @see Pagination
+   */
+  public static final String PAGINATION_HINT_ALL = "all";
+
+  /**
+   * Output format of a resource hint rendered as link tag.
+   *
+   * @see Pagination
+   */
+  public static final String RESOURCE_TAG_HINT = "<link rel=\"%s\" href=\"%s\" />";
+
+  /**
+   * Format of a resource hint sent as <code>Link</code> response header.
+   *
+   * @see Pagination
+   */
+  public static final String RESOURCE_HEADER_HINT = "<%s>; rel=%s";
+
   /**
    * Message code that may be set in the resource bundle of the application using grief. <br>
    * Lables the paginations 'next' button.
@@ -247,6 +313,407 @@ public final class GriefTaglibProperty {
    */
   public static final String RESOURCE_PROP_STYLEDIR = "grief.resource.dir.style";
 
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the directory for font resources, relative to the static and/or versioned directories. <br>
+   * <br>
+   * Example: <br>
+   * <code>grief.resource.dir.font=/fonts</code>
+   *
+   * @see GriefTaglibProperty#RESOURCE_PROP_BASEDIR_RESOURCES
+   * @see GriefTaglibProperty#RESOURCE_PROP_VERSIONDIR_PREFIX
+   * @see Font
+   */
+  public static final String RESOURCE_PROP_FONTDIR = "grief.resource.dir.font";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures a comma separated list of hosts serving the static and versioned resources. Each resource is mapped to one of the hosts by a
+   * consistent hash of its path, so it is always served by the same host. The application root is appended to the host; e.g.:<br>
+   * <br>
+   * <code>grief.resource.hosts=//static1.example.com,//static2.example.com</code>
+   *
+   * @see Favicon
+   * @see Image
+   * @see Script
+   * @see Style
+   */
+  public static final String RESOURCE_PROP_HOSTS = "grief.resource.hosts";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the location of the script dependency descriptor, a properties file mapping each script to the scripts it depends on. Scripts
+   * rendered by grief pull in their missing dependencies in execution order; e.g.:<br>
+   * <br>
+   * <code>grief.script.dependencies=/WEB-INF/grief-scripts.properties</code>
+   *
+   * @see Script
+   * @see ScriptDependencyGraph
+   */
+  public static final String SCRIPT_PROP_DEPENDENCIES = "grief.script.dependencies";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the location of the module descriptor, a properties file mapping each module specifier of the import map to a script; e.g.:<br>
+   * <br>
+   * <code>grief.importmap.descriptor=/WEB-INF/grief-modules.properties</code>
+   *
+   * @see Importmap
+   * @see ModuleImportMap
+   */
+  public static final String IMPORTMAP_PROP_DESCRIPTOR = "grief.importmap.descriptor";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Used to globally enable or disable tracing the time spent in grief tags, exposed as <code>Server-Timing</code> header, e.g.:<br>
+   * <br>
+   * <code>grief.trace.enabled=true</code>
+   *
+   * @see RenderTrace
+   * @see Trace
+   */
+  public static final String TRACE_PROP_ENABLED = "grief.trace.enabled";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Used to globally enable or disable rendering the trace as HTML comment by the trace tag, e.g.:<br>
+   * <br>
+   * <code>grief.trace.comment.enabled=true</code>
+   *
+   * @see Trace
+   */
+  public static final String TRACE_PROP_COMMENT_ENABLED = "grief.trace.comment.enabled";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Used to globally enable or disable rendering the intrinsic <code>width</code> and <code>height</code> of images, read from the image header
+   * unless set on the tag, e.g.:<br>
+   * <br>
+   * <code>grief.image.dimensions.enabled=true</code>
+   *
+   * @see Image
+   * @see ImageDimensions
+   */
+  public static final String IMAGE_PROP_DIMENSIONS_ENABLED = "grief.image.dimensions.enabled";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the location of a properties file with known image dimensions, e.g. generated at build time. Images are mapped by their URI
+   * relative to the image directory, like <code>logo.png=120x40</code>, e.g.:<br>
+   * <br>
+   * <code>grief.image.dimensions.seed=/WEB-INF/grief-images.properties</code>
+   *
+   * @see ImageDimensions
+   */
+  public static final String IMAGE_PROP_DIMENSIONS_SEED = "grief.image.dimensions.seed";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the maximum number of image dimensions read at runtime and kept in memory; defaults to 1024, e.g.:<br>
+   * <br>
+   * <code>grief.image.dimensions.cache.size=4096</code>
+   *
+   * @see ImageDimensions
+   */
+  public static final String IMAGE_PROP_DIMENSIONS_CACHE_SIZE = "grief.image.dimensions.cache.size";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the number of images per request, which are considered to be above the fold and loaded eagerly with high priority; all later images
+   * are loaded lazily. If not set, images are rendered without loading attributes, unless set on the tag, e.g.:<br>
+   * <br>
+   * <code>grief.image.eager.count=2</code>
+   *
+   * @see Image
+   * @see ImageLoading
+   */
+  public static final String IMAGE_PROP_EAGER_COUNT = "grief.image.eager.count";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the directory of the icons packed into a sprite sheet on startup, relative to the image directory, e.g.:<br>
+   * <br>
+   * <code>grief.sprite.dir=icons</code>
+   *
+   * @see Icon
+   * @see SpriteSheetTask
+   */
+  public static final String SPRITE_PROP_DIR = "grief.sprite.dir";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the name of the generated sprite sheet image and stylesheet; defaults to <code>grief-sprite</code>, e.g.:<br>
+   * <br>
+   * <code>grief.sprite.name=icons</code>
+   *
+   * @see SpriteSheetTask
+   */
+  public static final String SPRITE_PROP_NAME = "grief.sprite.name";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the maximum width and height in pixels of icons packed into the sprite sheet; defaults to 64, e.g.:<br>
+   * <br>
+   * <code>grief.sprite.max.size=32</code>
+   *
+   * @see SpriteSheetTask
+   */
+  public static final String SPRITE_PROP_MAX_SIZE = "grief.sprite.max.size";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the maximum number of characters of cleaned SVG files kept in memory, including their parsed attributes and content; defaults to
+   * 524288, e.g.:<br>
+   * <br>
+   * <code>grief.svg.cache.size=1048576</code>
+   *
+   * @see Svg
+   * @see SvgCache
+   */
+  public static final String SVG_PROP_CACHE_SIZE = "grief.svg.cache.size";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Used to globally enable or disable minifying the versioned scripts and stylesheets on startup, e.g.:<br>
+   * <br>
+   * <code>grief.minify.enabled=true</code>
+   *
+   * @see MinificationTask
+   */
+  public static final String MINIFY_PROP_ENABLED = "grief.minify.enabled";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Used to globally enable or disable rewriting the relative <code>url()</code> references of the versioned stylesheets to versioned paths on
+   * startup. The rewritten stylesheets are written next to the originals, which are left untouched, e.g.:<br>
+   * <br>
+   * <code>grief.rewrite.enabled=true</code>
+   *
+   * @see StylesheetRewriteTask
+   */
+  public static final String REWRITE_PROP_ENABLED = "grief.rewrite.enabled";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Used to globally enable or disable verifying on startup that all resources referenced by grief tags in the JSPs of the application exist,
+   * e.g.:<br>
+   * <br>
+   * <code>grief.verify.enabled=true</code>
+   *
+   * @see ResourceVerificationTask
+   */
+  public static final String VERIFY_PROP_ENABLED = "grief.verify.enabled";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the directory of the web application scanned for JSPs referencing resources; defaults to <code>/WEB-INF/</code>, e.g.:<br>
+   * <br>
+   * <code>grief.verify.dir=/WEB-INF/jsp/</code>
+   *
+   * @see ResourceVerificationTask
+   */
+  public static final String VERIFY_PROP_DIR = "grief.verify.dir";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Aborts the startup of the application if a resource referenced by a JSP is missing; defaults to <code>false</code>, which only logs the
+   * missing resources, e.g.:<br>
+   * <br>
+   * <code>grief.verify.fail=true</code>
+   *
+   * @see ResourceVerificationTask
+   */
+  public static final String VERIFY_PROP_FAIL = "grief.verify.fail";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures a comma separated list of profiles, in which the minified variants of scripts and stylesheets are rendered; defaults to
+   * <code>production</code>, e.g.:<br>
+   * <br>
+   * <code>grief.minify.profiles=production,staging</code>
+   *
+   * @see MinifiedResources
+   * @see Script
+   * @see Style
+   */
+  public static final String MINIFY_PROP_PROFILES = "grief.minify.profiles";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures a comma separated list of configuration keys, whose values are part of the entity tag of every page using the etag tag, e.g.:<br>
+   * <br>
+   * <code>grief.etag.keys=shop.currency,shop.campaign</code>
+   *
+   * @see Etag
+   */
+  public static final String ETAG_PROP_KEYS = "grief.etag.keys";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures comma separated package patterns, whose constants are collected on startup and exposed to the servlet context, e.g.:<br>
+   * <br>
+   * <code>grief.constants.packages=com.example.model.**,com.example.web.Views</code>
+   *
+   * @see Constants
+   * @see ConstantsRegistry
+   */
+  public static final String CONSTANTS_PROP_PACKAGES = "grief.constants.packages";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the name of the servlet context attribute holding the constants collected on startup; defaults to <code>constants</code>, e.g.:<br>
+   * <br>
+   * <code>grief.constants.var=model</code>
+   *
+   * @see Constants
+   */
+  public static final String CONSTANTS_PROP_VAR = "grief.constants.var";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the directory holding one subdirectory per theme, relative to the static and versioned resource directories. Inside a theme the
+   * resources are organized like in the resource directories, e.g. <code>/themes/brand-a/images/logo.png</code>; images and stylesheets missing in
+   * a theme fall back to the default resources, e.g.:<br>
+   * <br>
+   * <code>grief.theme.dir=/themes</code>
+   *
+   * @see ThemeIndex
+   */
+  public static final String THEME_PROP_DIR = "grief.theme.dir";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures comma separated pairs of a theme and the theme it falls back to, before falling back to the default resources, e.g.:<br>
+   * <br>
+   * <code>grief.theme.fallback=brand-b:brand-a,brand-c:brand-a</code>
+   *
+   * @see ThemeIndex
+   */
+  public static final String THEME_PROP_FALLBACK = "grief.theme.fallback";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures a regular expression matching the URIs of versioned resources, which should not be listed in the precache manifest, e.g.:<br>
+   * <br>
+   * <code>grief.precache.exclude=\\.(psd|map)$|^originals/</code>
+   *
+   * @see Precache
+   * @see PrecacheManifest
+   */
+  public static final String PRECACHE_PROP_EXCLUDE = "grief.precache.exclude";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures whether the precache manifest is built on startup; defaults to true. Applications not serving a precache manifest may disable it
+   * to save hashing their resources, e.g.:<br>
+   * <br>
+   * <code>grief.precache.init=false</code>
+   *
+   * @see PrecacheManifest
+   * @see PrecacheManifestTask
+   */
+  public static final String PRECACHE_PROP_INIT = "grief.precache.init";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the default <code>font-display</code> of the font faces rendered by the font tag; defaults to <code>swap</code>, e.g.:<br>
+   * <br>
+   * <code>grief.font.display=optional</code>
+   *
+   * @see Font
+   */
+  public static final String FONT_PROP_DISPLAY = "grief.font.display";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Enables rendering fragment tags as Edge Side Includes, as long as the request passed an ESI capable surrogate, e.g.:<br>
+   * <br>
+   * <code>grief.esi.enabled=true</code>
+   *
+   * @see Fragment
+   * @see EsiFilter
+   */
+  public static final String ESI_PROP_ENABLED = "grief.esi.enabled";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Enables flushing the response early with the flush tag; defaults to <code>true</code>. May be disabled e.g. for debugging, so errors while
+   * rendering the body still lead to the error page, e.g.:<br>
+   * <br>
+   * <code>grief.flush.enabled=false</code>
+   *
+   * @see Flush
+   */
+  public static final String FLUSH_PROP_ENABLED = "grief.flush.enabled";
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Enables compacting the body of the compact tag; defaults to <code>true</code>. May be disabled e.g. for debugging the rendered markup, e.g.:<br>
+   * <br>
+   * <code>grief.compact.enabled=false</code>
+   *
+   * @see Compact
+   */
+  public static final String COMPACT_PROP_ENABLED = "grief.compact.enabled";
+
+  /**
+   * All properties configuring the directory of a resource type.
+   *
+   * @see GriefTaglibProperty#RESOURCE_PROP_IMAGEDIR
+   * @see GriefTaglibProperty#RESOURCE_PROP_SCRIPTDIR
+   * @see GriefTaglibProperty#RESOURCE_PROP_STYLEDIR
+   * @see GriefTaglibProperty#RESOURCE_PROP_FONTDIR
+   */
+  public static final List<String> RESOURCE_DIRECTORY_PROPERTIES = Collections
+      .unmodifiableList(Arrays.asList(RESOURCE_PROP_IMAGEDIR, RESOURCE_PROP_SCRIPTDIR, RESOURCE_PROP_STYLEDIR, RESOURCE_PROP_FONTDIR));
+
+  /**
+   * Property that may be set in the configuration of the application using grief. <br>
+   * Configures the number of threads used to initialize the taglib on startup; defaults to the number of available processors, e.g.:<br>
+   * <br>
+   * <code>grief.init.threads=4</code>
+   *
+   * @see GriefTaglibInitializer
+   */
+  public static final String INIT_PROP_THREADS = "grief.init.threads";
+
+  /**
+   * Resource type of images, resolved in the directory configured by {@link GriefTaglibProperty#RESOURCE_PROP_IMAGEDIR}.
+   *
+   * @see Hint
+   */
+  public static final String RESOURCE_TYPE_IMAGE = "image";
+
+  /**
+   * Resource type of scripts, resolved in the directory configured by {@link GriefTaglibProperty#RESOURCE_PROP_SCRIPTDIR}.
+   *
+   * @see Hint
+   */
+  public static final String RESOURCE_TYPE_SCRIPT = "script";
+
+  /**
+   * Resource type of stylesheets, resolved in the directory configured by {@link GriefTaglibProperty#RESOURCE_PROP_STYLEDIR}.
+   *
+   * @see Hint
+   */
+  public static final String RESOURCE_TYPE_STYLE = "style";
+
+  /**
+   * Resource type of fonts, resolved in the directory configured by {@link GriefTaglibProperty#RESOURCE_PROP_FONTDIR}.
+   *
+   * @see Font
+   * @see Hint
+   */
+  public static final String RESOURCE_TYPE_FONT = "font";
+
+  /**
+   * All resource types grief resources may be hinted with.
+   *
+   * @see Hint
+   */
+  public static final List<String> RESOURCE_TYPES = Collections
+      .unmodifiableList(Arrays.asList(RESOURCE_TYPE_IMAGE, RESOURCE_TYPE_SCRIPT, RESOURCE_TYPE_STYLE, RESOURCE_TYPE_FONT));
+
   /**
    * Output format of the static/versioned favicon/link tag.
    *
@@ -261,6 +728,48 @@ public final class GriefTaglibProperty {
    */
   public static final String RESOURCE_TAG_IMAGE = "<img src=\"%s\" alt=\"%s\" title=\"%s\" class=\"%s\" id=\"%s\" />";
 
+  /**
+   * Output format of the static/versioned image tag with additional attributes, e.g. its dimensions, each preceded by a blank.
+   *
+   * @see Image
+   */
+  public static final String RESOURCE_TAG_IMAGE_ATTRIBUTES = "<img src=\"%s\" alt=\"%s\" title=\"%s\" class=\"%s\" id=\"%s\"%s />";
+
+  /**
+   * Output format of an icon referencing the sprite sheet.
+   *
+   * @see Icon
+   */
+  public static final String RESOURCE_TAG_ICON = "<i class=\"%s\" title=\"%s\" id=\"%s\" role=\"img\" aria-label=\"%s\"></i>";
+
+  /**
+   * Output format of an inlined SVG, followed by the attributes and the content of the original SVG.
+   *
+   * @see Svg
+   */
+  public static final String RESOURCE_TAG_SVG_INLINE = "<svg class=\"%s\" id=\"%s\"%s>%s</svg>";
+
+  /**
+   * Output format of an SVG referencing a symbol of the symbol sprite, followed by its view box attribute and symbol id.
+   *
+   * @see Svg
+   */
+  public static final String RESOURCE_TAG_SVG_USE = "<svg class=\"%s\" id=\"%s\"%s><use href=\"#%s\"></use></svg>";
+
+  /**
+   * Output format of a symbol of the symbol sprite, followed by its view box attribute and content.
+   *
+   * @see Svg
+   */
+  public static final String RESOURCE_TAG_SVG_SYMBOL = "<symbol id=\"%s\"%s>%s</symbol>";
+
+  /**
+   * Output format of the symbol sprite, containing all symbols referenced in the page.
+   *
+   * @see Svg
+   */
+  public static final String RESOURCE_TAG_SVG_SPRITE = "<svg xmlns=\"http://www.w3.org/2000/svg\" style=\"display:none\">%s</svg>";
+
   /**
    * Output format of the static/versioned script tag.
    *
@@ -275,10 +784,46 @@ public final class GriefTaglibProperty {
    */
   public static final String RESOURCE_TAG_SCRIPT_ASYNC = "<script type=\"text/javascript\" src=\"%s\" id=\"%s\" async></script>";
 
+  /**
+   * Output format of the static/versioned deferred script tag.
+   *
+   * @see Script
+   */
+  public static final String RESOURCE_TAG_SCRIPT_DEFER = "<script type=\"text/javascript\" src=\"%s\" id=\"%s\" defer></script>";
+
+  /**
+   * Output format of the static/versioned module script tag.
+   *
+   * @see Script
+   */
+  public static final String RESOURCE_TAG_SCRIPT_MODULE = "<script type=\"module\" src=\"%s\" id=\"%s\"></script>";
+
+  /**
+   * Output format of the import map.
+   *
+   * @see Importmap
+   */
+  public static final String RESOURCE_TAG_IMPORTMAP = "<script type=\"importmap\">%s</script>";
+
   /**
    * Output format of the static/versioned style/link tag.
    *
    * @see Style
    */
   public static final String RESOURCE_TAG_STYLE = "<link rel=\"stylesheet\" type=\"text/css\" href=\"%s\" id=\"%s\" />";
+
+  /**
+   * Output format of a font face.
+   *
+   * @see Font
+   */
+  public static final String RESOURCE_TAG_FONT_FACE = "<style>@font-face{font-family:\"%s\";src:%s;"
+      + "font-weight:%s;font-style:%s;font-display:%s}</style>";
+
+  /**
+   * Output format of an Edge Side Include.
+   *
+   * @see Fragment
+   */
+  public static final String RESOURCE_TAG_ESI_INCLUDE = "<esi:include src=\"%s\" />";
 }
@@ -0,0 +1,55 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Favicon;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+
+/**
+ * Renders a revision dependent favicon link tag. The mime type is determined by the file extension of the URI.
+ *
+ * @author Christoph Wende
+ * @see Favicon
+ */
+public class FaviconRenderer implements Renderer {
+
+  private String uri;
+
+  private boolean staticResource;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    String mimeType = GriefTaglibProperty.FAVICON_DEFAULT_MIME_TYPE;
+
+    final String path = context.buildImagePath(this.uri, this.staticResource);
+
+    for (final Entry<Pattern, String> mimeEntry : GriefTaglibProperty.FAVICON_MIME_TYPES.entrySet()) {
+      if (mimeEntry.getKey().matcher(this.uri).matches()) {
+        mimeType = mimeEntry.getValue();
+        break;
+      }
+    }
+
+    MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_FAVICON, path, mimeType);
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public boolean isStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final boolean staticResource) {
+    this.staticResource = staticResource;
+  }
+
+}
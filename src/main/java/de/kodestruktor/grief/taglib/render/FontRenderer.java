@@ -0,0 +1,207 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Font;
+import de.kodestruktor.grief.taglib.util.FontFaces;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+
+/**
+ * Renders the preload of a revision dependent font and its font face.
+ *
+ * @author Christoph Wende
+ * @see Font
+ */
+public class FontRenderer implements Renderer {
+
+  private static final String DEFAULT_DISPLAY = "swap";
+
+  /**
+   * The MIME type and the CSS format of the font files, mapped by their extension.
+   */
+  private static final Map<String, String[]> FORMATS;
+
+  static {
+    final Map<String, String[]> formats = new HashMap<>();
+    formats.put("woff2", new String[] { "font/woff2", "woff2" });
+    formats.put("woff", new String[] { "font/woff", "woff" });
+    formats.put("ttf", new String[] { "font/ttf", "truetype" });
+    formats.put("otf", new String[] { "font/otf", "opentype" });
+    formats.put("eot", new String[] { "application/vnd.ms-fontobject", "embedded-opentype" });
+    formats.put("svg", new String[] { "image/svg+xml", "svg" });
+    FORMATS = Collections.unmodifiableMap(formats);
+  }
+
+  private String family;
+
+  private String uri;
+
+  private String weight;
+
+  private String style;
+
+  private String display;
+
+  private boolean preload = true;
+
+  private boolean staticResource;
+
+  private ResourceHints hints;
+
+  private FontFaces faces;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    final String[] uris = StringUtils.split(this.uri, ", ");
+    if (uris == null || uris.length == 0) {
+      return;
+    }
+
+    // the first file is the preferred one, so it is the one the browser is going to fetch; fonts are always fetched in CORS mode
+    if (this.preload) {
+      final ResourceHint hint = new ResourceHint("preload", context.buildFontPath(uris[0], this.staticResource),
+          GriefTaglibProperty.RESOURCE_TYPE_FONT, getFormat(uris[0])[0], "anonymous");
+      if (this.hints == null || this.hints.markRendered(hint)) {
+        hint.render(out);
+      }
+    }
+
+    final String fontDisplay = StringUtils.defaultIfBlank(this.display,
+        context.getEnvironment().getProperty(GriefTaglibProperty.FONT_PROP_DISPLAY, DEFAULT_DISPLAY));
+    final String key = this.staticResource + "|" + this.family + "|" + this.uri + "|" + this.weight + "|" + this.style + "|" + fontDisplay;
+
+    String face = this.faces == null ? null : this.faces.get(key, context.getRevision());
+    if (face == null) {
+      face = this.buildFace(context, uris, fontDisplay);
+      if (this.faces != null) {
+        this.faces.put(key, face);
+      }
+    }
+    out.append(face);
+  }
+
+  private String buildFace(final RenderContext context, final String[] uris, final String fontDisplay) {
+    final StringBuilder sources = new StringBuilder(128);
+    for (final String fontUri : uris) {
+      if (sources.length() > 0) {
+        sources.append(',');
+      }
+      sources.append("url(\"").append(context.buildFontPath(fontUri, this.staticResource)).append("\") format(\"").append(getFormat(fontUri)[1])
+          .append("\")");
+    }
+
+    return MarkupUtil.format(GriefTaglibProperty.RESOURCE_TAG_FONT_FACE, StringUtils.remove(this.family, '"'), sources.toString(),
+        StringUtils.defaultIfBlank(this.weight, "normal"), StringUtils.defaultIfBlank(this.style, "normal"), fontDisplay);
+  }
+
+  /**
+   * Check whether the format of the given font file is known by its extension.
+   *
+   * @param fontUri
+   *          the URI of the font file
+   * @return <code>true</code> if the font file has a known extension, <code>false</code> otherwise
+   */
+  public static boolean isSupported(final String fontUri) {
+    return FORMATS.containsKey(StringUtils.substringAfterLast(fontUri, ".").toLowerCase(Locale.ROOT));
+  }
+
+  private static String[] getFormat(final String fontUri) {
+    final String[] format = FORMATS.get(StringUtils.substringAfterLast(fontUri, ".").toLowerCase(Locale.ROOT));
+    if (format == null) {
+      throw new IllegalArgumentException("Unknown font format of [" + fontUri + "]");
+    }
+    return format;
+  }
+
+  public String getFamily() {
+    return this.family;
+  }
+
+  public void setFamily(final String family) {
+    this.family = family;
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  /**
+   * @param uri
+   *          comma separated URIs of the font files in order of preference, e.g. <code>roboto.woff2,roboto.woff</code>
+   */
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getWeight() {
+    return this.weight;
+  }
+
+  public void setWeight(final String weight) {
+    this.weight = weight;
+  }
+
+  public String getStyle() {
+    return this.style;
+  }
+
+  public void setStyle(final String style) {
+    this.style = style;
+  }
+
+  public String getDisplay() {
+    return this.display;
+  }
+
+  public void setDisplay(final String display) {
+    this.display = display;
+  }
+
+  public boolean isPreload() {
+    return this.preload;
+  }
+
+  public void setPreload(final boolean preload) {
+    this.preload = preload;
+  }
+
+  public boolean isStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final boolean staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public ResourceHints getHints() {
+    return this.hints;
+  }
+
+  /**
+   * @param hints
+   *          the hints of the current request, so a font is preloaded only once; <code>null</code> to always render the preload
+   */
+  public void setHints(final ResourceHints hints) {
+    this.hints = hints;
+  }
+
+  public FontFaces getFaces() {
+    return this.faces;
+  }
+
+  /**
+   * @param faces
+   *          the cache of the rendered font faces; <code>null</code> to render the font face on every request
+   */
+  public void setFaces(final FontFaces faces) {
+    this.faces = faces;
+  }
+
+}
@@ -0,0 +1,144 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Hint;
+
+/**
+ * Renders a resource hint. The target is either an absolute <code>href</code>, e.g. of a third party host, or a grief resource resolved by its
+ * <code>uri</code> and <code>resourceType</code>, in which case preloads point to the same revisioned path the resource tags render. Fonts are
+ * always fetched in CORS mode, so hints of fonts default to <code>crossorigin="anonymous"</code>, matching the preloads of the font tag.
+ *
+ * @author Christoph Wende
+ * @see Hint
+ */
+public class HintRenderer implements Renderer {
+
+  private String rel;
+
+  private String href;
+
+  private String uri;
+
+  private String resourceType;
+
+  private boolean staticResource;
+
+  private String as;
+
+  private String type;
+
+  private String crossorigin;
+
+  private ResourceHints hints;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    final ResourceHint hint = this.buildHint(context);
+
+    if (this.hints == null || this.hints.markRendered(hint)) {
+      hint.render(out);
+    }
+  }
+
+  /**
+   * Build the hint described by the attributes of this renderer.
+   *
+   * @param context
+   *          the context of the current request
+   * @return the hint
+   */
+  public ResourceHint buildHint(final RenderContext context) {
+    final String target = StringUtils.isNotBlank(this.uri) ? context.buildResourcePath(this.resourceType, this.uri, this.staticResource) : this.href;
+
+    // preloads need to know their destination, which is the resource type for grief resources
+    String destination = this.as;
+    if (StringUtils.isBlank(destination) && "preload".equals(this.rel) && StringUtils.isNotBlank(this.uri)) {
+      destination = this.resourceType;
+    }
+
+    String cors = this.crossorigin;
+    if (cors == null && (GriefTaglibProperty.RESOURCE_TYPE_FONT.equals(destination)
+        || (StringUtils.isNotBlank(this.uri) && GriefTaglibProperty.RESOURCE_TYPE_FONT.equals(this.resourceType)))) {
+      cors = "anonymous";
+    }
+
+    return new ResourceHint(this.rel, target, destination, this.type, cors);
+  }
+
+  public String getRel() {
+    return this.rel;
+  }
+
+  public void setRel(final String rel) {
+    this.rel = rel;
+  }
+
+  public String getHref() {
+    return this.href;
+  }
+
+  public void setHref(final String href) {
+    this.href = href;
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getResourceType() {
+    return this.resourceType;
+  }
+
+  public void setResourceType(final String resourceType) {
+    this.resourceType = resourceType;
+  }
+
+  public boolean isStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final boolean staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public String getAs() {
+    return this.as;
+  }
+
+  public void setAs(final String as) {
+    this.as = as;
+  }
+
+  public String getType() {
+    return this.type;
+  }
+
+  public void setType(final String type) {
+    this.type = type;
+  }
+
+  public String getCrossorigin() {
+    return this.crossorigin;
+  }
+
+  public void setCrossorigin(final String crossorigin) {
+    this.crossorigin = crossorigin;
+  }
+
+  public ResourceHints getHints() {
+    return this.hints;
+  }
+
+  public void setHints(final ResourceHints hints) {
+    this.hints = hints;
+  }
+
+}
@@ -0,0 +1,127 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Icon;
+import de.kodestruktor.grief.taglib.util.ImageDimensions;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+import de.kodestruktor.grief.taglib.util.SpriteSheet;
+
+/**
+ * Renders an icon as reference into the sprite sheet, or as revision dependent image tag, if the icon is not part of the sheet.
+ *
+ * @author Christoph Wende
+ * @see Icon
+ */
+public class IconRenderer implements Renderer {
+
+  private String uri;
+
+  private String cssClass;
+
+  private String alt;
+
+  private String title;
+
+  private String id;
+
+  private boolean staticResource;
+
+  private SpriteSheet spriteSheet;
+
+  private ImageDimensions dimensions;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    final SpriteSheet.Sprite sprite = this.staticResource || this.spriteSheet == null ? null : this.spriteSheet.getSprite(this.uri);
+
+    if (sprite == null) {
+      final ImageRenderer fallback = new ImageRenderer();
+      fallback.setUri(this.uri);
+      fallback.setCssClass(this.cssClass);
+      fallback.setAlt(this.alt);
+      fallback.setTitle(this.title);
+      fallback.setId(this.id);
+      fallback.setStaticResource(this.staticResource);
+      fallback.setDimensions(this.dimensions);
+      fallback.render(context, out);
+      return;
+    }
+
+    final StringBuilder classes = new StringBuilder(64).append(SpriteSheet.CSS_CLASS).append(' ').append(sprite.getCssClass());
+    if (StringUtils.isNotBlank(this.cssClass)) {
+      classes.append(' ').append(this.cssClass.trim());
+    }
+
+    MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_ICON, classes.toString(), StringUtils.defaultIfBlank(this.title, ""),
+        StringUtils.defaultIfBlank(this.id, ""), StringUtils.defaultIfBlank(this.alt, ""));
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getCssClass() {
+    return this.cssClass;
+  }
+
+  public void setCssClass(final String cssClass) {
+    this.cssClass = cssClass;
+  }
+
+  public String getAlt() {
+    return this.alt;
+  }
+
+  public void setAlt(final String alt) {
+    this.alt = alt;
+  }
+
+  public String getTitle() {
+    return this.title;
+  }
+
+  public void setTitle(final String title) {
+    this.title = title;
+  }
+
+  public String getId() {
+    return this.id;
+  }
+
+  public void setId(final String id) {
+    this.id = id;
+  }
+
+  public boolean isStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final boolean staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public SpriteSheet getSpriteSheet() {
+    return this.spriteSheet;
+  }
+
+  public void setSpriteSheet(final SpriteSheet spriteSheet) {
+    this.spriteSheet = spriteSheet;
+  }
+
+  public ImageDimensions getDimensions() {
+    return this.dimensions;
+  }
+
+  public void setDimensions(final ImageDimensions dimensions) {
+    this.dimensions = dimensions;
+  }
+
+}
@@ -0,0 +1,78 @@
+package de.kodestruktor.grief.taglib.render;
+
+import javax.servlet.ServletRequest;
+
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Request scoped loading policy of images. The first images rendered in a request are considered to be above the fold; they are loaded eagerly
+ * with high priority, while all later images are loaded lazily, so they do not compete with the critical content for bandwidth. The number of
+ * eager images is configured with {@link GriefTaglibProperty#IMAGE_PROP_EAGER_COUNT}.
+ *
+ * @author Christoph Wende
+ */
+public class ImageLoading {
+
+  /**
+   * Loading of an image decided by the policy.
+   */
+  public static final String AUTO = "auto";
+
+  /**
+   * Loading of an image, which is requested immediately.
+   */
+  public static final String EAGER = "eager";
+
+  /**
+   * Loading of an image, which is deferred until it is about to enter the viewport.
+   */
+  public static final String LAZY = "lazy";
+
+  private static final String REQUEST_ATTRIBUTE = ImageLoading.class.getName();
+
+  private final int eagerImages;
+
+  private int claimed;
+
+  /**
+   * @param eagerImages
+   *          the number of images to load eagerly with high priority
+   */
+  public ImageLoading(final int eagerImages) {
+    this.eagerImages = eagerImages;
+  }
+
+  /**
+   * Get the loading policy of the given request, creating it if neccessary.
+   *
+   * @param request
+   *          the current request
+   * @param env
+   *          the applications {@link Environment}
+   * @return the policy or <code>null</code>, if no number of eager images is configured
+   */
+  public static ImageLoading get(final ServletRequest request, final Environment env) {
+    final Integer eagerImages = env.getProperty(GriefTaglibProperty.IMAGE_PROP_EAGER_COUNT, Integer.class);
+    if (eagerImages == null) {
+      return null;
+    }
+
+    ImageLoading loading = (ImageLoading) request.getAttribute(REQUEST_ATTRIBUTE);
+    if (loading == null) {
+      loading = new ImageLoading(eagerImages.intValue());
+      request.setAttribute(REQUEST_ATTRIBUTE, loading);
+    }
+    return loading;
+  }
+
+  /**
+   * Claim one of the eager images of the request for the next image loaded eagerly.
+   *
+   * @return <code>true</code> if the image is one of the first images of the request and should be loaded with high priority
+   */
+  public boolean claimEager() {
+    return this.claimed++ < this.eagerImages;
+  }
+}
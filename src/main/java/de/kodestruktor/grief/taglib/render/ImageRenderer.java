@@ -0,0 +1,248 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Image;
+import de.kodestruktor.grief.taglib.util.ImageDimensions;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+
+/**
+ * Renders a revision dependent image tag.
+ *
+ * @author Christoph Wende
+ * @see Image
+ */
+public class ImageRenderer implements Renderer {
+
+  private String uri;
+
+  private String cssClass;
+
+  private String alt;
+
+  private String title;
+
+  private String id;
+
+  private boolean staticResource;
+
+  private String width;
+
+  private String height;
+
+  private ImageDimensions dimensions;
+
+  private String loading;
+
+  private String fetchPriority;
+
+  private String decoding;
+
+  private ImageLoading loadingPolicy;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    final String path = context.buildImagePath(this.uri, this.staticResource);
+
+    MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_IMAGE_ATTRIBUTES, path, StringUtils.defaultIfBlank(this.alt, ""),
+        StringUtils.defaultIfBlank(this.title, ""), StringUtils.defaultIfBlank(this.cssClass, ""), StringUtils.defaultIfBlank(this.id, ""),
+        this.buildAttributes(context));
+  }
+
+  /**
+   * Build the additional attributes of the image. Missing dimensions are filled in with the intrinsic dimensions of the image; if only one of them
+   * is set, the other one is scaled keeping the aspect ratio. The loading attributes follow the dimensions.
+   *
+   * @param context
+   *          the render context
+   * @return the attributes, each preceded by a blank
+   */
+  protected String buildAttributes(final RenderContext context) {
+    String imageWidth = StringUtils.trimToNull(this.width);
+    String imageHeight = StringUtils.trimToNull(this.height);
+
+    if (this.dimensions != null && (imageWidth == null || imageHeight == null)) {
+      final long start = context.getTrace() == null ? 0L : System.nanoTime();
+      final int[] intrinsic = this.dimensions.lookup(this.uri, context.buildImageLocation(this.uri, this.staticResource));
+      context.record(RenderTrace.METRIC_DIMENSIONS, start);
+
+      if (intrinsic != null && intrinsic[0] > 0 && intrinsic[1] > 0) {
+        if (imageWidth == null && imageHeight == null) {
+          imageWidth = String.valueOf(intrinsic[0]);
+          imageHeight = String.valueOf(intrinsic[1]);
+        } else if (imageHeight == null && StringUtils.isNumeric(imageWidth)) {
+          imageHeight = String.valueOf(Math.round(Integer.parseInt(imageWidth) * (double) intrinsic[1] / intrinsic[0]));
+        } else if (imageWidth == null && StringUtils.isNumeric(imageHeight)) {
+          imageWidth = String.valueOf(Math.round(Integer.parseInt(imageHeight) * (double) intrinsic[0] / intrinsic[1]));
+        }
+      }
+    }
+
+    final StringBuilder attributes = new StringBuilder(32);
+    if (imageWidth != null) {
+      attributes.append(" width=\"").append(imageWidth).append('"');
+    }
+    if (imageHeight != null) {
+      attributes.append(" height=\"").append(imageHeight).append('"');
+    }
+    this.appendLoading(attributes);
+    return attributes.toString();
+  }
+
+  /**
+   * Append the loading attributes of the image. Unless overridden by the tag, the loading policy of the request decides whether the image is one of
+   * the first images, loaded eagerly with high priority, or loaded lazily and decoded asynchronously. An image loaded eagerly or lazily by the tag
+   * is rendered as requested and does not count towards the eager images of the policy.
+   *
+   * @param attributes
+   *          the attributes to append to
+   */
+  private void appendLoading(final StringBuilder attributes) {
+    final String requested = StringUtils.defaultIfBlank(StringUtils.lowerCase(this.loading), ImageLoading.AUTO);
+
+    boolean lazy = false;
+    boolean highPriority = false;
+    if (ImageLoading.LAZY.equals(requested)) {
+      lazy = true;
+    } else if (ImageLoading.EAGER.equals(requested)) {
+      attributes.append(" loading=\"eager\"");
+    } else if (this.loadingPolicy != null) {
+      highPriority = this.loadingPolicy.claimEager();
+      lazy = !highPriority;
+    }
+
+    if (lazy) {
+      attributes.append(" loading=\"lazy\"");
+    }
+
+    final String priority = StringUtils.defaultIfBlank(this.fetchPriority, highPriority ? "high" : null);
+    if (priority != null) {
+      attributes.append(" fetchpriority=\"").append(priority).append('"');
+    }
+
+    final String imageDecoding = StringUtils.defaultIfBlank(this.decoding, lazy ? "async" : null);
+    if (imageDecoding != null) {
+      attributes.append(" decoding=\"").append(imageDecoding).append('"');
+    }
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getCssClass() {
+    return this.cssClass;
+  }
+
+  public void setCssClass(final String cssClass) {
+    this.cssClass = cssClass;
+  }
+
+  public String getAlt() {
+    return this.alt;
+  }
+
+  public void setAlt(final String alt) {
+    this.alt = alt;
+  }
+
+  public String getTitle() {
+    return this.title;
+  }
+
+  public void setTitle(final String title) {
+    this.title = title;
+  }
+
+  public String getId() {
+    return this.id;
+  }
+
+  public void setId(final String id) {
+    this.id = id;
+  }
+
+  public boolean isStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final boolean staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public String getWidth() {
+    return this.width;
+  }
+
+  public void setWidth(final String width) {
+    this.width = width;
+  }
+
+  public String getHeight() {
+    return this.height;
+  }
+
+  public void setHeight(final String height) {
+    this.height = height;
+  }
+
+  public ImageDimensions getDimensions() {
+    return this.dimensions;
+  }
+
+  /**
+   * @param dimensions
+   *          the dimensions to fill in missing <code>width</code> and <code>height</code> attributes with; <code>null</code> to disable
+   */
+  public void setDimensions(final ImageDimensions dimensions) {
+    this.dimensions = dimensions;
+  }
+
+  public String getLoading() {
+    return this.loading;
+  }
+
+  /**
+   * @param loading
+   *          {@link ImageLoading#EAGER}, {@link ImageLoading#LAZY} or {@link ImageLoading#AUTO} to let the loading policy decide
+   */
+  public void setLoading(final String loading) {
+    this.loading = loading;
+  }
+
+  public String getFetchPriority() {
+    return this.fetchPriority;
+  }
+
+  public void setFetchPriority(final String fetchPriority) {
+    this.fetchPriority = fetchPriority;
+  }
+
+  public String getDecoding() {
+    return this.decoding;
+  }
+
+  public void setDecoding(final String decoding) {
+    this.decoding = decoding;
+  }
+
+  public ImageLoading getLoadingPolicy() {
+    return this.loadingPolicy;
+  }
+
+  /**
+   * @param loadingPolicy
+   *          the loading policy of the current request; <code>null</code> to render the loading attributes only if set explicitly
+   */
+  public void setLoadingPolicy(final ImageLoading loadingPolicy) {
+    this.loadingPolicy = loadingPolicy;
+  }
+
+}
@@ -0,0 +1,111 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Importmap;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.ModuleImportMap;
+import de.kodestruktor.grief.taglib.util.ScriptDependencyGraph;
+
+/**
+ * Renders the import map of the application, followed by <code>modulepreload</code> hints for the static dependencies of an entry module.
+ *
+ * @author Christoph Wende
+ * @see Importmap
+ * @see ModuleImportMap
+ */
+public class ImportMapRenderer implements Renderer {
+
+  private ModuleImportMap importMap;
+
+  private String entry;
+
+  private ScriptDependencyGraph graph;
+
+  private ResourceHints hints;
+
+  private MinifiedResources minified;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    if (this.importMap == null || this.importMap.isEmpty()) {
+      return;
+    }
+
+    // the import map has to precede every module script and preload, so the specifiers are resolved when fetching them
+    MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_IMPORTMAP, this.importMap.toJson());
+
+    if (this.entry == null || this.graph == null) {
+      return;
+    }
+
+    for (final String dependency : this.graph.getDependencies(this.importMap.resolve(this.entry))) {
+      final String uri = this.minified == null ? dependency : this.minified.getScript(dependency);
+      final ResourceHint hint = new ResourceHint("modulepreload", context.buildScriptPath(uri, false), null, null, null);
+      if (this.hints == null || this.hints.markRendered(hint)) {
+        out.append('\n');
+        hint.render(out);
+      }
+    }
+  }
+
+  public ModuleImportMap getImportMap() {
+    return this.importMap;
+  }
+
+  public void setImportMap(final ModuleImportMap importMap) {
+    this.importMap = importMap;
+  }
+
+  public String getEntry() {
+    return this.entry;
+  }
+
+  /**
+   * @param entry
+   *          the entry module, either a specifier of the import map or a script relative to the script directory; <code>null</code> to not render
+   *          any preloads
+   */
+  public void setEntry(final String entry) {
+    this.entry = entry;
+  }
+
+  public ScriptDependencyGraph getGraph() {
+    return this.graph;
+  }
+
+  /**
+   * @param graph
+   *          the dependency graph providing the static dependencies of the entry module
+   */
+  public void setGraph(final ScriptDependencyGraph graph) {
+    this.graph = graph;
+  }
+
+  public ResourceHints getHints() {
+    return this.hints;
+  }
+
+  /**
+   * @param hints
+   *          the hints of the current request, so a module is preloaded only once; <code>null</code> to always render the preloads
+   */
+  public void setHints(final ResourceHints hints) {
+    this.hints = hints;
+  }
+
+  public MinifiedResources getMinified() {
+    return this.minified;
+  }
+
+  /**
+   * @param minified
+   *          the minified variants to preload instead of the original versioned scripts; <code>null</code> to preload the originals
+   */
+  public void setMinified(final MinifiedResources minified) {
+    this.minified = minified;
+  }
+
+}
@@ -0,0 +1,257 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Page;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Pagination;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+
+/**
+ * Renders a ul/li pagination for a given {@link Page} object.
+ *
+ * @author Christoph Wende
+ * @see Pagination
+ */
+public class PaginationRenderer implements Renderer {
+
+  private Page<?> page;
+
+  private String prevCode = GriefTaglibProperty.PAGINATION_PROP_PREV;
+
+  private String nextCode = GriefTaglibProperty.PAGINATION_PROP_NEXT;
+
+  private String uri;
+
+  private String cssClass;
+
+  private String id;
+
+  private String pageSizeParam = GriefTaglibProperty.PAGINATION_PAGE_SIZE_PARAMETER;
+
+  private String pageNumberParam = GriefTaglibProperty.PAGINATION_PAGE_NUMBER_PARAMETER;
+
+  private String hint;
+
+  private boolean hintMarkup = true;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    final Page<?> currentPage = this.page;
+
+    final String finalUri = MarkupUtil.escapeAttribute(this.buildPageUri());
+
+    // getting label translation
+    final String prev = context.getMessage(this.prevCode);
+    final String next = context.getMessage(this.nextCode);
+
+    // hint the adjacent pages to the browser
+    if (this.hintMarkup) {
+      for (final Map.Entry<String, String> pageHint : this.buildHints().entrySet()) {
+        MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_HINT, pageHint.getKey(), MarkupUtil.escapeAttribute(pageHint.getValue()));
+      }
+    }
+
+    out.append("<ul class='");
+
+    // set additional css class if given
+    if (StringUtils.isNotBlank(this.cssClass)) {
+      out.append(this.cssClass);
+    }
+
+    out.append("'");
+
+    // set id if given
+    if (StringUtils.isNotBlank(this.id)) {
+      out.append(" id='").append(this.id).append("'");
+    }
+
+    out.append(">");
+
+    // create link for previous page
+    if (currentPage.hasPrevious()) {
+      out.append("<li class='prev'><a href='").append(finalUri).append(this.pageNumberParam).append("=")
+          .append(String.valueOf(currentPage.getNumber() - 1)).append("'>").append(prev).append("</a></li>");
+    }
+
+    // create list of all pages
+    if (currentPage.getTotalPages() > 0) {
+      for (int i = 0; i < currentPage.getTotalPages(); i++) {
+        out.append("<li");
+
+        // set active class if we are on the current page
+        if (currentPage.getNumber() == i) {
+          out.append(" class='active'");
+        }
+
+        out.append("><a href='").append(finalUri).append(this.pageNumberParam).append("=").append(String.valueOf(i)).append("'>")
+            .append(String.valueOf(i + 1)).append("</a></li>");
+      }
+    }
+
+    // create link for next page
+    if (currentPage.hasNext()) {
+      out.append("<li class='next'><a href='").append(finalUri).append(this.pageNumberParam).append("=")
+          .append(String.valueOf(currentPage.getNumber() + 1)).append("'>").append(next).append("</a></li>");
+    }
+
+    out.append("</ul>");
+  }
+
+  /**
+   * Build the hints for the adjacent pages as requested by the <code>hint</code> attribute, so the browser may fetch them in advance.
+   *
+   * @return the URIs of the adjacent pages, mapped by their link relation, not escaped yet; empty if no hints were requested
+   */
+  public Map<String, String> buildHints() {
+    if (StringUtils.isBlank(this.hint)) {
+      return Collections.emptyMap();
+    }
+
+    final Map<String, String> hints = new LinkedHashMap<>(4);
+
+    final boolean all = GriefTaglibProperty.PAGINATION_HINT_ALL.equalsIgnoreCase(this.hint);
+    final String finalUri = this.buildPageUri();
+
+    if (this.page.hasNext() && (all || GriefTaglibProperty.PAGINATION_HINT_PREFETCH.equalsIgnoreCase(this.hint))) {
+      hints.put("prefetch", finalUri + this.pageNumberParam + "=" + (this.page.getNumber() + 1));
+    }
+
+    if (all || GriefTaglibProperty.PAGINATION_HINT_ADJACENT.equalsIgnoreCase(this.hint)) {
+      if (this.page.hasPrevious()) {
+        hints.put("prev", finalUri + this.pageNumberParam + "=" + (this.page.getNumber() - 1));
+      }
+      if (this.page.hasNext()) {
+        hints.put("next", finalUri + this.pageNumberParam + "=" + (this.page.getNumber() + 1));
+      }
+    }
+    return hints;
+  }
+
+  /**
+   * Build the value of a <code>Link</code> response header carrying the hints for the adjacent pages. Characters which would end the URI reference
+   * or the header, e.g. angle brackets, quotes, blanks and line breaks, are percent-encoded.
+   *
+   * @return the header value; empty if there is nothing to hint
+   */
+  public String buildLinkHeader() {
+    final List<String> links = new ArrayList<>(3);
+    for (final Map.Entry<String, String> pageHint : this.buildHints().entrySet()) {
+      links.add(MarkupUtil.format(GriefTaglibProperty.RESOURCE_HEADER_HINT, encodeLinkTarget(pageHint.getValue()), pageHint.getKey()));
+    }
+    return StringUtils.join(links, ", ");
+  }
+
+  private static String encodeLinkTarget(final String uri) {
+    final StringBuilder encoded = new StringBuilder(uri.length() + 16);
+    for (final byte b : uri.getBytes(StandardCharsets.UTF_8)) {
+      final int c = b & 0xff;
+      if (c <= ' ' || c >= 0x7f || c == '<' || c == '>' || c == '"') {
+        encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+            .append(Character.toUpperCase(Character.forDigit(c & 0xf, 16)));
+      } else {
+        encoded.append((char) c);
+      }
+    }
+    return encoded.toString();
+  }
+
+  /**
+   * Build the URI of the paged resource, ready to append the page number parameter.
+   *
+   * @return the URI
+   */
+  private String buildPageUri() {
+    return this.uri.contains("?") ? this.uri.endsWith("&") ? this.uri : this.uri + "&"
+        : this.uri + "?" + this.pageSizeParam + "=" + this.page.getSize() + "&";
+  }
+
+  public Page<?> getPage() {
+    return this.page;
+  }
+
+  public void setPage(final Page<?> page) {
+    this.page = page;
+  }
+
+  public String getPrevCode() {
+    return this.prevCode;
+  }
+
+  public void setPrevCode(final String prevCode) {
+    this.prevCode = prevCode;
+  }
+
+  public String getNextCode() {
+    return this.nextCode;
+  }
+
+  public void setNextCode(final String nextCode) {
+    this.nextCode = nextCode;
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getCssClass() {
+    return this.cssClass;
+  }
+
+  public void setCssClass(final String cssClass) {
+    this.cssClass = cssClass;
+  }
+
+  public String getId() {
+    return this.id;
+  }
+
+  public void setId(final String id) {
+    this.id = id;
+  }
+
+  public String getPageSizeParam() {
+    return this.pageSizeParam;
+  }
+
+  public void setPageSizeParam(final String pageSizeParam) {
+    this.pageSizeParam = pageSizeParam;
+  }
+
+  public String getPageNumberParam() {
+    return this.pageNumberParam;
+  }
+
+  public void setPageNumberParam(final String pageNumberParam) {
+    this.pageNumberParam = pageNumberParam;
+  }
+
+  public String getHint() {
+    return this.hint;
+  }
+
+  public void setHint(final String hint) {
+    this.hint = hint;
+  }
+
+  public boolean isHintMarkup() {
+    return this.hintMarkup;
+  }
+
+  public void setHintMarkup(final boolean hintMarkup) {
+    this.hintMarkup = hintMarkup;
+  }
+
+}
@@ -0,0 +1,31 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+import de.kodestruktor.grief.taglib.tag.Precache;
+import de.kodestruktor.grief.taglib.util.PrecacheManifest;
+
+/**
+ * Renders the precache manifest of a service worker.
+ *
+ * @author Christoph Wende
+ * @see Precache
+ */
+public class PrecacheRenderer implements Renderer {
+
+  private PrecacheManifest manifest;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    out.append(this.manifest == null ? "[]" : this.manifest.toJson());
+  }
+
+  public PrecacheManifest getManifest() {
+    return this.manifest;
+  }
+
+  public void setManifest(final PrecacheManifest manifest) {
+    this.manifest = manifest;
+  }
+
+}
@@ -0,0 +1,239 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.util.Locale;
+
+import org.springframework.context.MessageSource;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.util.ResourceConfiguration;
+import de.kodestruktor.grief.taglib.util.ThemeIndex;
+
+/**
+ * Everything a {@link Renderer} needs to know about the current request, independent of JSP or the servlet API.
+ *
+ * @author Christoph Wende
+ */
+public class RenderContext {
+
+  private final Environment environment;
+
+  private final MessageSource messageSource;
+
+  private final Locale locale;
+
+  private final String revision;
+
+  private final RenderTrace trace;
+
+  private final String theme;
+
+  private final ThemeIndex themeIndex;
+
+  /**
+   * @param environment
+   *          the applications {@link Environment}
+   * @param messageSource
+   *          the message source to resolve labels with
+   * @param locale
+   *          the locale of the current request
+   * @param revision
+   *          the current revision of the application
+   */
+  public RenderContext(final Environment environment, final MessageSource messageSource, final Locale locale, final String revision) {
+    this(environment, messageSource, locale, revision, null);
+  }
+
+  /**
+   * @param environment
+   *          the applications {@link Environment}
+   * @param messageSource
+   *          the message source to resolve labels with
+   * @param locale
+   *          the locale of the current request
+   * @param revision
+   *          the current revision of the application
+   * @param trace
+   *          the trace of the current request; <code>null</code> if tracing is disabled
+   */
+  public RenderContext(final Environment environment, final MessageSource messageSource, final Locale locale, final String revision,
+      final RenderTrace trace) {
+    this(environment, messageSource, locale, revision, trace, null, null);
+  }
+
+  /**
+   * @param environment
+   *          the applications {@link Environment}
+   * @param messageSource
+   *          the message source to resolve labels with
+   * @param locale
+   *          the locale of the current request
+   * @param revision
+   *          the current revision of the application
+   * @param trace
+   *          the trace of the current request; <code>null</code> if tracing is disabled
+   * @param theme
+   *          the theme of the current request; <code>null</code> to use the default resources
+   * @param themeIndex
+   *          the index of the resources provided by each theme; <code>null</code> if themes are not used
+   */
+  public RenderContext(final Environment environment, final MessageSource messageSource, final Locale locale, final String revision,
+      final RenderTrace trace, final String theme, final ThemeIndex themeIndex) {
+    this.environment = environment;
+    this.messageSource = messageSource;
+    this.locale = locale;
+    this.revision = revision;
+    this.trace = trace;
+    this.theme = theme;
+    this.themeIndex = themeIndex;
+  }
+
+  /**
+   * Resolve a message for the current locale.
+   *
+   * @param code
+   *          the message code
+   * @return the message
+   */
+  public String getMessage(final String code) {
+    final long start = this.trace == null ? 0L : System.nanoTime();
+    final String message = this.messageSource.getMessage(code, null, this.locale);
+    this.record(RenderTrace.METRIC_MESSAGES, start);
+    return message;
+  }
+
+  public String buildImagePath(final String uri, final boolean staticResource) {
+    return this.buildThemedPath(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, uri, staticResource);
+  }
+
+  public String buildScriptPath(final String uri, final boolean staticResource) {
+    final long start = this.trace == null ? 0L : System.nanoTime();
+    final String path = ConfigurationUtil.buildScriptPath(this.environment, this.revision, uri, staticResource);
+    this.record(RenderTrace.METRIC_PATH, start);
+    return path;
+  }
+
+  public String buildStylePath(final String uri, final boolean staticResource) {
+    return this.buildThemedPath(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, uri, staticResource);
+  }
+
+  public String buildFontPath(final String uri, final boolean staticResource) {
+    final long start = this.trace == null ? 0L : System.nanoTime();
+    final String path = ConfigurationUtil.buildFontPath(this.environment, this.revision, uri, staticResource);
+    this.record(RenderTrace.METRIC_PATH, start);
+    return path;
+  }
+
+  /**
+   * Build the location of an image inside the web application, taking the theme of the current request into account.
+   *
+   * @param uri
+   *          the URI to the image, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if the location of a static image should be built, <code>false</code> otherwise
+   * @return the location of the image
+   */
+  public String buildImageLocation(final String uri, final boolean staticResource) {
+    return this.getResourceConfiguration().buildLocation(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, uri, staticResource, this.revision,
+        this.resolveTheme(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, uri, staticResource));
+  }
+
+  /**
+   * Resolve the theme providing a resource for the current request. Only images and stylesheets are themed.
+   *
+   * @param relativeLocationProp
+   *          the resource location property name, e.g. {@link GriefTaglibProperty#RESOURCE_PROP_IMAGEDIR}
+   * @param uri
+   *          the URI to the resource, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> for a static resource, <code>false</code> for a versioned one
+   * @return the theme providing the resource or <code>null</code>, if the default resource has to be used
+   * @see ThemeIndex
+   */
+  public String resolveTheme(final String relativeLocationProp, final String uri, final boolean staticResource) {
+    if (this.themeIndex == null || this.theme == null) {
+      return null;
+    }
+    return this.themeIndex.resolve(this.theme, this.getResourceConfiguration().getResourceDirectory(relativeLocationProp), uri, staticResource);
+  }
+
+  private String buildThemedPath(final String relativeLocationProp, final String uri, final boolean staticResource) {
+    final long start = this.trace == null ? 0L : System.nanoTime();
+    final String path = this.getResourceConfiguration().buildPath(relativeLocationProp, uri, staticResource, this.revision,
+        this.resolveTheme(relativeLocationProp, uri, staticResource));
+    this.record(RenderTrace.METRIC_PATH, start);
+    return path;
+  }
+
+  /**
+   * Build the path to a static or versioned resource of the given type.
+   *
+   * @param resourceType
+   *          the type of the resource, e.g. {@link GriefTaglibProperty#RESOURCE_TYPE_SCRIPT}
+   * @param uri
+   *          the URI to the resource, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if a path to a static resource should be built, <code>false</code> otherwise
+   * @return the path to the resource
+   * @throws IllegalArgumentException
+   *           in case the resource type is unknown
+   */
+  public String buildResourcePath(final String resourceType, final String uri, final boolean staticResource) {
+    switch (resourceType) {
+      case GriefTaglibProperty.RESOURCE_TYPE_IMAGE:
+        return this.buildImagePath(uri, staticResource);
+      case GriefTaglibProperty.RESOURCE_TYPE_SCRIPT:
+        return this.buildScriptPath(uri, staticResource);
+      case GriefTaglibProperty.RESOURCE_TYPE_STYLE:
+        return this.buildStylePath(uri, staticResource);
+      case GriefTaglibProperty.RESOURCE_TYPE_FONT:
+        return this.buildFontPath(uri, staticResource);
+      default:
+        throw new IllegalArgumentException("Unknown resource type [" + resourceType + "]");
+    }
+  }
+
+  public ResourceConfiguration getResourceConfiguration() {
+    return ConfigurationUtil.getResourceConfiguration(this.environment);
+  }
+
+  /**
+   * Record the time passed since the given start in the trace of the current request, if tracing is enabled.
+   *
+   * @param metric
+   *          the name of the metric
+   * @param start
+   *          the start as returned by {@link System#nanoTime()}
+   */
+  public void record(final String metric, final long start) {
+    if (this.trace != null) {
+      this.trace.record(metric, start);
+    }
+  }
+
+  public Environment getEnvironment() {
+    return this.environment;
+  }
+
+  public MessageSource getMessageSource() {
+    return this.messageSource;
+  }
+
+  public Locale getLocale() {
+    return this.locale;
+  }
+
+  public String getRevision() {
+    return this.revision;
+  }
+
+  public RenderTrace getTrace() {
+    return this.trace;
+  }
+
+  public String getTheme() {
+    return this.theme;
+  }
+
+}
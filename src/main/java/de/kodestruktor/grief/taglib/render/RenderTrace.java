@@ -0,0 +1,153 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.ServletRequest;
+
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Request scoped trace of the time spent rendering grief tags, resolving paths, looking up messages and reading the manifest. The totals are
+ * exposed once per request as <code>Server-Timing</code> header and may be rendered as HTML comment. Tracing is only active if enabled by
+ * {@link GriefTaglibProperty#TRACE_PROP_ENABLED}; otherwise no trace is created and the tags skip all measurements.
+ *
+ * @author Christoph Wende
+ */
+public class RenderTrace {
+
+  /**
+   * Metric of the time spent resolving resource paths.
+   */
+  public static final String METRIC_PATH = "path";
+
+  /**
+   * Metric of the time spent looking up messages.
+   */
+  public static final String METRIC_MESSAGES = "messages";
+
+  /**
+   * Metric of the time spent reading the manifest.
+   */
+  public static final String METRIC_MANIFEST = "manifest";
+
+  /**
+   * Metric of the time spent resolving image dimensions.
+   */
+  public static final String METRIC_DIMENSIONS = "dimensions";
+
+  private static final String REQUEST_ATTRIBUTE = RenderTrace.class.getName();
+
+  private static final ConcurrentMap<Environment, Boolean> ENABLED = new ConcurrentHashMap<>();
+
+  private final Map<String, long[]> metrics = new LinkedHashMap<>();
+
+  /**
+   * Get the trace of the given request, creating it if neccessary.
+   *
+   * @param request
+   *          the current request
+   * @param env
+   *          the applications {@link Environment}
+   * @return the trace or <code>null</code>, if tracing is disabled
+   */
+  public static RenderTrace get(final ServletRequest request, final Environment env) {
+    if (!isEnabled(env)) {
+      return null;
+    }
+
+    RenderTrace trace = (RenderTrace) request.getAttribute(REQUEST_ATTRIBUTE);
+    if (trace == null) {
+      trace = new RenderTrace();
+      request.setAttribute(REQUEST_ATTRIBUTE, trace);
+    }
+    return trace;
+  }
+
+  /**
+   * Check whether tracing is enabled. The property is resolved once per environment.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   * @return <code>true</code> if tracing is enabled, <code>false</code> otherwise
+   */
+  public static boolean isEnabled(final Environment env) {
+    Boolean enabled = ENABLED.get(env);
+    if (enabled == null) {
+      enabled = env.getProperty(GriefTaglibProperty.TRACE_PROP_ENABLED, Boolean.class, Boolean.FALSE);
+      ENABLED.putIfAbsent(env, enabled);
+    }
+    return enabled.booleanValue();
+  }
+
+  /**
+   * Forget whether tracing is enabled for the given environment, e.g. when the context of the application is closed.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   */
+  public static void clear(final Environment env) {
+    ENABLED.remove(env);
+  }
+
+  /**
+   * Record the time passed since the given start.
+   *
+   * @param metric
+   *          the name of the metric
+   * @param start
+   *          the start as returned by {@link System#nanoTime()}
+   */
+  public void record(final String metric, final long start) {
+    final long duration = System.nanoTime() - start;
+
+    long[] values = this.metrics.get(metric);
+    if (values == null) {
+      values = new long[2];
+      this.metrics.put(metric, values);
+    }
+    values[0] += duration;
+    values[1]++;
+  }
+
+  /**
+   * Build the value of a <code>Server-Timing</code> header, e.g.
+   * <code>grief-image;dur=0.420;desc="3 calls", grief-path;dur=0.120;desc="3 calls"</code>.
+   *
+   * @return the header value
+   */
+  public String toServerTiming() {
+    final StringBuilder header = new StringBuilder();
+    for (final Map.Entry<String, long[]> metric : this.metrics.entrySet()) {
+      if (header.length() > 0) {
+        header.append(", ");
+      }
+      header.append("grief-").append(metric.getKey()).append(";dur=").append(toMillis(metric.getValue()[0])).append(";desc=\"")
+          .append(metric.getValue()[1]).append(" calls\"");
+    }
+    return header.toString();
+  }
+
+  /**
+   * Build a HTML comment listing all metrics.
+   *
+   * @return the comment
+   */
+  public String toComment() {
+    final StringBuilder comment = new StringBuilder("<!-- grief trace:");
+    for (final Map.Entry<String, long[]> metric : this.metrics.entrySet()) {
+      comment.append(' ').append(metric.getKey()).append(' ').append(metric.getValue()[1]).append("x ").append(toMillis(metric.getValue()[0]))
+          .append("ms;");
+    }
+    return comment.append(" -->").toString();
+  }
+
+  private static String toMillis(final long nanos) {
+    return String.format(Locale.ROOT, "%.3f", Double.valueOf(nanos / 1000000d));
+  }
+}
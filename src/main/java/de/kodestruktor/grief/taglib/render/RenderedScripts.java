@@ -0,0 +1,130 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.kodestruktor.grief.taglib.util.ScriptDependencyGraph;
+
+/**
+ * Request scoped registry of the scripts already rendered along with the way they have been loaded, making sure a script pulled in as dependency
+ * is rendered again only if it has not been rendered in a way executing it early enough.
+ *
+ * @author Christoph Wende
+ * @see ScriptRenderer
+ */
+public class RenderedScripts {
+
+  /**
+   * The ways a script may be loaded, determining when it is executed.
+   */
+  public enum Loading {
+
+    /**
+     * Executed as soon as it has been parsed, blocking the parser.
+     */
+    BLOCKING,
+
+    /**
+     * Executed in document order once the document has been parsed, along with the other deferred scripts and modules.
+     */
+    DEFER,
+
+    /**
+     * Executed as module in document order once the document has been parsed, along with the deferred scripts.
+     */
+    MODULE,
+
+    /**
+     * Executed as soon as it has been loaded, in no particular order.
+     */
+    ASYNC;
+
+    /**
+     * Check whether a script rendered this way before is executed ahead of a script rendered now, which requires the given loading.
+     *
+     * @param required
+     *          the loading the script is required with now
+     * @return <code>true</code> if rendering the script this way before is sufficient, <code>false</code> if it has to be rendered again
+     */
+    public boolean satisfies(final Loading required) {
+      switch (required) {
+        case ASYNC:
+          return true;
+        case DEFER:
+          return this != ASYNC;
+        case MODULE:
+          return this == MODULE;
+        default:
+          return this == BLOCKING;
+      }
+    }
+  }
+
+  private static final Logger LOG = LoggerFactory.getLogger(RenderedScripts.class);
+
+  private static final String REQUEST_ATTRIBUTE = RenderedScripts.class.getName();
+
+  private final Map<String, EnumSet<Loading>> scripts = new HashMap<>();
+
+  /**
+   * Get the registry of the given request, creating it if neccessary.
+   *
+   * @param request
+   *          the current request
+   * @return the registry
+   */
+  public static RenderedScripts get(final ServletRequest request) {
+    RenderedScripts scripts = (RenderedScripts) request.getAttribute(REQUEST_ATTRIBUTE);
+    if (scripts == null) {
+      scripts = new RenderedScripts();
+      request.setAttribute(REQUEST_ATTRIBUTE, scripts);
+    }
+    return scripts;
+  }
+
+  /**
+   * Mark a script as rendered with the given loading.
+   *
+   * @param uri
+   *          the URI of the script, relative to the script directory
+   * @param loading
+   *          the loading the script is required with
+   * @return <code>true</code> if the script has not been rendered in a sufficient way before and should be rendered now, <code>false</code>
+   *         otherwise
+   */
+  public boolean markRendered(final String uri, final Loading loading) {
+    final String script = ScriptDependencyGraph.normalize(uri);
+    final EnumSet<Loading> rendered = this.scripts.get(script);
+
+    if (rendered == null) {
+      this.scripts.put(script, EnumSet.of(loading));
+      return true;
+    }
+
+    for (final Loading previous : rendered) {
+      if (previous.satisfies(loading)) {
+        return false;
+      }
+    }
+
+    // a script executed too late for a dependent is rendered again, which executes it twice
+    LOG.warn("Script [{}] has been rendered as {} before, but is required as {} now; rendering it again", script, rendered, loading);
+    rendered.add(loading);
+    return true;
+  }
+
+  /**
+   * @param uri
+   *          the URI of the script, relative to the script directory
+   * @return <code>true</code> if the script has already been rendered, <code>false</code> otherwise
+   */
+  public boolean isRendered(final String uri) {
+    return this.scripts.containsKey(ScriptDependencyGraph.normalize(uri));
+  }
+}
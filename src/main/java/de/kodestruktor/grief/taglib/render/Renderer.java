@@ -0,0 +1,24 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+/**
+ * Renders a piece of grief markup. Implementations are simple beans carrying the same attributes as the corresponding JSP tag, so they can be
+ * configured and used from any view technology, e.g. a Thymeleaf dialect or a streaming view writing to a reactive buffer.
+ *
+ * @author Christoph Wende
+ */
+public interface Renderer {
+
+  /**
+   * Render the markup.
+   *
+   * @param context
+   *          the context of the current request
+   * @param out
+   *          the target to write the markup to
+   * @throws IOException
+   *           in case the markup could not be written
+   */
+  void render(RenderContext context, Appendable out) throws IOException;
+}
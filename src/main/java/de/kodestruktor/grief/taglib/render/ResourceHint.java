@@ -0,0 +1,125 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+import java.util.Locale;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A single resource hint like <code>preconnect</code> or <code>preload</code>, rendered as link tag. Two hints are equal if they share the same
+ * relation, target and CORS mode, as the browser does not reuse a connection or a preloaded response for a request of another CORS mode; a bare
+ * <code>crossorigin</code> attribute is the same as <code>crossorigin="anonymous"</code>.
+ *
+ * @author Christoph Wende
+ * @see ResourceHints
+ */
+public final class ResourceHint {
+
+  private final String rel;
+
+  private final String href;
+
+  private final String as;
+
+  private final String type;
+
+  private final String crossorigin;
+
+  /**
+   * @param rel
+   *          the link relation, e.g. <code>preconnect</code>, <code>dns-prefetch</code>, <code>preload</code> or <code>modulepreload</code>
+   * @param href
+   *          the target of the hint
+   * @param as
+   *          the destination of a preloaded resource, e.g. <code>script</code>; may be <code>null</code>
+   * @param type
+   *          the mime type of a preloaded resource; may be <code>null</code>
+   * @param crossorigin
+   *          the CORS mode, e.g. <code>anonymous</code>; may be <code>null</code>
+   */
+  public ResourceHint(final String rel, final String href, final String as, final String type, final String crossorigin) {
+    this.rel = rel;
+    this.href = href;
+    this.as = as;
+    this.type = type;
+    this.crossorigin = crossorigin;
+  }
+
+  /**
+   * Render the hint as link tag.
+   *
+   * @param out
+   *          the target to write the markup to
+   * @throws IOException
+   *           in case the markup could not be written
+   */
+  public void render(final Appendable out) throws IOException {
+    out.append("<link rel=\"").append(this.rel).append("\" href=\"").append(this.href).append('"');
+
+    if (StringUtils.isNotBlank(this.as)) {
+      out.append(" as=\"").append(this.as).append('"');
+    }
+    if (StringUtils.isNotBlank(this.type)) {
+      out.append(" type=\"").append(this.type).append('"');
+    }
+    if (this.crossorigin != null) {
+      out.append(" crossorigin");
+      if (StringUtils.isNotBlank(this.crossorigin)) {
+        out.append("=\"").append(this.crossorigin).append('"');
+      }
+    }
+
+    out.append(" />");
+  }
+
+  public String getRel() {
+    return this.rel;
+  }
+
+  public String getHref() {
+    return this.href;
+  }
+
+  public String getAs() {
+    return this.as;
+  }
+
+  public String getType() {
+    return this.type;
+  }
+
+  public String getCrossorigin() {
+    return this.crossorigin;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * this.rel.hashCode() + this.href.hashCode()) + getCorsMode(this.crossorigin).hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof ResourceHint)) {
+      return false;
+    }
+    final ResourceHint other = (ResourceHint) obj;
+    return this.rel.equals(other.rel) && this.href.equals(other.href) && getCorsMode(this.crossorigin).equals(getCorsMode(other.crossorigin));
+  }
+
+  private static String getCorsMode(final String crossorigin) {
+    if (crossorigin == null) {
+      return "no-cors";
+    }
+    final String mode = crossorigin.trim().toLowerCase(Locale.ROOT);
+    return mode.isEmpty() ? "anonymous" : mode;
+  }
+
+  @Override
+  public String toString() {
+    return this.crossorigin == null ? this.rel + " " + this.href : this.rel + " " + this.href + " crossorigin=" + this.crossorigin;
+  }
+}
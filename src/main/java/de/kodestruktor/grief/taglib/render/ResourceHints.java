@@ -0,0 +1,96 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletRequest;
+
+/**
+ * Request scoped registry of resource hints, making sure every hint is rendered only once per request. Hints may be registered in advance, e.g. by
+ * a controller; those pending hints are rendered by the next stylesheet tag, ahead of the stylesheet itself.
+ *
+ * @author Christoph Wende
+ * @see ResourceHint
+ */
+public class ResourceHints {
+
+  private static final String REQUEST_ATTRIBUTE = ResourceHints.class.getName();
+
+  private final Map<ResourceHint, Boolean> hints = new LinkedHashMap<>();
+
+  private boolean stylesheetRendered;
+
+  /**
+   * Get the registry of the given request, creating it if neccessary.
+   *
+   * @param request
+   *          the current request
+   * @return the registry
+   */
+  public static ResourceHints get(final ServletRequest request) {
+    ResourceHints hints = (ResourceHints) request.getAttribute(REQUEST_ATTRIBUTE);
+    if (hints == null) {
+      hints = new ResourceHints();
+      request.setAttribute(REQUEST_ATTRIBUTE, hints);
+    }
+    return hints;
+  }
+
+  /**
+   * Register a hint to be rendered ahead of the next stylesheet.
+   *
+   * @param hint
+   *          the hint
+   * @return <code>true</code> if the hint is new to this request, <code>false</code> otherwise
+   */
+  public boolean add(final ResourceHint hint) {
+    if (this.hints.containsKey(hint)) {
+      return false;
+    }
+    this.hints.put(hint, Boolean.FALSE);
+    return true;
+  }
+
+  /**
+   * Mark a hint as rendered.
+   *
+   * @param hint
+   *          the hint about to be rendered
+   * @return <code>true</code> if the hint has not been rendered before and should be rendered now, <code>false</code> otherwise
+   */
+  public boolean markRendered(final ResourceHint hint) {
+    return !Boolean.TRUE.equals(this.hints.put(hint, Boolean.TRUE));
+  }
+
+  /**
+   * Take all registered hints, which have not been rendered yet, and mark them as rendered.
+   *
+   * @return the pending hints in order of registration
+   */
+  public List<ResourceHint> drainPending() {
+    final List<ResourceHint> pending = new ArrayList<>();
+    for (final Map.Entry<ResourceHint, Boolean> entry : this.hints.entrySet()) {
+      if (!entry.getValue().booleanValue()) {
+        pending.add(entry.getKey());
+        entry.setValue(Boolean.TRUE);
+      }
+    }
+    return pending;
+  }
+
+  /**
+   * Mark a stylesheet as rendered in this request, so hints rendered afterwards are known to follow it.
+   */
+  public void markStylesheetRendered() {
+    this.stylesheetRendered = true;
+  }
+
+  /**
+   * @return <code>true</code> if a stylesheet has been rendered in this request, so hints rendered now would follow it
+   */
+  public boolean isStylesheetRendered() {
+    return this.stylesheetRendered;
+  }
+}
@@ -0,0 +1,185 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.RenderedScripts.Loading;
+import de.kodestruktor.grief.taglib.tag.Script;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.ScriptDependencyGraph;
+
+/**
+ * Renders a revision dependent script tag, preceded by all of its dependencies not rendered yet in a way executing them ahead of it. Dependencies
+ * of classic scripts are rendered as classic scripts, dependencies of modules as modules, matching the <code>modulepreload</code> hints of the
+ * import map.
+ *
+ * @author Christoph Wende
+ * @see Script
+ * @see ScriptDependencyGraph
+ */
+public class ScriptRenderer implements Renderer {
+
+  private String uri;
+
+  private String id;
+
+  private boolean async;
+
+  private boolean defer;
+
+  private boolean module;
+
+  private boolean staticResource;
+
+  private List<String> dependencies = Collections.emptyList();
+
+  private RenderedScripts renderedScripts;
+
+  private MinifiedResources minified;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    final Loading loading = this.getLoading();
+
+    // dependencies are rendered ahead of the script: blocking for blocking and async scripts, whose dependencies have to be executed first,
+    // deferred for deferred scripts, which are executed in document order along with them, and as modules for modules, as they may use import
+    // and export and are evaluated only once, even if the module imports them as well
+    final Loading dependencyLoading;
+    if (loading == Loading.MODULE) {
+      dependencyLoading = Loading.MODULE;
+    } else {
+      dependencyLoading = loading == Loading.BLOCKING || loading == Loading.ASYNC ? Loading.BLOCKING : Loading.DEFER;
+    }
+    final String dependencyFormat = this.getFormat(dependencyLoading);
+
+    for (final String dependency : this.dependencies) {
+      if (this.renderedScripts == null || this.renderedScripts.markRendered(dependency, dependencyLoading)) {
+        MarkupUtil.format(out, dependencyFormat, context.buildScriptPath(this.resolve(dependency), this.staticResource), "");
+        out.append('\n');
+      }
+    }
+
+    if (this.renderedScripts == null || this.renderedScripts.markRendered(this.uri, loading)) {
+      final String path = context.buildScriptPath(this.resolve(this.uri), this.staticResource);
+
+      MarkupUtil.format(out, this.getFormat(loading), path, StringUtils.defaultIfBlank(this.id, ""));
+    }
+  }
+
+  private String resolve(final String script) {
+    return this.minified == null || this.staticResource ? script : this.minified.getScript(script);
+  }
+
+  private Loading getLoading() {
+    if (this.module) {
+      return Loading.MODULE;
+    }
+    if (this.defer) {
+      return Loading.DEFER;
+    }
+    return this.async ? Loading.ASYNC : Loading.BLOCKING;
+  }
+
+  private String getFormat(final Loading loading) {
+    switch (loading) {
+      case MODULE:
+        return GriefTaglibProperty.RESOURCE_TAG_SCRIPT_MODULE;
+      case DEFER:
+        return GriefTaglibProperty.RESOURCE_TAG_SCRIPT_DEFER;
+      case ASYNC:
+        return GriefTaglibProperty.RESOURCE_TAG_SCRIPT_ASYNC;
+      default:
+        return GriefTaglibProperty.RESOURCE_TAG_SCRIPT;
+    }
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getId() {
+    return this.id;
+  }
+
+  public void setId(final String id) {
+    this.id = id;
+  }
+
+  public boolean isAsync() {
+    return this.async;
+  }
+
+  public void setAsync(final boolean async) {
+    this.async = async;
+  }
+
+  public boolean isDefer() {
+    return this.defer;
+  }
+
+  public void setDefer(final boolean defer) {
+    this.defer = defer;
+  }
+
+  public boolean isModule() {
+    return this.module;
+  }
+
+  public void setModule(final boolean module) {
+    this.module = module;
+  }
+
+  public boolean isStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final boolean staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public List<String> getDependencies() {
+    return this.dependencies;
+  }
+
+  /**
+   * @param dependencies
+   *          the scripts to render ahead of this script, in execution order
+   */
+  public void setDependencies(final List<String> dependencies) {
+    this.dependencies = dependencies;
+  }
+
+  public RenderedScripts getRenderedScripts() {
+    return this.renderedScripts;
+  }
+
+  /**
+   * @param renderedScripts
+   *          the registry of scripts already rendered in this request; if <code>null</code>, every script is rendered
+   */
+  public void setRenderedScripts(final RenderedScripts renderedScripts) {
+    this.renderedScripts = renderedScripts;
+  }
+
+  public MinifiedResources getMinified() {
+    return this.minified;
+  }
+
+  /**
+   * @param minified
+   *          the minified variants to render instead of the original versioned scripts; <code>null</code> to render the originals
+   */
+  public void setMinified(final MinifiedResources minified) {
+    this.minified = minified;
+  }
+
+}
@@ -0,0 +1,115 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Style;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.RewrittenStylesheets;
+
+/**
+ * Renders a revision dependent stylesheet link tag.
+ *
+ * @author Christoph Wende
+ * @see Style
+ */
+public class StyleRenderer implements Renderer {
+
+  private String uri;
+
+  private String id;
+
+  private boolean staticResource;
+
+  private List<ResourceHint> hints = Collections.emptyList();
+
+  private MinifiedResources minified;
+
+  private RewrittenStylesheets rewritten;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    // resource hints have to be known to the browser before the stylesheet blocks rendering
+    for (final ResourceHint hint : this.hints) {
+      hint.render(out);
+    }
+
+    // stylesheets overridden by a theme are neither rewritten nor minified
+    String style = this.uri;
+    if ((this.minified != null || this.rewritten != null) && !this.staticResource
+        && context.resolveTheme(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, this.uri, false) == null) {
+      if (this.minified != null) {
+        style = this.minified.getStyle(this.uri);
+      }
+      if (this.rewritten != null && style.equals(this.uri)) {
+        style = this.rewritten.getStyle(this.uri);
+      }
+    }
+    final String path = context.buildStylePath(style, this.staticResource);
+
+    MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_STYLE, path, StringUtils.defaultIfBlank(this.id, ""));
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getId() {
+    return this.id;
+  }
+
+  public void setId(final String id) {
+    this.id = id;
+  }
+
+  public boolean isStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final boolean staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public List<ResourceHint> getHints() {
+    return this.hints;
+  }
+
+  public void setHints(final List<ResourceHint> hints) {
+    this.hints = hints;
+  }
+
+  public MinifiedResources getMinified() {
+    return this.minified;
+  }
+
+  /**
+   * @param minified
+   *          the minified variants to render instead of the original versioned stylesheets; <code>null</code> to render the originals
+   */
+  public void setMinified(final MinifiedResources minified) {
+    this.minified = minified;
+  }
+
+  public RewrittenStylesheets getRewritten() {
+    return this.rewritten;
+  }
+
+  /**
+   * @param rewritten
+   *          the rewritten variants to render instead of the original versioned stylesheets, unless minified variants are rendered;
+   *          <code>null</code> to render the originals
+   */
+  public void setRewritten(final RewrittenStylesheets rewritten) {
+    this.rewritten = rewritten;
+  }
+
+}
@@ -0,0 +1,151 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Svg;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+import de.kodestruktor.grief.taglib.util.SvgCache;
+
+/**
+ * Renders an SVG inline or as reference into the symbol sprite of the page, or renders the symbol sprite itself. If the SVG cannot be read, a
+ * revision dependent image tag is rendered instead. The ids inside an SVG are prefixed per inline rendering, and per symbol in the sprite, so
+ * several SVGs in a page never define the same id.
+ *
+ * @author Christoph Wende
+ * @see Svg
+ */
+public class SvgRenderer implements Renderer {
+
+  private static final String SYMBOL_PREFIX = "g-svg";
+
+  private String uri;
+
+  private String cssClass;
+
+  private String id;
+
+  private boolean staticResource;
+
+  private boolean use;
+
+  private boolean sprite;
+
+  private SvgCache cache;
+
+  private SvgSymbols symbols;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    if (this.sprite) {
+      this.renderSprite(out);
+      return;
+    }
+
+    final SvgCache.Svg svg = this.cache.get(context.buildImageLocation(this.uri, this.staticResource), context.getRevision());
+
+    if (svg == null) {
+      final ImageRenderer fallback = new ImageRenderer();
+      fallback.setUri(this.uri);
+      fallback.setCssClass(this.cssClass);
+      fallback.setId(this.id);
+      fallback.setStaticResource(this.staticResource);
+      fallback.render(context, out);
+    } else if (this.use) {
+      final String symbolId = MarkupUtil.toIdentifier(SYMBOL_PREFIX, this.uri);
+      this.symbols.add(symbolId, svg);
+      MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_SVG_USE, StringUtils.defaultIfBlank(this.cssClass, ""),
+          StringUtils.defaultIfBlank(this.id, ""), buildViewBox(svg), symbolId);
+    } else {
+      final String prefix = this.symbols.nextInlinePrefix(MarkupUtil.toIdentifier(SYMBOL_PREFIX, this.uri));
+      MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_SVG_INLINE, StringUtils.defaultIfBlank(this.cssClass, ""),
+          StringUtils.defaultIfBlank(this.id, ""), svg.getAttributes(), svg.getContent(prefix));
+    }
+  }
+
+  private void renderSprite(final Appendable out) throws IOException {
+    final Map<String, SvgCache.Svg> pending = this.symbols.drainPending();
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    final StringBuilder content = new StringBuilder(1024);
+    for (final Map.Entry<String, SvgCache.Svg> symbol : pending.entrySet()) {
+      MarkupUtil.format(content, GriefTaglibProperty.RESOURCE_TAG_SVG_SYMBOL, symbol.getKey(), buildViewBox(symbol.getValue()),
+          symbol.getValue().getContent(symbol.getKey()));
+    }
+    MarkupUtil.format(out, GriefTaglibProperty.RESOURCE_TAG_SVG_SPRITE, content.toString());
+  }
+
+  private static String buildViewBox(final SvgCache.Svg svg) {
+    return svg.getViewBox() == null ? "" : " viewBox=\"" + svg.getViewBox() + "\"";
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getCssClass() {
+    return this.cssClass;
+  }
+
+  public void setCssClass(final String cssClass) {
+    this.cssClass = cssClass;
+  }
+
+  public String getId() {
+    return this.id;
+  }
+
+  public void setId(final String id) {
+    this.id = id;
+  }
+
+  public boolean isStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final boolean staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public boolean isUse() {
+    return this.use;
+  }
+
+  public void setUse(final boolean use) {
+    this.use = use;
+  }
+
+  public boolean isSprite() {
+    return this.sprite;
+  }
+
+  public void setSprite(final boolean sprite) {
+    this.sprite = sprite;
+  }
+
+  public SvgCache getCache() {
+    return this.cache;
+  }
+
+  public void setCache(final SvgCache cache) {
+    this.cache = cache;
+  }
+
+  public SvgSymbols getSymbols() {
+    return this.symbols;
+  }
+
+  public void setSymbols(final SvgSymbols symbols) {
+    this.symbols = symbols;
+  }
+
+}
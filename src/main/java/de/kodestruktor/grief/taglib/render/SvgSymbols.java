@@ -0,0 +1,79 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.ServletRequest;
+
+import de.kodestruktor.grief.taglib.util.SvgCache;
+
+/**
+ * Request scoped registry of the SVG symbols referenced in a page. Every symbol is collected once and rendered into the symbol sprite by the next
+ * sprite tag; symbols referenced afterwards are rendered by a following sprite tag. The registry also counts the SVGs rendered inline, so the ids
+ * inside each of them can be prefixed uniquely.
+ *
+ * @author Christoph Wende
+ */
+public class SvgSymbols {
+
+  private static final String REQUEST_ATTRIBUTE = SvgSymbols.class.getName();
+
+  private final Map<String, SvgCache.Svg> symbols = new LinkedHashMap<>();
+
+  private final Map<String, SvgCache.Svg> pending = new LinkedHashMap<>();
+
+  private int inlined;
+
+  /**
+   * Get the registry of the given request, creating it if neccessary.
+   *
+   * @param request
+   *          the current request
+   * @return the registry
+   */
+  public static SvgSymbols get(final ServletRequest request) {
+    SvgSymbols symbols = (SvgSymbols) request.getAttribute(REQUEST_ATTRIBUTE);
+    if (symbols == null) {
+      symbols = new SvgSymbols();
+      request.setAttribute(REQUEST_ATTRIBUTE, symbols);
+    }
+    return symbols;
+  }
+
+  /**
+   * Register a referenced symbol.
+   *
+   * @param id
+   *          the id of the symbol
+   * @param svg
+   *          the SVG of the symbol
+   */
+  public void add(final String id, final SvgCache.Svg svg) {
+    if (!this.symbols.containsKey(id)) {
+      this.symbols.put(id, svg);
+      this.pending.put(id, svg);
+    }
+  }
+
+  /**
+   * Build the prefix of the ids inside an SVG rendered inline, unique within the page.
+   *
+   * @param id
+   *          the identifier of the SVG
+   * @return the prefix
+   */
+  public String nextInlinePrefix(final String id) {
+    return id + "-" + ++this.inlined;
+  }
+
+  /**
+   * Take all registered symbols, which have not been rendered yet.
+   *
+   * @return the pending symbols mapped by their id, in order of registration
+   */
+  public Map<String, SvgCache.Svg> drainPending() {
+    final Map<String, SvgCache.Svg> drained = new LinkedHashMap<>(this.pending);
+    this.pending.clear();
+    return drained;
+  }
+}
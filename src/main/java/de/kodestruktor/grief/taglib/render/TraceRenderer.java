@@ -0,0 +1,32 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+import de.kodestruktor.grief.taglib.tag.Trace;
+
+/**
+ * Renders the trace of the current request as HTML comment.
+ *
+ * @author Christoph Wende
+ * @see Trace
+ */
+public class TraceRenderer implements Renderer {
+
+  private boolean commentEnabled;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    if (this.commentEnabled && context.getTrace() != null) {
+      out.append(context.getTrace().toComment());
+    }
+  }
+
+  public boolean isCommentEnabled() {
+    return this.commentEnabled;
+  }
+
+  public void setCommentEnabled(final boolean commentEnabled) {
+    this.commentEnabled = commentEnabled;
+  }
+
+}
@@ -0,0 +1,136 @@
+package de.kodestruktor.grief.taglib.render;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.tag.Version;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+
+/**
+ * Renders the applications version and/or revision, if enabled in the configuration of the application.
+ *
+ * @author Christoph Wende
+ * @see Version
+ */
+public class VersionRenderer implements Renderer {
+
+  private String style;
+
+  private String type;
+
+  private String version = "-1";
+
+  private Boolean renderingEnabled;
+
+  @Override
+  public void render(final RenderContext context, final Appendable out) throws IOException {
+    final boolean enabled = this.renderingEnabled == null ? this.isRenderingEnabled(context.getEnvironment()) : this.renderingEnabled.booleanValue();
+    if (!enabled) {
+      return;
+    }
+
+    final String revision = context.getRevision();
+
+    switch (this.type + "_" + this.style) {
+      case "version_meta":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_META_SIMPLE, "Version", this.version);
+        break;
+      case "revision_meta":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_META_SIMPLE, "Revision", revision);
+        break;
+      case "both_meta":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_META_COMBINED, "Version", this.version, revision);
+        break;
+      case "version_content":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_CONTENT_SIMPLE, "version", "Version", this.version);
+        break;
+      case "revision_content":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_CONTENT_SIMPLE, "revision", "Revision", revision);
+        break;
+      case "both_content":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_CONTENT_COMBINED, "version", "Version", this.version, revision);
+        break;
+      case "version_comment":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_COMMENT_SIMPLE, "version", this.version);
+        break;
+      case "revision_comment":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_COMMENT_SIMPLE, "revision", revision);
+        break;
+      case "both_comment":
+        MarkupUtil.format(out, GriefTaglibProperty.VERSION_TAG_COMMENT_COMBINED, "Version", this.version, revision);
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Check the configuration of the application, whether the version may be rendered in the requested style.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   * @return <code>true</code> if the version may be rendered, <code>false</code> otherwise
+   */
+  public boolean isRenderingEnabled(final Environment env) {
+
+    // check the basics
+    if (!env.getProperty(GriefTaglibProperty.VERSION_PROP_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()
+        || StringUtils.isAnyBlank(this.style, this.type)) {
+      return false;
+    }
+
+    if ("meta".equals(this.style) && !env.getProperty(GriefTaglibProperty.VERSION_PROP_META_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()) {
+      return false;
+    }
+    if ("comment".equals(this.style)
+        && !env.getProperty(GriefTaglibProperty.VERSION_PROP_COMMENT_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()) {
+      return false;
+    }
+    if ("content".equals(this.style)
+        && !env.getProperty(GriefTaglibProperty.VERSION_PROP_CONTENT_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()) {
+      return false;
+    }
+
+    return true;
+  }
+
+  public String getStyle() {
+    return this.style;
+  }
+
+  public void setStyle(final String style) {
+    this.style = style;
+  }
+
+  public String getType() {
+    return this.type;
+  }
+
+  public void setType(final String type) {
+    this.type = type;
+  }
+
+  public String getVersion() {
+    return this.version;
+  }
+
+  public void setVersion(final String version) {
+    this.version = version;
+  }
+
+  public Boolean getRenderingEnabled() {
+    return this.renderingEnabled;
+  }
+
+  /**
+   * @param renderingEnabled
+   *          whether the version is rendered, as decided by the tag; <code>null</code> to check the configuration of the application
+   */
+  public void setRenderingEnabled(final Boolean renderingEnabled) {
+    this.renderingEnabled = renderingEnabled;
+  }
+
+}
@@ -0,0 +1,7 @@
+/**
+ * Framework neutral rendering of the grief markup. The renderers write to any {@link java.lang.Appendable} and may therefore be used by the JSP
+ * tags as well as by other view technologies.
+ *
+ * @author Christoph Wende
+ */
+package de.kodestruktor.grief.taglib.render;
@@ -0,0 +1,96 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.PageContext;
+import javax.servlet.jsp.tagext.JspFragment;
+import javax.servlet.jsp.tagext.SimpleTagSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.support.JspAwareRequestContext;
+import org.springframework.web.servlet.support.RequestContext;
+import org.springframework.web.servlet.tags.RequestContextAwareTag;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+import de.kodestruktor.grief.taglib.util.HtmlCompactor;
+
+/**
+ * Taglib compacting the markup rendered by its body, e.g.:<br>
+ * <br>
+ * <code>&lt;g:compact&gt;&lt;body&gt; ... &lt;/body&gt;&lt;/g:compact&gt;</code><br>
+ * <br>
+ * Insignificant whitespace is collapsed and comments are removed, while the contents of <code>pre</code>, <code>textarea</code>,
+ * <code>script</code> and <code>style</code> elements and conditional comments are left untouched. The body is invoked with the
+ * {@link HtmlCompactor} as its writer, which the container pushes as output of the page, so the markup is compacted to the pages output while it
+ * is rendered, instead of being buffered as a whole. As a simple tag, its body may not contain scriptlets. The number of bytes saved by all compact
+ * tags of the application, counted in UTF-8, is available from {@link #getBytesSaved()} and logged on level debug per page.<br>
+ * <br>
+ * Compacting may be disabled by {@link GriefTaglibProperty#COMPACT_PROP_ENABLED}.
+ *
+ * @author Christoph Wende
+ * @see HtmlCompactor
+ */
+public class Compact extends SimpleTagSupport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Compact.class);
+
+  private static final AtomicLong BYTES_SAVED = new AtomicLong();
+
+  @Override
+  public void doTag() throws JspException, IOException {
+    final JspFragment body = this.getJspBody();
+    if (body == null) {
+      return;
+    }
+
+    final PageContext pageContext = (PageContext) this.getJspContext();
+    final Environment env = getRequestContext(pageContext).getWebApplicationContext().getEnvironment();
+    if (!env.getProperty(GriefTaglibProperty.COMPACT_PROP_ENABLED, Boolean.class, Boolean.TRUE).booleanValue()) {
+      body.invoke(null);
+      return;
+    }
+
+    final RenderTrace trace = RenderTrace.get(pageContext.getRequest(), env);
+    final long start = trace == null ? 0L : System.nanoTime();
+
+    // the container restores the output of the page after the body, even if it fails
+    final HtmlCompactor compactor = new HtmlCompactor(pageContext.getOut());
+    body.invoke(compactor);
+    compactor.close();
+
+    BYTES_SAVED.addAndGet(compactor.getBytesIn() - compactor.getBytesOut());
+    LOG.debug("Compacted [{}] from {} to {} bytes", ((HttpServletRequest) pageContext.getRequest()).getRequestURI(),
+        Long.valueOf(compactor.getBytesIn()), Long.valueOf(compactor.getBytesOut()));
+
+    if (trace != null) {
+      trace.record("compact", start);
+    }
+  }
+
+  /**
+   * Get the request context of the page the way the other grief tags do, so the web application context of the dispatcher servlet is found as
+   * well as the root one.
+   */
+  private static RequestContext getRequestContext(final PageContext pageContext) {
+    RequestContext requestContext = (RequestContext) pageContext.getAttribute(RequestContextAwareTag.REQUEST_CONTEXT_PAGE_ATTRIBUTE);
+    if (requestContext == null) {
+      requestContext = new JspAwareRequestContext(pageContext);
+      pageContext.setAttribute(RequestContextAwareTag.REQUEST_CONTEXT_PAGE_ATTRIBUTE, requestContext);
+    }
+    return requestContext;
+  }
+
+  /**
+   * @return the number of bytes, counted in UTF-8, removed by all compact tags since the application started
+   */
+  public static long getBytesSaved() {
+    return BYTES_SAVED.get();
+  }
+
+}
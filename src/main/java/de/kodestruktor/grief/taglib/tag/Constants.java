@@ -1,19 +1,25 @@
 package de.kodestruktor.grief.taglib.tag;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
-
 import javax.servlet.ServletContext;
 import javax.servlet.jsp.JspException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.tags.RequestContextAwareTag;
 
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+import de.kodestruktor.grief.taglib.util.ConstantsRegistry;
+
 /**
- * Exposes all constants of a given class to the {@link ServletContext} and thus making them usable in JSPs.
+ * Exposes all constants of a given class to the {@link ServletContext} and thus making them usable in JSPs.<br>
+ * <br>
+ * Instead of a class, a <code>package</code> pattern like <code>com.example.model.**</code> may be passed, exposing the constants of all classes
+ * in the matching packages, mapped by class name; e.g. <code>${model['Order.Status'].OPEN}</code>. Constants are collected only once, packages
+ * should rather be configured in {@link GriefTaglibProperty#CONSTANTS_PROP_PACKAGES} to be collected on startup.
  *
  * @author Christoph Wende
  */
@@ -25,34 +31,47 @@ public class Constants extends RequestContextAwareTag {
 
   private String className;
 
+  private String packageName;
+
   private String var;
 
   @Override
   public int doEndTag() throws JspException {
+    final RenderTrace trace = RenderTrace.get(this.pageContext.getRequest(), this.getRequestContext().getWebApplicationContext().getEnvironment());
+    final long start = trace == null ? 0L : System.nanoTime();
 
-    if (StringUtils.isNoneBlank(this.className, this.var)) {
+    if (StringUtils.isNotBlank(this.var) && StringUtils.isNotBlank(this.className)) {
 
       try {
-        final Map<String, Object> constants = new HashMap<>();
-        final Class<?> declaringClass = Class.forName(this.className);
-        final Field[] fields = declaringClass.getFields();
-
-        for (final Field field : fields) {
-          constants.put(field.getName(), field.get(null));
-        }
-
-        this.getRequestContext().getWebApplicationContext().getServletContext().setAttribute(this.var, constants);
+        this.getServletContext().setAttribute(this.var, ConstantsRegistry.getConstants(Class.forName(this.className)));
       } catch (final Exception e) {
         LOG.error("Could not add contstants for class [{}]", this.className);
         throw new JspException("Exception setting constants", e);
       }
 
+    } else if (StringUtils.isNotBlank(this.var) && StringUtils.isNotBlank(this.packageName)) {
+      final WebApplicationContext applicationContext = this.getRequestContext().getWebApplicationContext();
+      final Environment env = applicationContext.getEnvironment();
+      final int threads = env.getProperty(GriefTaglibProperty.INIT_PROP_THREADS, Integer.class,
+          Integer.valueOf(Runtime.getRuntime().availableProcessors())).intValue();
+
+      this.getServletContext().setAttribute(this.var,
+          ConstantsRegistry.getConstants(this.packageName, applicationContext.getClassLoader(), threads));
+
     } else {
-      LOG.error("No class and/or variable name passed; omitting contant tag");
+      LOG.error("No class or package and/or variable name passed; omitting contant tag");
+    }
+
+    if (trace != null) {
+      trace.record("constants", start);
     }
     return super.doEndTag();
   }
 
+  private ServletContext getServletContext() {
+    return this.getRequestContext().getWebApplicationContext().getServletContext();
+  }
+
   @Override
   protected int doStartTagInternal() throws Exception {
     return 0;
@@ -66,6 +85,14 @@ public class Constants extends RequestContextAwareTag {
     this.className = className;
   }
 
+  public String getPackage() {
+    return this.packageName;
+  }
+
+  public void setPackage(final String packageName) {
+    this.packageName = packageName;
+  }
+
   public String getVar() {
     return this.var;
   }
@@ -0,0 +1,128 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.jsp.JspException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.tags.RequestContextAwareTag;
+
+import de.kodestruktor.grief.core.manifest.ManifestReader;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+import de.kodestruktor.grief.taglib.util.EntityTag;
+
+/**
+ * Taglib answering conditional requests for pages, which only depend on deploy-time values and data changing rarely. The tag builds a strong
+ * entity tag from the revision of the application, the locale of the request, the values of the configuration keys in
+ * {@link GriefTaglibProperty#ETAG_PROP_KEYS} and in the <code>keys</code> attribute and the values of all nested <code>validator</code> tags;
+ * e.g.:<br>
+ * <br>
+ * <code>&lt;g:etag keys='shop.currency'&gt;&lt;g:validator value='${product.lastModified}' /&gt;&lt;/g:etag&gt;</code><br>
+ * <br>
+ * If the <code>If-None-Match</code> header of a <code>GET</code> or <code>HEAD</code> request matches, the response is answered with
+ * <code>304 Not Modified</code> and the rest of the page is skipped. Otherwise the entity tag is sent in the <code>ETag</code> header. Thus the tag
+ * has to be placed at the top of the page, before anything has been flushed to the client.
+ *
+ * @author Christoph Wende
+ * @see Validator
+ */
+public class Etag extends RequestContextAwareTag {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Etag.class);
+
+  private static final long serialVersionUID = -4118962773540917236L;
+
+  private String keys;
+
+  private final List<String> validators = new ArrayList<>();
+
+  /**
+   * Add a validator the page depends on; called by nested <code>validator</code> tags.
+   *
+   * @param validator
+   *          the value of the validator
+   */
+  public void addValidator(final String validator) {
+    this.validators.add(validator);
+  }
+
+  @Override
+  protected int doStartTagInternal() throws Exception {
+    this.validators.clear();
+    return EVAL_BODY_INCLUDE;
+  }
+
+  @Override
+  public int doEndTag() throws JspException {
+    final Environment env = this.getRequestContext().getWebApplicationContext().getEnvironment();
+    final RenderTrace trace = RenderTrace.get(this.pageContext.getRequest(), env);
+    final long start = trace == null ? 0L : System.nanoTime();
+
+    final HttpServletRequest request = (HttpServletRequest) this.pageContext.getRequest();
+    final HttpServletResponse response = (HttpServletResponse) this.pageContext.getResponse();
+
+    final EntityTag entityTag = new EntityTag();
+    entityTag.add("revision", ManifestReader.getImplementationVersion(request));
+    entityTag.add("locale", String.valueOf(this.getRequestContext().getLocale()));
+    this.addKeys(entityTag, env, env.getProperty(GriefTaglibProperty.ETAG_PROP_KEYS));
+    this.addKeys(entityTag, env, this.keys);
+    for (final String validator : this.validators) {
+      entityTag.add("validator", validator);
+    }
+    final String value = entityTag.build();
+
+    int result = EVAL_PAGE;
+    if (response.isCommitted()) {
+      LOG.warn("Response for [{}] has already been committed; omitting ETag", request.getRequestURI());
+    } else if (("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))
+        && EntityTag.matches(request.getHeader("If-None-Match"), value)) {
+      try {
+        this.pageContext.getOut().clearBuffer();
+      } catch (final IOException e) {
+        LOG.error("Could not clear buffer", e);
+      }
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      response.setHeader("ETag", value);
+      result = SKIP_PAGE;
+    } else {
+      response.setHeader("ETag", value);
+    }
+
+    if (trace != null) {
+      trace.record("etag", start);
+      // the rest of the page including the trace tag is skipped
+      if (result == SKIP_PAGE) {
+        RendererTag.writeServerTiming(response, trace);
+      }
+    }
+
+    super.doEndTag();
+    return result;
+  }
+
+  private void addKeys(final EntityTag entityTag, final Environment env, final String keyList) {
+    if (StringUtils.isBlank(keyList)) {
+      return;
+    }
+    for (final String key : StringUtils.split(keyList, ", ")) {
+      entityTag.add(key, env.getProperty(key));
+    }
+  }
+
+  public String getKeys() {
+    return this.keys;
+  }
+
+  public void setKeys(final String keys) {
+    this.keys = keys;
+  }
+
+}
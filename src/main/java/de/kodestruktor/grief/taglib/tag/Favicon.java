@@ -1,19 +1,10 @@
 package de.kodestruktor.grief.taglib.tag;
 
-import java.io.IOException;
-import java.util.Map.Entry;
-import java.util.regex.Pattern;
-
-import javax.servlet.jsp.JspException;
-import javax.servlet.jsp.JspWriter;
-
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.web.servlet.tags.RequestContextAwareTag;
 
 import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
-import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.render.FaviconRenderer;
+import de.kodestruktor.grief.taglib.render.Renderer;
 
 /**
  * Taglib to create a revision dependent link/favicon tag.<br>
@@ -35,9 +26,7 @@ import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
  * @author Christoph Wende
  * @see GriefTaglibProperty
  */
-public class Favicon extends RequestContextAwareTag {
-
-  private static final Logger LOG = LoggerFactory.getLogger(Favicon.class);
+public class Favicon extends RendererTag {
 
   private static final long serialVersionUID = 3805265733096516623L;
 
@@ -45,36 +34,12 @@ public class Favicon extends RequestContextAwareTag {
 
   private String staticResource = "false";
 
-  private void init() {
-    this.id = StringUtils.isBlank(this.id) ? "" : this.id;
-  }
-
   @Override
-  @SuppressWarnings("resource")
-  public int doEndTag() throws JspException {
-    this.init();
-    String result = "";
-    String mimeType = GriefTaglibProperty.FAVICON_DEFAULT_MIME_TYPE;
-
-    final String path = ConfigurationUtil.buildImagePath(this.getRequestContext(), this.pageContext, this.uri,
-        StringUtils.equalsIgnoreCase(this.staticResource, "true"));
-
-    for (final Entry<Pattern, String> mimeEntry : GriefTaglibProperty.FAVICON_MIME_TYPES.entrySet()) {
-      if (mimeEntry.getKey().matcher(this.uri).matches()) {
-        mimeType = mimeEntry.getValue();
-        break;
-      }
-    }
-
-    result = String.format(GriefTaglibProperty.RESOURCE_TAG_FAVICON, path, mimeType);
-
-    final JspWriter out = this.pageContext.getOut();
-    try {
-      out.println(result);
-    } catch (final IOException e) {
-      LOG.error("Could not write buffer to out", e);
-    }
-    return super.doEndTag();
+  protected Renderer createRenderer() {
+    final FaviconRenderer renderer = new FaviconRenderer();
+    renderer.setUri(this.uri);
+    renderer.setStaticResource(StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+    return renderer;
   }
 
   public String getUri() {
@@ -93,9 +58,4 @@ public class Favicon extends RequestContextAwareTag {
     this.staticResource = staticResource;
   }
 
-  @Override
-  protected int doStartTagInternal() throws Exception {
-    return 0;
-  }
-
 }
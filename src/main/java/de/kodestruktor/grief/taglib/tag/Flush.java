@@ -0,0 +1,100 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import java.io.IOException;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.JspWriter;
+import javax.servlet.jsp.tagext.BodyContent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.tags.RequestContextAwareTag;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+
+/**
+ * Taglib flushing everything rendered so far to the client, committing the response. Placed right after the <code>&lt;head&gt;</code>, e.g.:<br>
+ * <br>
+ * <code>&lt;/head&gt;&lt;g:flush /&gt;&lt;body&gt;</code><br>
+ * <br>
+ * the browser may start fetching the stylesheets and scripts of the page while the body is still being rendered.<br>
+ * <br>
+ * As a committed response can neither change its status and headers nor be replaced by an error page, the tag does not flush
+ * <ul>
+ * <li>if disabled by {@link GriefTaglibProperty#FLUSH_PROP_ENABLED}</li>
+ * <li>inside the body of another tag, as its content is buffered by the enclosing tag</li>
+ * <li>inside an included page, as an include cannot commit the response of the including page</li>
+ * <li>if the response already has an error status or an error page is being rendered</li>
+ * </ul>
+ * If the response has been committed before, the tag just flushes the buffer. Headers set by grief tags rendered so far are sent along with the
+ * flush; later changes of headers are ignored. Hence the tag writes the <code>Server-Timing</code> header of the trace with the totals so far,
+ * instead of the {@link Trace} tag at the end of the page.
+ *
+ * @author Christoph Wende
+ */
+public class Flush extends RequestContextAwareTag {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Flush.class);
+
+  private static final long serialVersionUID = 5113480906822405173L;
+
+  @Override
+  public int doEndTag() throws JspException {
+    final Environment env = this.getRequestContext().getWebApplicationContext().getEnvironment();
+    final HttpServletRequest request = (HttpServletRequest) this.pageContext.getRequest();
+    final HttpServletResponse response = (HttpServletResponse) this.pageContext.getResponse();
+    final JspWriter out = this.pageContext.getOut();
+
+    if (this.isFlushable(env, request, response, out)) {
+      final RenderTrace trace = RenderTrace.get(request, env);
+      final long start = trace == null ? 0L : System.nanoTime();
+      if (trace != null) {
+        RendererTag.writeServerTiming(response, trace);
+      }
+
+      try {
+        out.flush();
+      } catch (final IOException e) {
+        LOG.debug("Could not flush [{}]: {}", request.getRequestURI(), e.toString());
+      }
+
+      if (trace != null) {
+        trace.record("flush", start);
+      }
+    }
+
+    super.doEndTag();
+    return EVAL_PAGE;
+  }
+
+  private boolean isFlushable(final Environment env, final HttpServletRequest request, final HttpServletResponse response, final JspWriter out) {
+    if (!env.getProperty(GriefTaglibProperty.FLUSH_PROP_ENABLED, Boolean.class, Boolean.TRUE).booleanValue()) {
+      return false;
+    }
+    if (out instanceof BodyContent) {
+      LOG.debug("Not flushing [{}] inside the body of another tag", request.getRequestURI());
+      return false;
+    }
+    if (request.getAttribute(RequestDispatcher.INCLUDE_REQUEST_URI) != null) {
+      LOG.debug("Not flushing [{}] inside an included page", request.getRequestURI());
+      return false;
+    }
+    if (request.getAttribute(RequestDispatcher.ERROR_STATUS_CODE) != null || request.getAttribute(RequestDispatcher.ERROR_EXCEPTION) != null
+        || response.getStatus() >= HttpServletResponse.SC_BAD_REQUEST) {
+      LOG.debug("Not flushing [{}] while rendering an error", request.getRequestURI());
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  protected int doStartTagInternal() throws Exception {
+    return SKIP_BODY;
+  }
+
+}
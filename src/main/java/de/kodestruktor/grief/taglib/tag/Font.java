@@ -0,0 +1,128 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import javax.servlet.jsp.JspException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.FontRenderer;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.render.ResourceHints;
+import de.kodestruktor.grief.taglib.util.FontFaces;
+
+/**
+ * Taglib to preload a revision dependent font and declare its font face.<br>
+ * An input with the <code>family</code> attribute <code>Roboto</code> and the <code>uri</code> attribute <code>roboto.woff2,roboto.woff</code>
+ * would i.e. output <br>
+ * <br>
+ * <code>&lt;link rel="preload" href="/[rootPath]/resources/r[revNo]/fonts/roboto.woff2" as="font" type="font/woff2" crossorigin="anonymous" /&gt;
+ * &lt;style&gt;@font-face{font-family:"Roboto";src:url("/[rootPath]/resources/r[revNo]/fonts/roboto.woff2") format("woff2"),url(...) format("woff");
+ * font-weight:normal;font-style:normal;font-display:swap}&lt;/style&gt;</code><br>
+ * <br>
+ * where the font files are resolved in the directory configured by {@link GriefTaglibProperty#RESOURCE_PROP_FONTDIR}. Only the first, preferred
+ * file is preloaded, once per request; the preload may be disabled by setting the optional attribute <code>preload</code> to <code>false</code>.
+ * The optional attributes <code>weight</code>, <code>style</code> and <code>display</code> are rendered into the font face; the display defaults
+ * to {@link GriefTaglibProperty#FONT_PROP_DISPLAY}. The font face is rendered once per revision and cached afterwards.
+ *
+ * @author Christoph Wende
+ * @see GriefTaglibProperty
+ */
+public class Font extends RendererTag {
+
+  private static final long serialVersionUID = 2469118270519035362L;
+
+  private String family;
+
+  private String uri;
+
+  private String weight;
+
+  private String style;
+
+  private String display;
+
+  private String preload = "true";
+
+  private String staticResource = "false";
+
+  @Override
+  protected Renderer createRenderer() throws JspException {
+    if (StringUtils.isAnyBlank(this.family, this.uri)) {
+      throw new JspException("The font tag requires a family and an uri");
+    }
+    for (final String fontUri : StringUtils.split(this.uri, ", ")) {
+      if (!FontRenderer.isSupported(fontUri)) {
+        throw new JspException("Unknown font format of [" + fontUri + "]");
+      }
+    }
+
+    final FontRenderer renderer = new FontRenderer();
+    renderer.setFamily(this.family);
+    renderer.setUri(this.uri);
+    renderer.setWeight(this.weight);
+    renderer.setStyle(this.style);
+    renderer.setDisplay(this.display);
+    renderer.setPreload(StringUtils.equalsIgnoreCase(this.preload, "true"));
+    renderer.setStaticResource(StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+    renderer.setHints(ResourceHints.get(this.pageContext.getRequest()));
+    renderer.setFaces(FontFaces.get(this.getRequestContext().getWebApplicationContext().getEnvironment()));
+    return renderer;
+  }
+
+  public String getFamily() {
+    return this.family;
+  }
+
+  public void setFamily(final String family) {
+    this.family = family;
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getWeight() {
+    return this.weight;
+  }
+
+  public void setWeight(final String weight) {
+    this.weight = weight;
+  }
+
+  public String getStyle() {
+    return this.style;
+  }
+
+  public void setStyle(final String style) {
+    this.style = style;
+  }
+
+  public String getDisplay() {
+    return this.display;
+  }
+
+  public void setDisplay(final String display) {
+    this.display = display;
+  }
+
+  public String getPreload() {
+    return this.preload;
+  }
+
+  public void setPreload(final String preload) {
+    this.preload = preload;
+  }
+
+  public String getStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final String staticResource) {
+    this.staticResource = staticResource;
+  }
+
+}
@@ -0,0 +1,97 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.tags.RequestContextAwareTag;
+
+import de.kodestruktor.grief.taglib.filter.EsiFilter;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+import de.kodestruktor.grief.taglib.util.MarkupUtil;
+
+/**
+ * Taglib wrapping a section of a page, which may be cached separately by an edge cache supporting Edge Side Includes, e.g. Varnish. The
+ * <code>src</code> attribute points to the fragment endpoint of the application rendering just that section, e.g.:<br>
+ * <br>
+ * <code>&lt;g:fragment src='/fragments/header'&gt;&lt;jsp:include page='/WEB-INF/jsp/fragments/header.jsp' /&gt;&lt;/g:fragment&gt;</code><br>
+ * <br>
+ * If {@link GriefTaglibProperty#ESI_PROP_ENABLED} is set and the request passed an ESI capable surrogate, announced by a
+ * <code>Surrogate-Capability</code> header containing <code>ESI/1.0</code> or by the {@link EsiFilter}, the body is skipped and an
+ * <code>&lt;esi:include&gt;</code> reference is rendered instead, so the edge cache may keep the page and its fragments for different times.
+ * Otherwise the body is rendered inline. The reference is announced to the surrogate by a <code>Surrogate-Control</code> header, which is not passed
+ * on by the {@link EsiFilter}.
+ *
+ * @author Christoph Wende
+ * @see EsiFilter
+ */
+public class Fragment extends RequestContextAwareTag {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Fragment.class);
+
+  private static final long serialVersionUID = -1797305834116519254L;
+
+  private String src;
+
+  @Override
+  protected int doStartTagInternal() throws Exception {
+    final Environment env = this.getRequestContext().getWebApplicationContext().getEnvironment();
+    final HttpServletRequest request = (HttpServletRequest) this.pageContext.getRequest();
+
+    if (!isEsiEnabled(request, env)) {
+      return EVAL_BODY_INCLUDE;
+    }
+
+    final RenderTrace trace = RenderTrace.get(request, env);
+    final long start = trace == null ? 0L : System.nanoTime();
+
+    final String path = this.src.startsWith("/") ? request.getContextPath() + this.src : this.src;
+    try {
+      MarkupUtil.format(this.pageContext.getOut(), GriefTaglibProperty.RESOURCE_TAG_ESI_INCLUDE, MarkupUtil.escapeAttribute(path));
+    } catch (final IOException e) {
+      LOG.error("Could not write buffer to out", e);
+    }
+
+    // tells the surrogate to process the includes of the page; the esi filter removes it again
+    final HttpServletResponse response = (HttpServletResponse) this.pageContext.getResponse();
+    if (!response.isCommitted()) {
+      response.setHeader("Surrogate-Control", "content=\"ESI/1.0\"");
+    }
+
+    if (trace != null) {
+      trace.record("fragment", start);
+    }
+    return SKIP_BODY;
+  }
+
+  /**
+   * Check whether fragments should be rendered as ESI references for the given request.
+   *
+   * @param request
+   *          the current request
+   * @param env
+   *          the applications {@link Environment}
+   * @return <code>true</code> if ESI is enabled and the request passed an ESI capable surrogate
+   */
+  public static boolean isEsiEnabled(final HttpServletRequest request, final Environment env) {
+    if (!env.getProperty(GriefTaglibProperty.ESI_PROP_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()) {
+      return false;
+    }
+    return request.getAttribute(EsiFilter.REQUEST_ATTRIBUTE) != null || StringUtils.contains(request.getHeader("Surrogate-Capability"), "ESI/1.0");
+  }
+
+  public String getSrc() {
+    return this.src;
+  }
+
+  public void setSrc(final String src) {
+    this.src = src;
+  }
+
+}
@@ -0,0 +1,151 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import javax.servlet.jsp.JspException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.HintRenderer;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.render.ResourceHints;
+
+/**
+ * Taglib to create a resource hint like <code>preconnect</code>, <code>dns-prefetch</code>, <code>preload</code> or <code>modulepreload</code>.
+ * <br>
+ * A third party host is hinted by its <code>href</code>, e.g. <br>
+ * <br>
+ * <code>&lt;link rel="preconnect" href="https://cdn.example.com" crossorigin /&gt;</code><br>
+ * <br>
+ * while a grief resource is hinted by its <code>uri</code> and <code>resourceType</code>. An input with the <code>rel</code> attribute
+ * <code>preload</code>, the <code>uri</code> attribute <code>script.js</code> and the <code>resourceType</code> attribute <code>script</code>
+ * would i.e. output <br>
+ * <br>
+ * <code>&lt;link rel="preload" href="/[rootPath]/resources/r[revNo]/behavior/script.js" as="script" /&gt;</code><br>
+ * <br>
+ * Every hint is rendered only once per request. Hints have to be placed ahead of the stylesheets, so the browser knows them before the
+ * stylesheets block rendering; a hint tag following a <code>style</code> tag of the same request is logged as misplaced, but still rendered.
+ * Hints registered in the {@link ResourceHints} of the request, e.g. by a controller, are rendered by the next <code>style</code> tag.
+ *
+ * @author Christoph Wende
+ * @see GriefTaglibProperty
+ */
+public class Hint extends RendererTag {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Hint.class);
+
+  private static final long serialVersionUID = -3630166185398113795L;
+
+  private String rel;
+
+  private String href;
+
+  private String uri;
+
+  private String resourceType;
+
+  private String staticResource = "false";
+
+  private String as;
+
+  private String type;
+
+  private String crossorigin;
+
+  @Override
+  protected Renderer createRenderer() throws JspException {
+    if (StringUtils.isBlank(this.rel) || (StringUtils.isBlank(this.href) && StringUtils.isBlank(this.uri))) {
+      throw new JspException("A hint needs a rel and either a href or an uri");
+    }
+
+    final String hintedType = StringUtils.defaultIfBlank(this.resourceType, GriefTaglibProperty.RESOURCE_TYPE_SCRIPT);
+    if (StringUtils.isNotBlank(this.uri) && !GriefTaglibProperty.RESOURCE_TYPES.contains(hintedType)) {
+      throw new JspException("Unknown resource type [" + hintedType + "] of hint [" + this.uri + "]; use one of "
+          + GriefTaglibProperty.RESOURCE_TYPES);
+    }
+
+    final ResourceHints hints = ResourceHints.get(this.pageContext.getRequest());
+    if (hints.isStylesheetRendered()) {
+      // a hint is only an optimization, so a misplaced one must not fail the page
+      LOG.warn("The hint [{}] has to be placed ahead of the stylesheets to take effect", StringUtils.defaultIfBlank(this.uri, this.href));
+    }
+
+    final HintRenderer renderer = new HintRenderer();
+    renderer.setRel(this.rel);
+    renderer.setHref(this.href);
+    renderer.setUri(this.uri);
+    renderer.setResourceType(hintedType);
+    renderer.setStaticResource(StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+    renderer.setAs(this.as);
+    renderer.setType(this.type);
+    renderer.setCrossorigin(this.crossorigin);
+    renderer.setHints(hints);
+    return renderer;
+  }
+
+  public String getRel() {
+    return this.rel;
+  }
+
+  public void setRel(final String rel) {
+    this.rel = rel;
+  }
+
+  public String getHref() {
+    return this.href;
+  }
+
+  public void setHref(final String href) {
+    this.href = href;
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getResourceType() {
+    return this.resourceType;
+  }
+
+  public void setResourceType(final String resourceType) {
+    this.resourceType = resourceType;
+  }
+
+  public String getStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final String staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public String getAs() {
+    return this.as;
+  }
+
+  public void setAs(final String as) {
+    this.as = as;
+  }
+
+  public String getType() {
+    return this.type;
+  }
+
+  public void setType(final String type) {
+    this.type = type;
+  }
+
+  public String getCrossorigin() {
+    return this.crossorigin;
+  }
+
+  public void setCrossorigin(final String crossorigin) {
+    this.crossorigin = crossorigin;
+  }
+
+}
@@ -0,0 +1,99 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.context.WebApplicationContext;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.IconRenderer;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.util.ImageDimensions;
+import de.kodestruktor.grief.taglib.util.SpriteSheet;
+
+/**
+ * Taglib to render an icon from the sprite sheet.<br>
+ * An input with the <code>uri</code> attribute <code>icons/add.png</code> would i.e. output <br>
+ * <br>
+ * <code>&lt;i class='g-icon g-icon-icons-add [cssClass]' title='[title]' id='[id]' role='img' aria-label='[alt]'&gt;&lt;/i&gt;</code><br>
+ * <br>
+ * where the <code>uri</code> is relative to the image directory and the CSS classes are defined in the stylesheet generated along with the
+ * sprite sheet, see {@link GriefTaglibProperty#SPRITE_PROP_DIR}. It has to be included in the page, e.g. by
+ * <code>&lt;g:style uri='grief-sprite.css' /&gt;</code>.<br>
+ * <br>
+ * The attributes <code>alt</code>, <code>title</code>, <code>cssClass</code> and <code>id</code> are optional. If the icon is not part of the sprite
+ * sheet, or the optional attribute <code>staticResource</code> is set to <code>true</code>, it is rendered like {@link Image}.
+ *
+ * @author Christoph Wende
+ * @see GriefTaglibProperty
+ * @see SpriteSheet
+ */
+public class Icon extends RendererTag {
+
+  private static final long serialVersionUID = -6021475370823649731L;
+
+  private String uri;
+
+  private String cssClass;
+
+  private String alt;
+
+  private String title;
+
+  private String staticResource = "false";
+
+  @Override
+  protected Renderer createRenderer() {
+    final WebApplicationContext applicationContext = this.getRequestContext().getWebApplicationContext();
+
+    final IconRenderer renderer = new IconRenderer();
+    renderer.setUri(this.uri);
+    renderer.setAlt(this.alt);
+    renderer.setTitle(this.title);
+    renderer.setCssClass(this.cssClass);
+    renderer.setId(this.id);
+    renderer.setStaticResource(StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+    renderer.setSpriteSheet(SpriteSheet.get(applicationContext.getEnvironment()));
+    renderer.setDimensions(ImageDimensions.get(applicationContext));
+    return renderer;
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getCssClass() {
+    return this.cssClass;
+  }
+
+  public void setCssClass(final String cssClass) {
+    this.cssClass = cssClass;
+  }
+
+  public String getAlt() {
+    return this.alt;
+  }
+
+  public void setAlt(final String alt) {
+    this.alt = alt;
+  }
+
+  public String getTitle() {
+    return this.title;
+  }
+
+  public void setTitle(final String title) {
+    this.title = title;
+  }
+
+  public String getStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final String staticResource) {
+    this.staticResource = staticResource;
+  }
+
+}
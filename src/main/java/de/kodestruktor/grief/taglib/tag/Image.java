@@ -1,17 +1,12 @@
 package de.kodestruktor.grief.taglib.tag;
 
-import java.io.IOException;
-
-import javax.servlet.jsp.JspException;
-import javax.servlet.jsp.JspWriter;
-
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.web.servlet.tags.RequestContextAwareTag;
 
 import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
-import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.render.ImageLoading;
+import de.kodestruktor.grief.taglib.render.ImageRenderer;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.util.ImageDimensions;
 
 /**
  * Taglib to create a revision dependent image tag.<br>
@@ -27,14 +22,21 @@ import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
  * <br>
  * <code>&lt;img src='/[rootPath]/resources/static/images/image.jpg' alt='[alt]' title='[title]' class='[cssClass]' id='[id]' /&gt;</code><br>
  * <br>
+ * The optional attributes <code>width</code> and <code>height</code> are rendered as given. If
+ * {@link GriefTaglibProperty#IMAGE_PROP_DIMENSIONS_ENABLED} is set, missing dimensions are filled in from the image header, so the browser can
+ * reserve the space of the image before it has been loaded.<br>
+ * <br>
+ * If {@link GriefTaglibProperty#IMAGE_PROP_EAGER_COUNT} is set, the first images of a request are rendered with <code>fetchpriority="high"</code>
+ * and all later ones with <code>loading="lazy"</code> and <code>decoding="async"</code>. The optional attribute <code>loading</code> overrides the
+ * policy with <code>eager</code> or <code>lazy</code>, which is rendered as given and does not count towards the first images of the request;
+ * <code>fetchPriority</code> and <code>decoding</code> are rendered as given.<br>
+ * <br>
  * Also see {@link GriefTaglibProperty} for configuration options to manipulate the resource directories.
  *
  * @author Christoph Wende
  * @see GriefTaglibProperty
  */
-public class Image extends RequestContextAwareTag {
-
-  private static final Logger LOG = LoggerFactory.getLogger(Image.class);
+public class Image extends RendererTag {
 
   private static final long serialVersionUID = 3805265733096516623L;
 
@@ -48,34 +50,33 @@ public class Image extends RequestContextAwareTag {
 
   private String staticResource = "false";
 
-  /**
-   * Initialize the tag with properties from base application.
-   */
-  private void init() {
-    this.id = StringUtils.isBlank(this.id) ? "" : this.id;
-    this.alt = StringUtils.isBlank(this.alt) ? "" : this.alt;
-    this.title = StringUtils.isBlank(this.title) ? "" : this.title;
-    this.cssClass = StringUtils.isBlank(this.cssClass) ? "" : this.cssClass;
-  }
+  private String width;
 
-  @Override
-  @SuppressWarnings("resource")
-  public int doEndTag() throws JspException {
-    this.init();
-    String result = "";
+  private String height;
 
-    final String path = ConfigurationUtil.buildImagePath(this.getRequestContext(), this.pageContext, this.uri,
-        StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+  private String loading;
 
-    result = String.format(GriefTaglibProperty.RESOURCE_TAG_IMAGE, path, this.alt, this.title, this.cssClass, this.id);
+  private String fetchPriority;
 
-    final JspWriter out = this.pageContext.getOut();
-    try {
-      out.println(result);
-    } catch (final IOException e) {
-      LOG.error("Could not write buffer to out", e);
-    }
-    return super.doEndTag();
+  private String decoding;
+
+  @Override
+  protected Renderer createRenderer() {
+    final ImageRenderer renderer = new ImageRenderer();
+    renderer.setUri(this.uri);
+    renderer.setAlt(this.alt);
+    renderer.setTitle(this.title);
+    renderer.setCssClass(this.cssClass);
+    renderer.setId(this.id);
+    renderer.setStaticResource(StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+    renderer.setWidth(this.width);
+    renderer.setHeight(this.height);
+    renderer.setDimensions(ImageDimensions.get(this.getRequestContext().getWebApplicationContext()));
+    renderer.setLoading(this.loading);
+    renderer.setFetchPriority(this.fetchPriority);
+    renderer.setDecoding(this.decoding);
+    renderer.setLoadingPolicy(ImageLoading.get(this.pageContext.getRequest(), this.getRequestContext().getWebApplicationContext().getEnvironment()));
+    return renderer;
   }
 
   public String getUri() {
@@ -118,9 +119,44 @@ public class Image extends RequestContextAwareTag {
     this.staticResource = staticResource;
   }
 
-  @Override
-  protected int doStartTagInternal() throws Exception {
-    return 0;
+  public String getWidth() {
+    return this.width;
+  }
+
+  public void setWidth(final String width) {
+    this.width = width;
+  }
+
+  public String getHeight() {
+    return this.height;
+  }
+
+  public void setHeight(final String height) {
+    this.height = height;
+  }
+
+  public String getLoading() {
+    return this.loading;
+  }
+
+  public void setLoading(final String loading) {
+    this.loading = loading;
+  }
+
+  public String getFetchPriority() {
+    return this.fetchPriority;
+  }
+
+  public void setFetchPriority(final String fetchPriority) {
+    this.fetchPriority = fetchPriority;
+  }
+
+  public String getDecoding() {
+    return this.decoding;
+  }
+
+  public void setDecoding(final String decoding) {
+    this.decoding = decoding;
   }
 
 }
@@ -0,0 +1,74 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.context.WebApplicationContext;
+
+import de.kodestruktor.grief.core.manifest.ManifestReader;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.ImportMapRenderer;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.render.ResourceHints;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.ModuleImportMap;
+import de.kodestruktor.grief.taglib.util.ScriptDependencyGraph;
+
+/**
+ * Taglib to render the import map of the applications ES modules, configured by the module descriptor
+ * {@link GriefTaglibProperty#IMPORTMAP_PROP_DESCRIPTOR}.<br>
+ * A descriptor mapping <code>lit</code> to <code>vendor/lit.js</code> would i.e. output <br>
+ * <br>
+ * <code>&lt;script type="importmap"&gt;{"imports":{"lit":"/[rootPath]/resources/r[revNo]/behavior/vendor/lit.js"}}&lt;/script&gt;</code><br>
+ * <br>
+ * The tag has to be placed ahead of all module scripts. If the optional attribute <code>entry</code> names a module, either by its specifier or
+ * by its script, its static dependencies known from the script dependency descriptor are preloaded by <code>modulepreload</code> hints, so the
+ * browser fetches them in parallel instead of discovering them import by import. The preloads may be disabled by setting the optional attribute
+ * <code>preload</code> to <code>false</code>. The import map is built once per revision and cached afterwards.
+ *
+ * @author Christoph Wende
+ * @see ModuleImportMap
+ * @see ScriptDependencyGraph
+ */
+public class Importmap extends RendererTag {
+
+  private static final long serialVersionUID = -2093184623357491056L;
+
+  private String entry;
+
+  private String preload = "true";
+
+  @Override
+  protected Renderer createRenderer() {
+    final WebApplicationContext applicationContext = this.getRequestContext().getWebApplicationContext();
+
+    final ImportMapRenderer renderer = new ImportMapRenderer();
+    renderer.setImportMap(ModuleImportMap.get(applicationContext,
+        ManifestReader.getImplementationVersion((HttpServletRequest) this.pageContext.getRequest())));
+
+    if (StringUtils.isNotBlank(this.entry) && StringUtils.equalsIgnoreCase(this.preload, "true")) {
+      renderer.setEntry(this.entry.trim());
+      renderer.setGraph(ScriptDependencyGraph.get(applicationContext));
+      renderer.setHints(ResourceHints.get(this.pageContext.getRequest()));
+      renderer.setMinified(MinifiedResources.get(applicationContext.getEnvironment()));
+    }
+    return renderer;
+  }
+
+  public String getEntry() {
+    return this.entry;
+  }
+
+  public void setEntry(final String entry) {
+    this.entry = entry;
+  }
+
+  public String getPreload() {
+    return this.preload;
+  }
+
+  public void setPreload(final String preload) {
+    this.preload = preload;
+  }
+
+}
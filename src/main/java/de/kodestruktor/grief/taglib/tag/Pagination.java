@@ -1,19 +1,14 @@
 package de.kodestruktor.grief.taglib.tag;
 
-import java.io.IOException;
-
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.jsp.JspException;
-import javax.servlet.jsp.JspWriter;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.web.servlet.support.RequestContextUtils;
-import org.springframework.web.servlet.tags.RequestContextAwareTag;
 
 import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.PaginationRenderer;
+import de.kodestruktor.grief.taglib.render.Renderer;
 
 /**
  * Taglib which creates a ul/li pagination with the help of a given {@link Page} object. The pagination has a previous/next link and a list of all
@@ -27,15 +22,17 @@ import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
  * </ul>
  * Per default the ul-element has the class "pagination", an additional class and/or an id can be added in the tag-lib parameters "cssClass" and "id".
  * The li-element representing the current page gets the class "active", the li-elements for the prev/next buttons get the classes "prev" and "next".
+ * <br>
+ * The optional attribute "hint" lets the browser fetch the adjacent pages in advance: 'prefetch' renders a prefetch link for the next page,
+ * 'adjacent' renders prev/next links and 'all' renders both. If "hintHeader" is set to 'true', the hints are sent as <code>Link</code> header
+ * instead, as long as the response has not been committed yet.
  *
  * @param <T>
  *          type which is delivered by page (e.g. User objects)
  * @author Christoph Wende
  */
 
-public class Pagination<T> extends RequestContextAwareTag {
-
-  private static final Logger LOG = LoggerFactory.getLogger(Pagination.class);
+public class Pagination<T> extends RendererTag {
 
   private static final long serialVersionUID = -6808629135782081070L;
 
@@ -53,73 +50,36 @@ public class Pagination<T> extends RequestContextAwareTag {
 
   private String pageNumberParam = GriefTaglibProperty.PAGINATION_PAGE_NUMBER_PARAMETER;
 
-  @SuppressWarnings("resource")
-  @Override
-  public int doEndTag() throws JspException {
-    final JspWriter out = this.pageContext.getOut();
-    final StringBuffer buffer = new StringBuffer();
-    final Page<T> currentPage = this.getPage();
-
-    final String finalUri = this.uri.contains("?") ? this.uri.endsWith("&") ? this.uri : this.uri + "&"
-        : this.uri + "?" + this.pageSizeParam + "=" + currentPage.getSize() + "&";
-
-    // getting label translation
-    final String prev = this.getRequestContext().getWebApplicationContext().getMessage(this.getPrevCode(), null,
-        RequestContextUtils.getLocale((HttpServletRequest) this.pageContext.getRequest()));
-    final String next = this.getRequestContext().getWebApplicationContext().getMessage(this.getNextCode(), null,
-        RequestContextUtils.getLocale((HttpServletRequest) this.pageContext.getRequest()));
-
-    buffer.append("<ul class='");
-
-    // set additional css class if given
-    if (StringUtils.isNotBlank(this.getCssClass())) {
-      buffer.append(this.getCssClass());
-    }
-
-    buffer.append("'");
-
-    // set id if given
-    if (StringUtils.isNotBlank(this.getId())) {
-      buffer.append(" id='").append(this.getId()).append("'");
-    }
-
-    buffer.append(">");
-
-    // create link for previous page
-    if (currentPage.hasPrevious()) {
-      buffer.append("<li class='prev'><a href='").append(finalUri).append(this.pageNumberParam).append("=").append(currentPage.getNumber() - 1)
-          .append("'>").append(prev).append("</a></li>");
-    }
+  private String hint;
 
-    // create list of all pages
-    if (currentPage.getTotalPages() > 0) {
-      for (int i = 0; i < currentPage.getTotalPages(); i++) {
-        buffer.append("<li");
+  private String hintHeader = "false";
 
-        // set active class if we are on the current page
-        if (currentPage.getNumber() == i) {
-          buffer.append(" class='active'");
+  @Override
+  protected Renderer createRenderer() {
+    final PaginationRenderer renderer = new PaginationRenderer();
+    renderer.setPage(this.getPage());
+    renderer.setUri(this.uri);
+    renderer.setPrevCode(this.getPrevCode());
+    renderer.setNextCode(this.getNextCode());
+    renderer.setCssClass(this.getCssClass());
+    renderer.setId(this.getId());
+    renderer.setPageSizeParam(this.pageSizeParam);
+    renderer.setPageNumberParam(this.pageNumberParam);
+    renderer.setHint(this.hint);
+
+    // prefer sending the hints as header, as long as the headers have not been sent yet
+    if (StringUtils.equalsIgnoreCase(this.hintHeader, "true")) {
+      final ServletResponse response = this.pageContext.getResponse();
+
+      if (response instanceof HttpServletResponse && !response.isCommitted()) {
+        final String linkHeader = renderer.buildLinkHeader();
+        if (StringUtils.isNotEmpty(linkHeader)) {
+          ((HttpServletResponse) response).addHeader("Link", linkHeader);
         }
-
-        buffer.append("><a href='").append(finalUri).append(this.pageNumberParam).append("=").append(i).append("'>").append(i + 1)
-            .append("</a></li>");
+        renderer.setHintMarkup(false);
       }
     }
-
-    // create link for next page
-    if (currentPage.hasNext()) {
-      buffer.append("<li class='next'><a href='").append(finalUri).append(this.pageNumberParam).append("=").append(currentPage.getNumber() + 1)
-          .append("'>").append(next).append("</a></li>");
-    }
-
-    buffer.append("</ul>");
-
-    try {
-      out.println(buffer.toString());
-    } catch (final IOException e) {
-      LOG.error("Could not write buffer to out", e);
-    }
-    return super.doEndTag();
+    return renderer;
   }
 
   public void setPage(final Page<T> page) {
@@ -178,9 +138,20 @@ public class Pagination<T> extends RequestContextAwareTag {
     this.pageNumberParam = pageNumberParam;
   }
 
-  @Override
-  protected int doStartTagInternal() throws Exception {
-    return 0;
+  public String getHint() {
+    return this.hint;
+  }
+
+  public void setHint(final String hint) {
+    this.hint = hint;
+  }
+
+  public String getHintHeader() {
+    return this.hintHeader;
+  }
+
+  public void setHintHeader(final String hintHeader) {
+    this.hintHeader = hintHeader;
   }
 
 }
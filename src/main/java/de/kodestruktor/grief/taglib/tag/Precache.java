@@ -0,0 +1,35 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import javax.servlet.http.HttpServletRequest;
+
+import de.kodestruktor.grief.core.manifest.ManifestReader;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.PrecacheRenderer;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.util.PrecacheManifest;
+
+/**
+ * Taglib to serve the precache manifest of a service worker, listing all versioned images, favicons, scripts and stylesheets with the hashes of
+ * their contents. The manifest is usually served by a page of its own, e.g.:<br>
+ * <br>
+ * <code>&lt;%@ page contentType="application/json" %&gt;&lt;g:precache /&gt;</code><br>
+ * <br>
+ * which the service worker fetches to precache the listed resources. The manifest is built once per revision; resources may be excluded with
+ * {@link GriefTaglibProperty#PRECACHE_PROP_EXCLUDE}.
+ *
+ * @author Christoph Wende
+ * @see PrecacheManifest
+ */
+public class Precache extends RendererTag {
+
+  private static final long serialVersionUID = -6271853092364715042L;
+
+  @Override
+  protected Renderer createRenderer() {
+    final PrecacheRenderer renderer = new PrecacheRenderer();
+    renderer.setManifest(PrecacheManifest.get(this.pageContext.getServletContext(), this.getRequestContext().getWebApplicationContext()
+        .getEnvironment(), ManifestReader.getImplementationVersion((HttpServletRequest) this.pageContext.getRequest())));
+    return renderer;
+  }
+
+}
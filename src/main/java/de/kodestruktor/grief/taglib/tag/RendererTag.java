@@ -0,0 +1,156 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.JspWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.ui.context.Theme;
+import org.springframework.web.servlet.support.RequestContext;
+import org.springframework.web.servlet.tags.RequestContextAwareTag;
+
+import de.kodestruktor.grief.core.manifest.ManifestReader;
+import de.kodestruktor.grief.taglib.render.RenderContext;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.util.ThemeIndex;
+
+/**
+ * Base class of all tags rendering markup. The tags are thin adapters, passing their attributes to a {@link Renderer} which writes the markup to
+ * the pages output. If tracing is enabled, the time spent in the tag is recorded in the {@link RenderTrace} of the request.
+ *
+ * @author Christoph Wende
+ */
+public abstract class RendererTag extends RequestContextAwareTag {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RendererTag.class);
+
+  private static final long serialVersionUID = -2914385730722640381L;
+
+  /**
+   * Render the markup of the tag. Resource warnings are supressed on purpose, as leaving the page contexts output stream open is neccessary to
+   * render the whole page.
+   */
+  @Override
+  @SuppressWarnings("resource")
+  public int doEndTag() throws JspException {
+    final RenderTrace trace = RenderTrace.get(this.pageContext.getRequest(), this.getRequestContext().getWebApplicationContext().getEnvironment());
+    final long start = trace == null ? 0L : System.nanoTime();
+
+    final Renderer renderer = this.createRenderer();
+
+    final JspWriter out = this.pageContext.getOut();
+    try {
+      final TrackingAppendable tracking = new TrackingAppendable(out);
+      renderer.render(this.createRenderContext(trace), tracking);
+      // a renderer writing nothing, e.g. a disabled one, leaves no empty line behind
+      if (tracking.written) {
+        out.println();
+      }
+    } catch (final IOException e) {
+      LOG.error("Could not write buffer to out", e);
+    }
+
+    if (trace != null) {
+      trace.record(this.getClass().getSimpleName().toLowerCase(Locale.ROOT), start);
+    }
+    return super.doEndTag();
+  }
+
+  /**
+   * Create the renderer, configured with the attributes of this tag.
+   *
+   * @return the renderer
+   * @throws JspException
+   *           in case the attributes of the tag are invalid
+   */
+  protected abstract Renderer createRenderer() throws JspException;
+
+  /**
+   * Create the render context for the current request.
+   *
+   * @param trace
+   *          the trace of the current request; <code>null</code> if tracing is disabled
+   * @return the render context
+   */
+  protected RenderContext createRenderContext(final RenderTrace trace) {
+    final RequestContext requestContext = this.getRequestContext();
+
+    final long start = trace == null ? 0L : System.nanoTime();
+    final String revision = ManifestReader.getImplementationVersion((HttpServletRequest) this.pageContext.getRequest());
+    if (trace != null) {
+      trace.record(RenderTrace.METRIC_MANIFEST, start);
+    }
+
+    final Environment env = requestContext.getWebApplicationContext().getEnvironment();
+    final ThemeIndex themeIndex = ThemeIndex.get(this.pageContext.getServletContext(), env, revision);
+    final Theme theme = themeIndex == null ? null : requestContext.getTheme();
+
+    return new RenderContext(env, requestContext.getWebApplicationContext(), requestContext.getLocale(), revision, trace,
+        theme == null ? null : theme.getName(), themeIndex);
+  }
+
+  /**
+   * Expose the current totals of the trace as <code>Server-Timing</code> header, as long as the response has not been committed yet. The header is
+   * written once per request, by the tag committing the response or ending the page: the {@link Flush} tag, the {@link Etag} tag answering a
+   * conditional request or the {@link Trace} tag.
+   *
+   * @param response
+   *          the current response
+   * @param trace
+   *          the trace of the current request
+   */
+  static void writeServerTiming(final ServletResponse response, final RenderTrace trace) {
+    if (response instanceof HttpServletResponse && !response.isCommitted()) {
+      ((HttpServletResponse) response).setHeader("Server-Timing", trace.toServerTiming());
+    }
+  }
+
+  @Override
+  protected int doStartTagInternal() throws Exception {
+    return 0;
+  }
+
+  /**
+   * Passes the markup through to the pages output, remembering whether anything has been written at all.
+   */
+  private static final class TrackingAppendable implements Appendable {
+
+    private final Appendable target;
+
+    private boolean written;
+
+    TrackingAppendable(final Appendable target) {
+      this.target = target;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+      this.written |= csq == null || csq.length() > 0;
+      this.target.append(csq);
+      return this;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+      this.written |= csq == null || end > start;
+      this.target.append(csq, start, end);
+      return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+      this.written = true;
+      this.target.append(c);
+      return this;
+    }
+  }
+
+}
@@ -1,17 +1,12 @@
 package de.kodestruktor.grief.taglib.tag;
 
-import java.io.IOException;
-
-import javax.servlet.jsp.JspException;
-import javax.servlet.jsp.JspWriter;
-
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.web.servlet.tags.RequestContextAwareTag;
 
-import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
-import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.render.RenderedScripts;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.render.ScriptRenderer;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.ScriptDependencyGraph;
 
 /**
  * Taglib to create a revision dependent script tag.<br>
@@ -20,13 +15,15 @@ import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
  * <code>&lt;script type='text/javascript' src='/[rootPath]/resources/r[revNo]/behavior/script.js' id='[id]'&gt;&lt;/script&gt;</code><br>
  * <br>
  * where <code>[rootPath]</code> would be the root path of the application, configured in the base application and <code>[revNo]</code> would be the
- * current SVN revision number. An <code>id</code> attribute can be passed optionally.
+ * current SVN revision number. An <code>id</code> attribute can be passed optionally.<br>
+ * <br>
+ * Scripts may be loaded <code>async</code>, <code>defer</code>red or as <code>module</code>. If a script dependency descriptor is configured, the
+ * dependencies of the script not rendered yet in the current request are rendered ahead of it in execution order, so deferred scripts and
+ * modules may be downloaded in parallel without breaking the order of execution.
  *
  * @author Christoph Wende
  */
-public class Script extends RequestContextAwareTag {
-
-  private static final Logger LOG = LoggerFactory.getLogger(Script.class);
+public class Script extends RendererTag {
 
   private static final long serialVersionUID = 3805265733096516623L;
 
@@ -34,35 +31,29 @@ public class Script extends RequestContextAwareTag {
 
   private String async = "false";
 
-  private String staticResource = "false";
+  private String defer = "false";
 
-  /**
-   * Initialize the tag with properties from base application.
-   */
-  private void init() {
-    this.id = StringUtils.isBlank(this.id) ? "" : this.id;
-  }
+  private String module = "false";
+
+  private String staticResource = "false";
 
   @Override
-  @SuppressWarnings("resource")
-  public int doEndTag() throws JspException {
-    this.init();
-    String result = "";
-
-    final String path = ConfigurationUtil.buildScriptPath(this.getRequestContext(), this.pageContext, this.uri,
-        StringUtils.equalsIgnoreCase(this.staticResource, "true"));
-
-    result = String.format(
-        StringUtils.equalsIgnoreCase(this.async, "true") ? GriefTaglibProperty.RESOURCE_TAG_SCRIPT_ASYNC : GriefTaglibProperty.RESOURCE_TAG_SCRIPT,
-        path, this.id);
-
-    final JspWriter out = this.pageContext.getOut();
-    try {
-      out.println(result);
-    } catch (final IOException e) {
-      LOG.error("Could not write buffer to out", e);
+  protected Renderer createRenderer() {
+    final ScriptRenderer renderer = new ScriptRenderer();
+    renderer.setUri(this.uri);
+    renderer.setId(this.id);
+    renderer.setAsync(StringUtils.equalsIgnoreCase(this.async, "true"));
+    renderer.setDefer(StringUtils.equalsIgnoreCase(this.defer, "true"));
+    renderer.setModule(StringUtils.equalsIgnoreCase(this.module, "true"));
+    renderer.setStaticResource(StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+    renderer.setMinified(MinifiedResources.get(this.getRequestContext().getWebApplicationContext().getEnvironment()));
+
+    final ScriptDependencyGraph graph = ScriptDependencyGraph.get(this.getRequestContext().getWebApplicationContext());
+    if (!graph.isEmpty()) {
+      renderer.setDependencies(graph.getDependencies(this.uri));
+      renderer.setRenderedScripts(RenderedScripts.get(this.pageContext.getRequest()));
     }
-    return super.doEndTag();
+    return renderer;
   }
 
   public String getUri() {
@@ -81,6 +72,22 @@ public class Script extends RequestContextAwareTag {
     this.async = async;
   }
 
+  public String getDefer() {
+    return this.defer;
+  }
+
+  public void setDefer(final String defer) {
+    this.defer = defer;
+  }
+
+  public String getModule() {
+    return this.module;
+  }
+
+  public void setModule(final String module) {
+    this.module = module;
+  }
+
   public String getStaticResource() {
     return this.staticResource;
   }
@@ -89,9 +96,4 @@ public class Script extends RequestContextAwareTag {
     this.staticResource = staticResource;
   }
 
-  @Override
-  protected int doStartTagInternal() throws Exception {
-    return 0;
-  }
-
 }
@@ -1,17 +1,13 @@
 package de.kodestruktor.grief.taglib.tag;
 
-import java.io.IOException;
-
-import javax.servlet.jsp.JspException;
-import javax.servlet.jsp.JspWriter;
-
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.web.servlet.tags.RequestContextAwareTag;
+import org.springframework.core.env.Environment;
 
-import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
-import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.render.ResourceHints;
+import de.kodestruktor.grief.taglib.render.StyleRenderer;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.RewrittenStylesheets;
 
 /**
  * Taglib to create a revision dependent link tag.<br>
@@ -20,13 +16,13 @@ import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
  * <code>&lt;link rel='stylesheet' type='text/css' href='/[rootPath]/resources/r[revNo]/presentation/[static|generated]/style.css' /&gt;</code><br>
  * <br>
  * where <code>[rootPath]</code> would be the root path of the application, configured in the base application and <code>[revNo]</code> would be the
- * current SVN revision number. An <code>id</code> attribute can be passed optionally.
+ * current SVN revision number. An <code>id</code> attribute can be passed optionally.<br>
+ * <br>
+ * Resource hints registered in the {@link ResourceHints} of the request, but not rendered yet, are rendered ahead of the stylesheet.
  *
  * @author Christoph Wende
  */
-public class Style extends RequestContextAwareTag {
-
-  private static final Logger LOG = LoggerFactory.getLogger(Style.class);
+public class Style extends RendererTag {
 
   private static final long serialVersionUID = 3805265733096516623L;
 
@@ -34,31 +30,20 @@ public class Style extends RequestContextAwareTag {
 
   private String staticResource = "false";
 
-  /**
-   * Initialize the tag with properties from base application.
-   */
-  private void init() {
-    this.id = StringUtils.isBlank(this.id) ? "" : this.id;
-  }
-
   @Override
-  @SuppressWarnings("resource")
-  public int doEndTag() throws JspException {
-    this.init();
-    String result = "";
-
-    final String path = ConfigurationUtil.buildStylePath(this.getRequestContext(), this.pageContext, this.uri,
-        StringUtils.equalsIgnoreCase(this.staticResource, "true"));
-
-    result = String.format(GriefTaglibProperty.RESOURCE_TAG_STYLE, path, this.id);
-
-    final JspWriter out = this.pageContext.getOut();
-    try {
-      out.println(result);
-    } catch (final IOException e) {
-      LOG.error("Could not write buffer to out", e);
-    }
-    return super.doEndTag();
+  protected Renderer createRenderer() {
+    final StyleRenderer renderer = new StyleRenderer();
+    renderer.setUri(this.uri);
+    renderer.setId(this.id);
+    renderer.setStaticResource(StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+    final Environment env = this.getRequestContext().getWebApplicationContext().getEnvironment();
+    renderer.setMinified(MinifiedResources.get(env));
+    renderer.setRewritten(RewrittenStylesheets.get(env));
+
+    final ResourceHints hints = ResourceHints.get(this.pageContext.getRequest());
+    hints.markStylesheetRendered();
+    renderer.setHints(hints.drainPending());
+    return renderer;
   }
 
   public String getUri() {
@@ -77,9 +62,4 @@ public class Style extends RequestContextAwareTag {
     this.staticResource = staticResource;
   }
 
-  @Override
-  protected int doStartTagInternal() throws Exception {
-    return 0;
-  }
-
 }
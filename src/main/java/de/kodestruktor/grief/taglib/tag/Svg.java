@@ -0,0 +1,108 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import javax.servlet.jsp.JspException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.render.SvgRenderer;
+import de.kodestruktor.grief.taglib.render.SvgSymbols;
+import de.kodestruktor.grief.taglib.util.SvgCache;
+
+/**
+ * Taglib to render an SVG file of the image directory inline, so it can be styled by CSS and does not cost a request.<br>
+ * An input with the <code>uri</code> attribute <code>icons/add.svg</code> would i.e. output the cleaned content of the file <br>
+ * <br>
+ * <code>&lt;svg class='[cssClass]' id='[id]' viewBox='0 0 24 24'&gt;...&lt;/svg&gt;</code><br>
+ * <br>
+ * If the optional attribute <code>use</code> is set to <code>true</code>, only a reference into the symbol sprite of the page is rendered <br>
+ * <br>
+ * <code>&lt;svg class='[cssClass]' id='[id]' viewBox='0 0 24 24'&gt;&lt;use href='#g-svg-icons-add'&gt;&lt;/use&gt;&lt;/svg&gt;</code><br>
+ * <br>
+ * and the symbols referenced so far are rendered by a tag with the attribute <code>sprite</code> set to <code>true</code>, usually at the end of
+ * the body. Thus an icon used many times in a page is only contained once.<br>
+ * <br>
+ * The ids defined inside an SVG, e.g. of gradients or clip paths, are prefixed per inline rendering, so an SVG may be rendered inline several
+ * times in a page; for icons used many times, the symbol sprite still saves repeating their content.
+ * <br>
+ * The attributes <code>cssClass</code>, <code>id</code> and <code>staticResource</code> are optional. The file contents are cached, see
+ * {@link GriefTaglibProperty#SVG_PROP_CACHE_SIZE}. If the file cannot be read, it is rendered like {@link Image}.
+ *
+ * @author Christoph Wende
+ * @see GriefTaglibProperty
+ */
+public class Svg extends RendererTag {
+
+  private static final long serialVersionUID = 2794513866301946082L;
+
+  private String uri;
+
+  private String cssClass;
+
+  private String staticResource = "false";
+
+  private String use = "false";
+
+  private String sprite = "false";
+
+  @Override
+  protected Renderer createRenderer() throws JspException {
+    final boolean spriteTag = StringUtils.equalsIgnoreCase(this.sprite, "true");
+    if (!spriteTag && StringUtils.isBlank(this.uri)) {
+      throw new JspException("An svg needs an uri, unless it renders the sprite");
+    }
+
+    final SvgRenderer renderer = new SvgRenderer();
+    renderer.setUri(this.uri);
+    renderer.setCssClass(this.cssClass);
+    renderer.setId(this.id);
+    renderer.setStaticResource(StringUtils.equalsIgnoreCase(this.staticResource, "true"));
+    renderer.setUse(StringUtils.equalsIgnoreCase(this.use, "true"));
+    renderer.setSprite(spriteTag);
+    renderer.setCache(SvgCache.get(this.getRequestContext().getWebApplicationContext()));
+    renderer.setSymbols(SvgSymbols.get(this.pageContext.getRequest()));
+    return renderer;
+  }
+
+  public String getUri() {
+    return this.uri;
+  }
+
+  public void setUri(final String uri) {
+    this.uri = uri;
+  }
+
+  public String getCssClass() {
+    return this.cssClass;
+  }
+
+  public void setCssClass(final String cssClass) {
+    this.cssClass = cssClass;
+  }
+
+  public String getStaticResource() {
+    return this.staticResource;
+  }
+
+  public void setStaticResource(final String staticResource) {
+    this.staticResource = staticResource;
+  }
+
+  public String getUse() {
+    return this.use;
+  }
+
+  public void setUse(final String use) {
+    this.use = use;
+  }
+
+  public String getSprite() {
+    return this.sprite;
+  }
+
+  public void setSprite(final String sprite) {
+    this.sprite = sprite;
+  }
+
+}
@@ -0,0 +1,49 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import javax.servlet.jsp.JspException;
+
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.render.RenderTrace;
+import de.kodestruktor.grief.taglib.render.Renderer;
+import de.kodestruktor.grief.taglib.render.TraceRenderer;
+
+/**
+ * Renders the time spent in grief tags during the current request as HTML comment, e.g. <br>
+ * <br>
+ * <code>&lt;!-- grief trace: manifest 4x 0.210ms; path 3x 0.120ms; image 3x 0.420ms; --&gt;</code><br>
+ * <br>
+ * Should be placed at the end of the page, outside of other grief tags, so their time is included. Nothing is rendered unless both
+ * {@link GriefTaglibProperty#TRACE_PROP_ENABLED} and {@link GriefTaglibProperty#TRACE_PROP_COMMENT_ENABLED} are set. If tracing is enabled, the
+ * same totals are exposed once as <code>Server-Timing</code> header by this tag, as long as the response has not been committed; otherwise the
+ * header has been written by the {@link Flush} tag committing the response.
+ *
+ * @author Christoph Wende
+ * @see RenderTrace
+ */
+public class Trace extends RendererTag {
+
+  private static final long serialVersionUID = 8712291569458404437L;
+
+  @Override
+  public int doEndTag() throws JspException {
+    final RenderTrace trace = RenderTrace.get(this.pageContext.getRequest(), this.getRequestContext().getWebApplicationContext().getEnvironment());
+    final int result = super.doEndTag();
+
+    if (trace != null) {
+      writeServerTiming(this.pageContext.getResponse(), trace);
+    }
+    return result;
+  }
+
+  @Override
+  protected Renderer createRenderer() {
+    final Environment env = this.getRequestContext().getWebApplicationContext().getEnvironment();
+
+    final TraceRenderer renderer = new TraceRenderer();
+    renderer.setCommentEnabled(env.getProperty(GriefTaglibProperty.TRACE_PROP_COMMENT_ENABLED, Boolean.class, Boolean.FALSE).booleanValue());
+    return renderer;
+  }
+
+}
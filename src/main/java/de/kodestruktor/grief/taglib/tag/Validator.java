@@ -0,0 +1,43 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.tagext.TagSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Taglib adding a value the page depends on, e.g. the last modification of the data shown, to the entity tag of the enclosing <code>etag</code>
+ * tag.
+ *
+ * @author Christoph Wende
+ * @see Etag
+ */
+public class Validator extends TagSupport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Validator.class);
+
+  private static final long serialVersionUID = 6903361470250419658L;
+
+  private String value;
+
+  @Override
+  public int doEndTag() throws JspException {
+    final Etag etag = (Etag) findAncestorWithClass(this, Etag.class);
+    if (etag == null) {
+      LOG.error("Validator is not nested in an etag tag; omitting validator");
+    } else {
+      etag.addValidator(this.value);
+    }
+    return EVAL_PAGE;
+  }
+
+  public String getValue() {
+    return this.value;
+  }
+
+  public void setValue(final String value) {
+    this.value = value;
+  }
+
+}
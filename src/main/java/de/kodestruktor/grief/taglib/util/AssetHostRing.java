@@ -0,0 +1,164 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Consistent hash ring mapping resource paths onto a list of asset hosts. Every host is placed on the ring multiple times, so the resources are
+ * spread evenly and adding or removing a host only moves the resources of that host. The hash only depends on the passed key, thus a resource
+ * is always served from the same host, across requests and application nodes.
+ *
+ * @author Christoph Wende
+ */
+public final class AssetHostRing {
+
+  private static final int VIRTUAL_NODES = 160;
+
+  private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+
+  private final List<String> hosts;
+
+  private final int[] positions;
+
+  private final String[] nodes;
+
+  /**
+   * Build the ring for the given hosts.
+   *
+   * @param hosts
+   *          the asset hosts, e.g. <code>//static1.example.com</code>; a trailing slash is removed
+   */
+  public AssetHostRing(final List<String> hosts) {
+    final List<String> normalized = new ArrayList<>(hosts.size());
+    final SortedMap<Integer, String> ring = new TreeMap<>();
+
+    for (final String host : hosts) {
+      final String normalizedHost = StringUtils.removeEnd(host.trim(), "/");
+      normalized.add(normalizedHost);
+      for (int i = 0; i < VIRTUAL_NODES; i++) {
+        ring.put(Integer.valueOf(avalanche(hash(FNV_OFFSET_BASIS, normalizedHost + "#" + i))), normalizedHost);
+      }
+    }
+
+    this.hosts = Collections.unmodifiableList(normalized);
+    this.positions = new int[ring.size()];
+    this.nodes = new String[ring.size()];
+
+    int i = 0;
+    for (final Map.Entry<Integer, String> node : ring.entrySet()) {
+      this.positions[i] = node.getKey().intValue();
+      this.nodes[i] = node.getValue();
+      i++;
+    }
+  }
+
+  /**
+   * Parse a comma separated list of hosts.
+   *
+   * @param hosts
+   *          the comma separated hosts
+   * @return the ring or <code>null</code>, if no hosts have been passed
+   */
+  public static AssetHostRing parse(final String hosts) {
+    if (StringUtils.isBlank(hosts)) {
+      return null;
+    }
+
+    final List<String> hostList = new ArrayList<>();
+    for (final String host : StringUtils.split(hosts, ',')) {
+      if (StringUtils.isNotBlank(host)) {
+        hostList.add(host);
+      }
+    }
+    return hostList.isEmpty() ? null : new AssetHostRing(hostList);
+  }
+
+  /**
+   * Get the host responsible for the given key.
+   *
+   * @param key
+   *          the key, usually the path of a resource
+   * @return the host
+   */
+  public String getHost(final String key) {
+    return this.findNode(avalanche(hash(FNV_OFFSET_BASIS, key)));
+  }
+
+  /**
+   * Get the host responsible for a resource. Equivalent to {@link #getHost(String)} with the directory and URI joined by a slash, without
+   * creating the joined key.
+   *
+   * @param directory
+   *          the directory of the resource
+   * @param uri
+   *          the URI of the resource, relative to the directory
+   * @return the host
+   */
+  public String getHost(final String directory, final String uri) {
+    int hash = hash(FNV_OFFSET_BASIS, String.valueOf(directory));
+    if (!uri.startsWith("/")) {
+      hash = hash(hash, "/");
+    }
+    return this.findNode(avalanche(hash(hash, uri)));
+  }
+
+  private String findNode(final int hash) {
+    // find the first node at or after the hash, wrapping around to the first node of the ring
+    int low = 0;
+    int high = this.positions.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (this.positions[mid] < hash) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return this.nodes[low == this.positions.length ? 0 : low];
+  }
+
+  public List<String> getHosts() {
+    return this.hosts;
+  }
+
+  /**
+   * Continue a 32 bit FNV-1a hash with the given characters; stable and independent of the JVM in use.
+   *
+   * @param seed
+   *          the hash so far, or the FNV offset basis to start a new one
+   * @param key
+   *          the characters to hash
+   * @return the hash
+   */
+  private static int hash(final int seed, final String key) {
+    int hash = seed;
+    for (int i = 0; i < key.length(); i++) {
+      hash ^= key.charAt(i);
+      hash *= 0x01000193;
+    }
+    return hash;
+  }
+
+  /**
+   * Final avalanche step, spreading the FNV hash evenly over the ring.
+   *
+   * @param value
+   *          the FNV hash
+   * @return the final hash
+   */
+  private static int avalanche(final int value) {
+    int hash = value;
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+}
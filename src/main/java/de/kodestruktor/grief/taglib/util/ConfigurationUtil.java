@@ -1,15 +1,28 @@
 package de.kodestruktor.grief.taglib.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
+import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.jsp.PageContext;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.web.servlet.support.RequestContext;
 
 import de.kodestruktor.grief.core.manifest.ManifestReader;
-import de.kodestruktor.grief.core.property.GriefProperty;
 import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
 
 /**
@@ -19,6 +32,12 @@ import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
  */
 public class ConfigurationUtil {
 
+  private static final Logger LOG = LoggerFactory.getLogger(ConfigurationUtil.class);
+
+  private static final String MANIFEST_LOCATION = "/META-INF/MANIFEST.MF";
+
+  private static final ConcurrentMap<Environment, ResourceConfiguration> CONFIGURATIONS = new ConcurrentHashMap<>();
+
   /**
    * Build a path to a static or versioned image resource.
    *
@@ -73,6 +92,92 @@ public class ConfigurationUtil {
     return buildResourcePath(requestContext, pageContext, GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, uri, staticResource);
   }
 
+  /**
+   * Build a path to a static or versioned font resource.
+   *
+   * @param requestContext
+   *          the current request context to determine the applicaitons {@link Environment}
+   * @param pageContext
+   *          the current page context to determine the applications {@link Manifest}
+   * @param uri
+   *          the URI to the font, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if a path to a static font should be built, <code>false</code> otherwise
+   * @return the path to the font resource
+   */
+  public static String buildFontPath(final RequestContext requestContext, final PageContext pageContext, final String uri,
+      final boolean staticResource) {
+    return buildResourcePath(requestContext, pageContext, GriefTaglibProperty.RESOURCE_PROP_FONTDIR, uri, staticResource);
+  }
+
+  /**
+   * Build a path to a static or versioned image resource without depending on a JSP page context.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   * @param revision
+   *          the current revision of the application
+   * @param uri
+   *          the URI to the image, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if a path to a static image should be build, <code>false</code> otherwise
+   * @return the path to the image resource
+   */
+  public static String buildImagePath(final Environment env, final String revision, final String uri, final boolean staticResource) {
+    return getResourceConfiguration(env).buildPath(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, uri, staticResource, revision);
+  }
+
+  /**
+   * Build a path to a static or versioned script resource without depending on a JSP page context.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   * @param revision
+   *          the current revision of the application
+   * @param uri
+   *          the URI to the script, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if a path to a static script should be build, <code>false</code> otherwise
+   * @return the path to the script resource
+   */
+  public static String buildScriptPath(final Environment env, final String revision, final String uri, final boolean staticResource) {
+    return getResourceConfiguration(env).buildPath(GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR, uri, staticResource, revision);
+  }
+
+  /**
+   * Build a path to a static or versioned stylesheet resource without depending on a JSP page context.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   * @param revision
+   *          the current revision of the application
+   * @param uri
+   *          the URI to the stylesheet, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if a path to a static stylesheet should be built, <code>false</code> otherwise
+   * @return the path to the stylesheet resource
+   */
+  public static String buildStylePath(final Environment env, final String revision, final String uri, final boolean staticResource) {
+    return getResourceConfiguration(env).buildPath(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, uri, staticResource, revision);
+  }
+
+  /**
+   * Build a path to a static or versioned font resource without depending on a JSP page context.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   * @param revision
+   *          the current revision of the application
+   * @param uri
+   *          the URI to the font, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if a path to a static font should be built, <code>false</code> otherwise
+   * @return the path to the font resource
+   */
+  public static String buildFontPath(final Environment env, final String revision, final String uri, final boolean staticResource) {
+    return getResourceConfiguration(env).buildPath(GriefTaglibProperty.RESOURCE_PROP_FONTDIR, uri, staticResource, revision);
+  }
+
   /**
    * Build a path to a static or versioned resource.
    *
@@ -92,28 +197,103 @@ public class ConfigurationUtil {
   private static String buildResourcePath(final RequestContext requestContext, final PageContext pageContext, final String relativeLocationProp,
       final String uri, final boolean staticResource) {
 
-    final Environment env = requestContext.getWebApplicationContext().getEnvironment();
+    final ResourceConfiguration configuration = getResourceConfiguration(requestContext.getWebApplicationContext().getEnvironment());
+    final String revision = ManifestReader.getImplementationVersion((HttpServletRequest) pageContext.getRequest());
 
-    final String rootPath = env.getProperty(GriefProperty.GRIEF_PROP_APP_ROOT);
+    return configuration.buildPath(relativeLocationProp, uri, staticResource, revision);
+  }
 
-    final String resourceLocation = env.getProperty(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_RESOURCES);
-    final String staticLocation = env.getProperty(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_STATIC);
-    final String revisionLocationPrefix = env.getProperty(GriefTaglibProperty.RESOURCE_PROP_VERSIONDIR_PREFIX);
-    final String relativeResourceLocation = env.getProperty(relativeLocationProp);
-    final String revision = ManifestReader.getImplementationVersion((HttpServletRequest) pageContext.getRequest());
+  /**
+   * Get the resource configuration of the given environment. The configuration is resolved on first access and cached afterwards.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   * @return the resource configuration
+   */
+  public static ResourceConfiguration getResourceConfiguration(final Environment env) {
+    ResourceConfiguration configuration = CONFIGURATIONS.get(env);
 
-    final StringBuffer path = new StringBuffer();
+    if (configuration == null) {
+      configuration = new ResourceConfiguration(env);
+      final ResourceConfiguration existing = CONFIGURATIONS.putIfAbsent(env, configuration);
+      if (existing != null) {
+        configuration = existing;
+      }
+    }
+    return configuration;
+  }
 
-    path.append(rootPath).append(resourceLocation);
+  /**
+   * Remove everything cached for the given environment by grief, e.g. the resource configuration, the indexes and the derived resources, so the
+   * application can be unloaded when its context is closed. Otherwise the static caches keep referencing the environment of the application and
+   * thus its class loader, as long as grief is loaded by a shared class loader.
+   *
+   * @param env
+   *          the applications {@link Environment}
+   */
+  public static void clearCaches(final Environment env) {
+    CONFIGURATIONS.remove(env);
+    FontFaces.clear(env);
+    ImageDimensions.clear(env);
+    MinifiedResources.clear(env);
+    ModuleImportMap.clear(env);
+    PrecacheManifest.clear(env);
+    RewrittenStylesheets.clear(env);
+    ScriptDependencyGraph.clear(env);
+    SpriteSheet.clear(env);
+    SvgCache.clear(env);
+    ThemeIndex.clear(env);
+  }
 
-    if (staticResource) {
-      path.append(staticLocation);
-    } else {
-      path.append(revisionLocationPrefix).append(revision);
+  /**
+   * Read the revision of the application from the {@link Manifest} of the given servlet context, in the same manner as the {@link ManifestReader}
+   * does for a request. Used where no request is available, e.g. on startup.
+   *
+   * @param servletContext
+   *          the applications servlet context
+   * @return the revision or <code>null</code>, if the manifest could not be read
+   */
+  public static String getRevision(final ServletContext servletContext) {
+    try (InputStream in = servletContext.getResourceAsStream(MANIFEST_LOCATION)) {
+      if (in == null) {
+        LOG.warn("No manifest found at [{}]", MANIFEST_LOCATION);
+        return null;
+      }
+      return new Manifest(in).getMainAttributes().getValue(Attributes.Name.IMPLEMENTATION_VERSION);
+    } catch (final IOException e) {
+      LOG.error("Could not read manifest", e);
+      return null;
     }
+  }
 
-    path.append(relativeResourceLocation).append(uri.startsWith("/") ? "" : "/").append(uri);
+  /**
+   * List all files in a directory of the web application and its subdirectories.
+   *
+   * @param servletContext
+   *          the applications servlet context
+   * @param directory
+   *          the location of the directory inside the web application, ending with a slash
+   * @return the locations of the files, sorted
+   */
+  public static List<String> listResources(final ServletContext servletContext, final String directory) {
+    final List<String> resources = new ArrayList<>();
+    final Deque<String> directories = new ArrayDeque<>();
+    directories.add(directory);
+
+    while (!directories.isEmpty()) {
+      final Set<String> children = servletContext.getResourcePaths(directories.poll());
+      if (children != null) {
+        for (final String child : children) {
+          if (child.endsWith("/")) {
+            directories.add(child);
+          } else {
+            resources.add(child);
+          }
+        }
+      }
+    }
 
-    return path.toString();
+    Collections.sort(resources);
+    return resources;
   }
 }
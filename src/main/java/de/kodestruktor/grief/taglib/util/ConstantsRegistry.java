@@ -0,0 +1,235 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Collects the public static final fields of classes, including enum values, into immutable maps. The constants of a class are mapped by their
+ * field names; the constants of a package are mapped by class, using both the name of the class relative to the package, e.g.
+ * <code>Order.Status</code>, and its fully qualified name.<br>
+ * <br>
+ * Packages are scanned on the classpath by reading the class files, only the classes found are loaded in parallel, without initializing them.
+ * The classes are initialized and inspected one after another by the scanning thread afterwards, as static initializers referencing each other
+ * could deadlock when run on several threads. All results are cached, so reflection only happens once per class and package pattern; usually
+ * on startup, see {@link GriefTaglibProperty#CONSTANTS_PROP_PACKAGES}. The results of an application are removed by {@link #clear(ClassLoader)}
+ * once its context is closed.
+ *
+ * @author Christoph Wende
+ */
+public final class ConstantsRegistry {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ConstantsRegistry.class);
+
+  private static final long LOAD_TIMEOUT_SECONDS = 60;
+
+  private static final ConcurrentMap<Class<?>, Map<String, Object>> CLASSES = new ConcurrentHashMap<>();
+
+  private static final ConcurrentMap<ClassLoader, ConcurrentMap<String, Map<String, Map<String, Object>>>> PACKAGES = new ConcurrentHashMap<>();
+
+  /**
+   * Empty private constructor to avoid instantiation.
+   */
+  private ConstantsRegistry() {
+    // Here be dragons...
+  }
+
+  /**
+   * Get the constants of a class.
+   *
+   * @param declaringClass
+   *          the class declaring the constants
+   * @return the constants, mapped by their field names
+   * @throws IllegalAccessException
+   *           in case a constant could not be read
+   */
+  public static Map<String, Object> getConstants(final Class<?> declaringClass) throws IllegalAccessException {
+    Map<String, Object> constants = CLASSES.get(declaringClass);
+
+    if (constants == null) {
+      final Map<String, Object> fields = new HashMap<>();
+      for (final Field field : declaringClass.getFields()) {
+        if (Modifier.isStatic(field.getModifiers()) && Modifier.isFinal(field.getModifiers())) {
+          fields.put(field.getName(), field.get(null));
+        }
+      }
+
+      constants = Collections.unmodifiableMap(fields);
+      final Map<String, Object> existing = CLASSES.putIfAbsent(declaringClass, constants);
+      if (existing != null) {
+        constants = existing;
+      }
+    }
+    return constants;
+  }
+
+  /**
+   * Get the constants of all classes in the packages matching a pattern, scanning them if neccessary.
+   *
+   * @param packages
+   *          comma separated package patterns, e.g. <code>com.example.model</code> or <code>com.example.**</code> including subpackages
+   * @param classLoader
+   *          the class loader to scan
+   * @param threads
+   *          the number of threads to load the classes with
+   * @return the constants of every class, mapped by class name
+   */
+  public static Map<String, Map<String, Object>> getConstants(final String packages, final ClassLoader classLoader, final int threads) {
+    // scanned per class loader, as every application sees its own classes
+    ConcurrentMap<String, Map<String, Map<String, Object>>> scanned = PACKAGES.get(classLoader);
+    if (scanned == null) {
+      scanned = new ConcurrentHashMap<>();
+      final ConcurrentMap<String, Map<String, Map<String, Object>>> existing = PACKAGES.putIfAbsent(classLoader, scanned);
+      if (existing != null) {
+        scanned = existing;
+      }
+    }
+
+    Map<String, Map<String, Object>> constants = scanned.get(packages);
+
+    if (constants == null) {
+      constants = scan(packages, classLoader, threads);
+      final Map<String, Map<String, Object>> existing = scanned.putIfAbsent(packages, constants);
+      if (existing != null) {
+        constants = existing;
+      }
+    }
+    return constants;
+  }
+
+  /**
+   * Remove the constants of all classes loaded by a class loader, e.g. when the context of the application is closed, so the cache no longer
+   * references the class loader.
+   *
+   * @param classLoader
+   *          the class loader of the application
+   */
+  public static void clear(final ClassLoader classLoader) {
+    PACKAGES.remove(classLoader);
+
+    final Iterator<Class<?>> classes = CLASSES.keySet().iterator();
+    while (classes.hasNext()) {
+      for (ClassLoader loader = classes.next().getClassLoader(); loader != null; loader = loader.getParent()) {
+        if (loader == classLoader) {
+          classes.remove();
+          break;
+        }
+      }
+    }
+  }
+
+  private static Map<String, Map<String, Object>> scan(final String packages, final ClassLoader classLoader, final int threads) {
+    final long start = System.nanoTime();
+    final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+    final SimpleMetadataReaderFactory readerFactory = new SimpleMetadataReaderFactory(classLoader);
+
+    final List<Callable<Class<?>>> jobs = new ArrayList<>();
+    final List<String[]> names = new ArrayList<>();
+
+    for (final String packagePattern : StringUtils.split(packages, ", ")) {
+      final String basePackage = StringUtils.removeEnd(StringUtils.removeEnd(packagePattern, "**"), ".");
+      final String location = "classpath*:" + StringUtils.replace(StringUtils.removeEnd(packagePattern, "."), ".", "/") + "/*.class";
+
+      try {
+        for (final Resource resource : resolver.getResources(location)) {
+          final MetadataReader reader = readerFactory.getMetadataReader(resource);
+          final ClassMetadata metadata = reader.getClassMetadata();
+          if (metadata.isAnnotation() || !metadata.isIndependent()) {
+            continue;
+          }
+
+          final String className = metadata.getClassName();
+          if (StringUtils.substringAfterLast(className, "$").matches("\\d+.*")) {
+            // anonymous or local classes
+            continue;
+          }
+
+          names.add(new String[] { StringUtils.removeStart(className.substring(basePackage.length()), ".").replace('$', '.'),
+              className.replace('$', '.') });
+          jobs.add(new Callable<Class<?>>() {
+
+            @Override
+            public Class<?> call() throws Exception {
+              return Class.forName(className, false, classLoader);
+            }
+          });
+        }
+      } catch (final Exception e) {
+        LOG.error("Could not scan [" + location + "] for constants", e);
+      }
+    }
+
+    final Map<String, Map<String, Object>> constants = new TreeMap<>();
+    int classes = 0;
+    if (!jobs.isEmpty()) {
+      final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(jobs.size(), threads)));
+      try {
+        // classes not loaded in time are cancelled and skipped
+        final List<Future<Class<?>>> results = executor.invokeAll(jobs, LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        for (int i = 0; i < results.size(); i++) {
+          try {
+            final Map<String, Object> classConstants = inspect(results.get(i).get(), classLoader);
+            if (!classConstants.isEmpty()) {
+              constants.put(names.get(i)[0], classConstants);
+              constants.put(names.get(i)[1], classConstants);
+              classes++;
+            }
+          } catch (final ExecutionException e) {
+            LOG.debug("Could not load [{}]: {}", names.get(i)[1], e.getCause().toString());
+          } catch (final CancellationException e) {
+            LOG.warn("Loading [{}] has not finished within {} seconds", names.get(i)[1], Long.valueOf(LOAD_TIMEOUT_SECONDS));
+          } catch (final Exception | LinkageError e) {
+            LOG.debug("Could not read constants of [{}]: {}", names.get(i)[1], e.toString());
+          }
+        }
+      } catch (final InterruptedException e) {
+        LOG.warn("Scanning [{}] for constants has been interrupted", packages);
+        Thread.currentThread().interrupt();
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    LOG.info("Collected constants of {} classes in [{}] in {} ms", Integer.valueOf(classes), packages,
+        Long.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    return Collections.unmodifiableMap(constants);
+  }
+
+  /**
+   * Initialize a loaded class and read its constants, on the calling thread.
+   */
+  private static Map<String, Object> inspect(final Class<?> declaringClass, final ClassLoader classLoader) throws ClassNotFoundException,
+      IllegalAccessException {
+    if (!Modifier.isPublic(declaringClass.getModifiers())) {
+      return Collections.emptyMap();
+    }
+    Class.forName(declaringClass.getName(), true, classLoader);
+    return getConstants(declaringClass);
+  }
+}
@@ -0,0 +1,70 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Builds a strong entity tag from the values a page depends on, e.g. the revision of the application, configuration values and validators
+ * supplied by the page. Two pages built from the same values get the same tag, so a client may revalidate its cached copy with
+ * <code>If-None-Match</code>.
+ *
+ * @author Christoph Wende
+ */
+public final class EntityTag {
+
+  private final StringBuilder values = new StringBuilder(128);
+
+  /**
+   * Add a named value the page depends on.
+   *
+   * @param name
+   *          the name of the value
+   * @param value
+   *          the value; may be <code>null</code>
+   * @return this entity tag
+   */
+  public EntityTag add(final String name, final String value) {
+    // the lengths keep values containing the separators from colliding with other combinations of values
+    this.values.append(name.length()).append(':').append(name).append('=');
+    if (value == null) {
+      this.values.append('-');
+    } else {
+      this.values.append(value.length()).append(':').append(value);
+    }
+    this.values.append('\n');
+    return this;
+  }
+
+  /**
+   * @return the quoted entity tag, as to be sent in the <code>ETag</code> header
+   */
+  public String build() {
+    return '"' + DigestUtils.md5DigestAsHex(this.values.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+  }
+
+  /**
+   * Check whether the value of an <code>If-None-Match</code> header matches an entity tag, using the weak comparison required for
+   * <code>If-None-Match</code>.
+   *
+   * @param ifNoneMatch
+   *          the value of the header; may be <code>null</code>
+   * @param entityTag
+   *          the quoted entity tag of the page
+   * @return <code>true</code> if the client has a current copy of the page
+   */
+  public static boolean matches(final String ifNoneMatch, final String entityTag) {
+    if (StringUtils.isBlank(ifNoneMatch)) {
+      return false;
+    }
+
+    for (final String candidate : StringUtils.split(ifNoneMatch, ',')) {
+      final String tag = StringUtils.removeStart(candidate.trim(), "W/");
+      if ("*".equals(tag) || entityTag.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,85 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.env.Environment;
+
+/**
+ * Cache of the rendered font faces of an application. As the font faces contain the paths of the versioned fonts, the cache is cleared as soon as
+ * another revision is requested.
+ *
+ * @author Christoph Wende
+ */
+public final class FontFaces {
+
+  private static final ConcurrentMap<Environment, FontFaces> INSTANCES = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, String> faces = new ConcurrentHashMap<>();
+
+  private volatile String revision;
+
+  /**
+   * Get the font face cache of the application, creating it on first access.
+   *
+   * @param env
+   *          the environment of the application
+   * @return the font face cache
+   */
+  public static FontFaces get(final Environment env) {
+    FontFaces faces = INSTANCES.get(env);
+    if (faces == null) {
+      faces = new FontFaces();
+      final FontFaces existing = INSTANCES.putIfAbsent(env, faces);
+      if (existing != null) {
+        faces = existing;
+      }
+    }
+    return faces;
+  }
+
+  /**
+   * Drop the font faces of an application.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    INSTANCES.remove(env);
+  }
+
+  /**
+   * Get a rendered font face.
+   *
+   * @param key
+   *          the key of the font face, built from all attributes it has been rendered with
+   * @param currentRevision
+   *          the current revision of the application
+   * @return the font face or <code>null</code>, if it has not been rendered for the current revision yet
+   */
+  public String get(final String key, final String currentRevision) {
+    if (!StringUtils.equals(this.revision, currentRevision)) {
+      synchronized (this) {
+        if (!StringUtils.equals(this.revision, currentRevision)) {
+          this.faces.clear();
+          this.revision = currentRevision;
+        }
+      }
+      return null;
+    }
+    return this.faces.get(key);
+  }
+
+  /**
+   * Cache a rendered font face for the current revision.
+   *
+   * @param key
+   *          the key of the font face, built from all attributes it has been rendered with
+   * @param face
+   *          the rendered font face
+   */
+  public void put(final String key, final String face) {
+    this.faces.put(key, face);
+  }
+}
@@ -0,0 +1,324 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Writer compacting HTML while it is written through, using a fixed size buffer regardless of the size of the document. Runs of whitespace are
+ * collapsed into a single blank, or a single line break if the run contained one, and comments are removed. The contents of <code>pre</code>,
+ * <code>textarea</code>, <code>script</code> and <code>style</code> elements, quoted attribute values and conditional comments are passed through
+ * untouched.<br>
+ * <br>
+ * Flushing only writes the buffer to the target writer without flushing the target itself; closing the compactor finishes the document, but does
+ * not close the target.
+ *
+ * @author Christoph Wende
+ */
+public final class HtmlCompactor extends Writer {
+
+  private static final int BUFFER_SIZE = 4096;
+
+  private static final int MAX_LOOKAHEAD = 10;
+
+  private static final Set<String> RAW_ELEMENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("pre", "textarea", "script", "style")));
+
+  private enum State {
+    TEXT, LOOKAHEAD, TAG, RAW, COMMENT
+  }
+
+  private final Writer target;
+
+  private final char[] buffer = new char[BUFFER_SIZE];
+
+  private final StringBuilder lookahead = new StringBuilder(MAX_LOOKAHEAD + 1);
+
+  private int position;
+
+  private State state = State.TEXT;
+
+  private boolean pendingSpace;
+
+  private boolean pendingNewline;
+
+  private char quote;
+
+  private char lastTagChar;
+
+  private String rawElement;
+
+  private String rawClosing;
+
+  private int rawMatched;
+
+  private boolean conditional;
+
+  private int dashes;
+
+  private long bytesIn;
+
+  private long bytesOut;
+
+  /**
+   * @param target
+   *          the writer to write the compacted HTML to
+   */
+  public HtmlCompactor(final Writer target) {
+    this.target = target;
+  }
+
+  @Override
+  public void write(final char[] cbuf, final int off, final int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      this.process(cbuf[i]);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.target.write(this.buffer, 0, this.position);
+    this.position = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.state == State.LOOKAHEAD) {
+      // an unfinished tag at the end of the document is passed through as it is
+      this.emitPendingWhitespace();
+      this.emit('<');
+      for (int i = 0; i < this.lookahead.length(); i++) {
+        this.emit(this.lookahead.charAt(i));
+      }
+      this.lookahead.setLength(0);
+      this.state = State.TEXT;
+    }
+    this.emitPendingWhitespace();
+    this.flush();
+  }
+
+  /**
+   * @return the number of bytes written to the compactor, counted in UTF-8
+   */
+  public long getBytesIn() {
+    return this.bytesIn;
+  }
+
+  /**
+   * @return the number of bytes written to the target, counted in UTF-8
+   */
+  public long getBytesOut() {
+    return this.bytesOut;
+  }
+
+  private void process(final char c) throws IOException {
+    this.bytesIn += utf8Length(c);
+
+    switch (this.state) {
+      case TEXT:
+        this.processText(c);
+        break;
+      case LOOKAHEAD:
+        this.lookahead.append(c);
+        this.decide();
+        break;
+      case TAG:
+        this.processTag(c);
+        break;
+      case RAW:
+        this.processRaw(c);
+        break;
+      case COMMENT:
+        this.processComment(c);
+        break;
+      default:
+        throw new IllegalStateException("Unknown state " + this.state);
+    }
+  }
+
+  private void processText(final char c) throws IOException {
+    if (isWhitespace(c)) {
+      this.pendingSpace = true;
+      this.pendingNewline |= c == '\n';
+    } else if (c == '<') {
+      // the whitespace is kept pending, so it merges with the whitespace following a removed comment
+      this.state = State.LOOKAHEAD;
+    } else {
+      this.emitPendingWhitespace();
+      this.emit(c);
+    }
+  }
+
+  /**
+   * Decide what the characters following a <code>&lt;</code> start: a comment, a conditional comment, a tag, an element with raw content or
+   * just text.
+   */
+  private void decide() throws IOException {
+    final String chars = this.lookahead.toString();
+    final char first = chars.charAt(0);
+
+    if ("!--".startsWith(chars)) {
+      return;
+    }
+    if (chars.startsWith("!--")) {
+      this.lookahead.setLength(0);
+      this.state = State.COMMENT;
+      // both the opening and the closing comment of a conditional comment are kept, e.g. <!--[if !IE]><!--> and <!--<![endif]-->
+      this.conditional = chars.charAt(3) == '[' || chars.charAt(3) == '<';
+      this.dashes = chars.charAt(3) == '-' ? 1 : 0;
+      if (this.conditional) {
+        this.emitPendingWhitespace();
+        this.emitAll("<" + chars);
+      }
+      return;
+    }
+
+    if (Character.isLetter(first)) {
+      final char last = chars.charAt(chars.length() - 1);
+      final boolean nameComplete = !Character.isLetterOrDigit(last);
+      if (!nameComplete && chars.length() <= MAX_LOOKAHEAD) {
+        return;
+      }
+
+      final String name = nameComplete ? chars.substring(0, chars.length() - 1).toLowerCase(Locale.ROOT) : null;
+      this.rawElement = name != null && RAW_ELEMENTS.contains(name) && (isWhitespace(last) || last == '>' || last == '/') ? name : null;
+      this.startTag(chars);
+    } else if (first == '/' || first == '!' || first == '?') {
+      this.rawElement = null;
+      this.startTag(chars);
+    } else {
+      // a single less-than sign within text
+      this.lookahead.setLength(0);
+      this.state = State.TEXT;
+      this.emitPendingWhitespace();
+      this.emit('<');
+      for (int i = 0; i < chars.length(); i++) {
+        this.processText(chars.charAt(i));
+      }
+    }
+  }
+
+  private void startTag(final String chars) throws IOException {
+    this.lookahead.setLength(0);
+    this.state = State.TAG;
+    this.quote = 0;
+    this.lastTagChar = '<';
+    this.emitPendingWhitespace();
+    this.emit('<');
+    for (int i = 0; i < chars.length(); i++) {
+      this.processTag(chars.charAt(i));
+    }
+  }
+
+  private void processTag(final char c) throws IOException {
+    if (this.quote != 0) {
+      this.emit(c);
+      if (c == this.quote) {
+        this.quote = 0;
+      }
+      return;
+    }
+
+    if (isWhitespace(c)) {
+      this.pendingSpace = true;
+      return;
+    }
+
+    if (c == '>') {
+      // whitespace before the end of a tag is insignificant
+      this.pendingSpace = false;
+      this.pendingNewline = false;
+      this.emit(c);
+
+      if (this.rawElement != null && this.lastTagChar != '/') {
+        this.state = State.RAW;
+        this.rawClosing = "</" + this.rawElement;
+        this.rawMatched = 0;
+      } else {
+        this.state = State.TEXT;
+      }
+      this.rawElement = null;
+      return;
+    }
+
+    this.pendingNewline = false;
+    this.emitPendingWhitespace();
+    if (c == '"' || c == '\'') {
+      this.quote = c;
+    }
+    this.lastTagChar = c;
+    this.emit(c);
+  }
+
+  private void processRaw(final char c) throws IOException {
+    this.emit(c);
+
+    if (Character.toLowerCase(c) == this.rawClosing.charAt(this.rawMatched)) {
+      this.rawMatched++;
+      if (this.rawMatched == this.rawClosing.length()) {
+        // the rest of the closing tag
+        this.state = State.TAG;
+        this.quote = 0;
+        this.lastTagChar = c;
+      }
+    } else {
+      this.rawMatched = c == '<' ? 1 : 0;
+    }
+  }
+
+  private void processComment(final char c) throws IOException {
+    if (this.conditional) {
+      this.emit(c);
+    }
+
+    if (c == '-') {
+      this.dashes++;
+    } else if (c == '>' && this.dashes >= 2) {
+      this.state = State.TEXT;
+    } else {
+      this.dashes = 0;
+    }
+  }
+
+  private void emitPendingWhitespace() throws IOException {
+    if (this.pendingSpace) {
+      this.emit(this.pendingNewline ? '\n' : ' ');
+      this.pendingSpace = false;
+      this.pendingNewline = false;
+    }
+  }
+
+  private void emitAll(final String chars) throws IOException {
+    for (int i = 0; i < chars.length(); i++) {
+      this.emit(chars.charAt(i));
+    }
+  }
+
+  private void emit(final char c) throws IOException {
+    if (this.position == this.buffer.length) {
+      this.flush();
+    }
+    this.buffer[this.position++] = c;
+    this.bytesOut += utf8Length(c);
+  }
+
+  /**
+   * @return the number of bytes the character takes in UTF-8; each half of a surrogate pair counts two of its four bytes
+   */
+  private static int utf8Length(final char c) {
+    if (c < 0x80) {
+      return 1;
+    }
+    if (c < 0x800 || Character.isSurrogate(c)) {
+      return 2;
+    }
+    return 3;
+  }
+
+  private static boolean isWhitespace(final char c) {
+    return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+  }
+}
@@ -0,0 +1,257 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.servlet.ServletContext;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Resolves the intrinsic width and height of images, reading only the image header. Dimensions are looked up in the seed file configured in
+ * {@link GriefTaglibProperty#IMAGE_PROP_DIMENSIONS_SEED} first, e.g. generated at build time, and otherwise read once and kept in a bounded cache
+ * per image location. As the location of versioned images contains the revision, the cache is invalidated per revision implicitly.
+ *
+ * @author Christoph Wende
+ */
+public final class ImageDimensions {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ImageDimensions.class);
+
+  private static final int DEFAULT_CACHE_SIZE = 1024;
+
+  private static final int[] NONE = new int[0];
+
+  private static final ConcurrentMap<Environment, ImageDimensions> INSTANCES = new ConcurrentHashMap<>();
+
+  private final ResourceLoader resourceLoader;
+
+  private final Map<String, int[]> seeds;
+
+  private final Map<String, int[]> cache;
+
+  private final int cacheSize;
+
+  /**
+   * @param resourceLoader
+   *          the resource loader to read images with, relative to the web application root
+   * @param seeds
+   *          known dimensions of images, mapped by their URI relative to the image directory
+   * @param cacheSize
+   *          the maximum number of image locations to cache
+   */
+  public ImageDimensions(final ResourceLoader resourceLoader, final Map<String, int[]> seeds, final int cacheSize) {
+    this.resourceLoader = resourceLoader;
+    this.seeds = Collections.unmodifiableMap(new HashMap<>(seeds));
+    this.cacheSize = cacheSize;
+    this.cache = new LinkedHashMap<String, int[]>(64, 0.75f, true) {
+
+      private static final long serialVersionUID = -2466419547093838335L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, int[]> eldest) {
+        return this.size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * Get the image dimensions of the application, creating them on first access.
+   *
+   * @param applicationContext
+   *          the application context used to read the configuration, the seed file and the images
+   * @return the image dimensions or <code>null</code>, if automatic dimensions are disabled
+   */
+  public static ImageDimensions get(final ApplicationContext applicationContext) {
+    final Environment env = applicationContext.getEnvironment();
+    if (!env.getProperty(GriefTaglibProperty.IMAGE_PROP_DIMENSIONS_ENABLED, Boolean.class, Boolean.FALSE).booleanValue()) {
+      return null;
+    }
+
+    ImageDimensions dimensions = INSTANCES.get(env);
+    if (dimensions == null) {
+      dimensions = new ImageDimensions(applicationContext, loadSeeds(applicationContext, env.getProperty(GriefTaglibProperty.IMAGE_PROP_DIMENSIONS_SEED)),
+          env.getProperty(GriefTaglibProperty.IMAGE_PROP_DIMENSIONS_CACHE_SIZE, Integer.class, Integer.valueOf(DEFAULT_CACHE_SIZE)).intValue());
+      final ImageDimensions existing = INSTANCES.putIfAbsent(env, dimensions);
+      if (existing != null) {
+        dimensions = existing;
+      }
+    }
+    return dimensions;
+  }
+
+  /**
+   * Drop the image dimensions cached for an application.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    INSTANCES.remove(env);
+  }
+
+  /**
+   * Get the dimensions of an image.
+   *
+   * @param uri
+   *          the URI of the image, relative to the image directory
+   * @param location
+   *          the location of the image inside the web application
+   * @return the width and height of the image or <code>null</code>, if they cannot be determined
+   */
+  public int[] lookup(final String uri, final String location) {
+    final int[] seed = this.seeds.get(StringUtils.removeStart(uri, "/"));
+    if (seed != null) {
+      return seed;
+    }
+
+    int[] dimensions;
+    synchronized (this.cache) {
+      dimensions = this.cache.get(location);
+    }
+
+    if (dimensions == null) {
+      dimensions = this.read(location);
+      synchronized (this.cache) {
+        this.cache.put(location, dimensions);
+      }
+    }
+    return dimensions == NONE ? null : dimensions;
+  }
+
+  /**
+   * Fill the cache with the dimensions of all images in a directory and its subdirectories, until the cache is full.
+   *
+   * @param servletContext
+   *          the servlet context to list the images with
+   * @param directory
+   *          the location of the image directory inside the web application, ending with a slash
+   * @return the number of images read
+   */
+  public int warmUp(final ServletContext servletContext, final String directory) {
+    final Deque<String> paths = new ArrayDeque<>();
+    paths.add(directory);
+
+    int count = 0;
+    while (!paths.isEmpty() && count < this.cacheSize) {
+      final Set<String> children = servletContext.getResourcePaths(paths.poll());
+      if (children == null) {
+        continue;
+      }
+
+      for (final String child : children) {
+        if (child.endsWith("/")) {
+          paths.add(child);
+        } else if (count < this.cacheSize) {
+          this.lookup(child.substring(directory.length()), child);
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Read the dimensions from the header of an image.
+   *
+   * @param location
+   *          the location of the image inside the web application
+   * @return the width and height of the image or {@link #NONE}, if the image cannot be read
+   */
+  private int[] read(final String location) {
+    final Resource resource = this.resourceLoader.getResource(location);
+    if (!resource.exists()) {
+      LOG.warn("Image [{}] does not exist; omitting dimensions", location);
+      return NONE;
+    }
+
+    try (InputStream in = resource.getInputStream()) {
+      final ImageInputStream imageIn = new MemoryCacheImageInputStream(in);
+      try {
+        final Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+        if (!readers.hasNext()) {
+          LOG.debug("No image reader found for [{}]; omitting dimensions", location);
+          return NONE;
+        }
+
+        final ImageReader reader = readers.next();
+        try {
+          reader.setInput(imageIn, true, true);
+          return new int[] { reader.getWidth(0), reader.getHeight(0) };
+        } finally {
+          reader.dispose();
+        }
+      } finally {
+        imageIn.close();
+      }
+    } catch (final IOException e) {
+      LOG.warn("Could not read dimensions of image [" + location + "]", e);
+      return NONE;
+    }
+  }
+
+  /**
+   * Load the seed file, mapping image URIs to their dimensions, e.g. <code>logo.png=120x40</code>.
+   *
+   * @param resourceLoader
+   *          the resource loader to read the seed file with
+   * @param location
+   *          the location of the seed file; may be <code>null</code>
+   * @return the seeds
+   */
+  public static Map<String, int[]> loadSeeds(final ResourceLoader resourceLoader, final String location) {
+    final Map<String, int[]> seeds = new HashMap<>();
+    if (StringUtils.isBlank(location)) {
+      return seeds;
+    }
+
+    final Resource resource = resourceLoader.getResource(location);
+    if (!resource.exists()) {
+      LOG.warn("Image dimension seed file [{}] does not exist", location);
+      return seeds;
+    }
+
+    final Properties properties = new Properties();
+    try (InputStream in = resource.getInputStream()) {
+      properties.load(in);
+    } catch (final IOException e) {
+      LOG.error("Could not read image dimension seed file [" + location + "]", e);
+      return seeds;
+    }
+
+    for (final String uri : properties.stringPropertyNames()) {
+      final String[] size = StringUtils.split(properties.getProperty(uri), 'x');
+      try {
+        seeds.put(StringUtils.removeStart(uri.trim(), "/"), new int[] { Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()) });
+      } catch (final RuntimeException e) {
+        LOG.warn("Invalid image dimensions [{}] for [{}]; expected [width]x[height]", properties.getProperty(uri), uri);
+      }
+    }
+
+    LOG.debug("Loaded {} image dimensions from [{}]", Integer.valueOf(seeds.size()), location);
+    return seeds;
+  }
+}
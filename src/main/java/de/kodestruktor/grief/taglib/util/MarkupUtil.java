@@ -0,0 +1,184 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Utility methods to render the markup formats defined in {@link GriefTaglibProperty}. The formats only use plain <code>%s</code> placeholders, so
+ * they are split into their literal parts once and afterwards rendered by appending the parts and arguments directly to the output. Unlike
+ * {@link String#format(String, Object...)} this neither parses the format nor creates intermediate strings on every invocation.
+ *
+ * @author Christoph Wende
+ */
+public final class MarkupUtil {
+
+  private static final String PLACEHOLDER = "%s";
+
+  private static final ConcurrentMap<String, String[]> FORMATS = new ConcurrentHashMap<>();
+
+  /**
+   * Empty private constructor to avoid instantiation.
+   */
+  private MarkupUtil() {
+    // Here be dragons...
+  }
+
+  /**
+   * Append a format to the output, replacing each <code>%s</code> with the next argument. Missing arguments are rendered as <code>null</code>, like
+   * {@link String#format(String, Object...)} would.
+   *
+   * @param out
+   *          the target to write the markup to
+   * @param format
+   *          the format, only containing <code>%s</code> placeholders
+   * @param args
+   *          the arguments
+   * @throws IOException
+   *           in case the markup could not be written
+   */
+  public static void format(final Appendable out, final String format, final String... args) throws IOException {
+    final String[] parts = split(format);
+
+    out.append(parts[0]);
+    for (int i = 1; i < parts.length; i++) {
+      out.append(i <= args.length ? args[i - 1] : null).append(parts[i]);
+    }
+  }
+
+  /**
+   * Render a format to a string, replacing each <code>%s</code> with the next argument.
+   *
+   * @param format
+   *          the format, only containing <code>%s</code> placeholders
+   * @param args
+   *          the arguments
+   * @return the rendered format
+   */
+  public static String format(final String format, final String... args) {
+    final StringBuilder builder = new StringBuilder(format.length() + 64);
+    try {
+      format(builder, format, args);
+    } catch (final IOException e) {
+      // cannot happen when appending to a string builder
+      throw new IllegalStateException(e);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Derive an identifier, usable as CSS class or element id, from the URI of a resource. The file extension is removed and all characters other
+   * than letters, digits, dashes and underscores are replaced by dashes; e.g. <code>icons/add.png</code> with the prefix <code>g-icon</code>
+   * results in <code>g-icon-icons-add</code>.
+   *
+   * @param prefix
+   *          the prefix of the identifier
+   * @param uri
+   *          the URI of the resource
+   * @return the identifier
+   */
+  public static String toIdentifier(final String prefix, final String uri) {
+    final String path = uri.startsWith("/") ? uri.substring(1) : uri;
+    final String name = path.lastIndexOf('.') > 0 ? path.substring(0, path.lastIndexOf('.')) : path;
+
+    final StringBuilder identifier = new StringBuilder(prefix.length() + 1 + name.length()).append(prefix).append('-');
+    for (int i = 0; i < name.length(); i++) {
+      final char c = name.charAt(i);
+      identifier.append(Character.isLetterOrDigit(c) || c == '-' || c == '_' ? c : '-');
+    }
+    return identifier.toString();
+  }
+
+  /**
+   * Append a value to a JSON document as string, escaping quotes, backslashes and control characters. Less-than signs are escaped as well, so the
+   * document may be embedded into a script tag.
+   *
+   * @param json
+   *          the JSON document
+   * @param value
+   *          the value
+   */
+  public static void appendJsonString(final StringBuilder json, final String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < ' ' || c == '<') {
+        json.append(String.format("\\u%04x", Integer.valueOf(c)));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+
+  /**
+   * Escape a value to be rendered within a double or single quoted attribute, replacing ampersands, less-than and greater-than signs and quotes by
+   * their character references. Values without any of these characters are returned as they are.
+   *
+   * @param value
+   *          the value, may be <code>null</code>
+   * @return the escaped value
+   */
+  public static String escapeAttribute(final String value) {
+    if (value == null) {
+      return null;
+    }
+
+    StringBuilder escaped = null;
+    for (int i = 0; i < value.length(); i++) {
+      final String reference;
+      switch (value.charAt(i)) {
+        case '&':
+          reference = "&amp;";
+          break;
+        case '<':
+          reference = "&lt;";
+          break;
+        case '>':
+          reference = "&gt;";
+          break;
+        case '"':
+          reference = "&quot;";
+          break;
+        case '\'':
+          reference = "&#39;";
+          break;
+        default:
+          if (escaped != null) {
+            escaped.append(value.charAt(i));
+          }
+          continue;
+      }
+      if (escaped == null) {
+        escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+      }
+      escaped.append(reference);
+    }
+    return escaped == null ? value : escaped.toString();
+  }
+
+  private static String[] split(final String format) {
+    String[] parts = FORMATS.get(format);
+
+    if (parts == null) {
+      final List<String> partList = new ArrayList<>();
+      int start = 0;
+      int index;
+      while ((index = format.indexOf(PLACEHOLDER, start)) >= 0) {
+        partList.add(format.substring(start, index));
+        start = index + PLACEHOLDER.length();
+      }
+      partList.add(format.substring(start));
+
+      parts = partList.toArray(new String[partList.size()]);
+      FORMATS.putIfAbsent(format, parts);
+    }
+    return parts;
+  }
+}
@@ -0,0 +1,131 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * The minified variants of the versioned scripts and stylesheets, written by the minification stage on startup. As long as one of the profiles
+ * configured in {@link GriefTaglibProperty#MINIFY_PROP_PROFILES} is active, the script and style tags render the minified variants instead of the
+ * originals.
+ *
+ * @author Christoph Wende
+ */
+public final class MinifiedResources {
+
+  private static final String DEFAULT_PROFILES = "production";
+
+  private static final ConcurrentMap<Environment, MinifiedResources> INSTANCES = new ConcurrentHashMap<>();
+
+  private final Map<String, String> scripts;
+
+  private final Map<String, String> styles;
+
+  private final long originalBytes;
+
+  private final long minifiedBytes;
+
+  /**
+   * @param scripts
+   *          the URIs of the minified scripts, mapped by the URIs of the originals
+   * @param styles
+   *          the URIs of the minified stylesheets, mapped by the URIs of the originals
+   * @param originalBytes
+   *          the size of all originals
+   * @param minifiedBytes
+   *          the size of all minified variants
+   */
+  public MinifiedResources(final Map<String, String> scripts, final Map<String, String> styles, final long originalBytes,
+      final long minifiedBytes) {
+    this.scripts = Collections.unmodifiableMap(new HashMap<>(scripts));
+    this.styles = Collections.unmodifiableMap(new HashMap<>(styles));
+    this.originalBytes = originalBytes;
+    this.minifiedBytes = minifiedBytes;
+  }
+
+  /**
+   * Get the minified resources to render.
+   *
+   * @param env
+   *          the environment of the application
+   * @return the minified resources or <code>null</code>, if none have been written or no configured profile is active
+   */
+  public static MinifiedResources get(final Environment env) {
+    final MinifiedResources resources = INSTANCES.get(env);
+    if (resources == null) {
+      return null;
+    }
+
+    final String[] profiles = StringUtils.split(env.getProperty(GriefTaglibProperty.MINIFY_PROP_PROFILES, DEFAULT_PROFILES), ", ");
+    return env.acceptsProfiles(profiles) ? resources : null;
+  }
+
+  /**
+   * Forget the minified resources of an application.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    INSTANCES.remove(env);
+  }
+
+  /**
+   * Register the minified resources of the application, replacing the previous ones.
+   *
+   * @param env
+   *          the environment of the application
+   * @param resources
+   *          the minified resources
+   */
+  public static void register(final Environment env, final MinifiedResources resources) {
+    INSTANCES.put(env, resources);
+  }
+
+  /**
+   * Derive the URI of the minified variant of a resource, e.g. <code>app.min.js</code> for <code>app.js</code>.
+   *
+   * @param uri
+   *          the URI of the original
+   * @return the URI of the minified variant
+   */
+  public static String toMinifiedUri(final String uri) {
+    final int extension = uri.lastIndexOf('.');
+    return extension > uri.lastIndexOf('/') ? uri.substring(0, extension) + ".min" + uri.substring(extension) : uri + ".min";
+  }
+
+  /**
+   * @param uri
+   *          the URI of a script, relative to the script directory
+   * @return the URI of the minified variant, or the given URI, if there is none
+   */
+  public String getScript(final String uri) {
+    final String minified = this.scripts.get(StringUtils.removeStart(uri, "/"));
+    return minified == null ? uri : minified;
+  }
+
+  /**
+   * @param uri
+   *          the URI of a stylesheet, relative to the style directory
+   * @return the URI of the minified variant, or the given URI, if there is none
+   */
+  public String getStyle(final String uri) {
+    final String minified = this.styles.get(StringUtils.removeStart(uri, "/"));
+    return minified == null ? uri : minified;
+  }
+
+  public long getOriginalBytes() {
+    return this.originalBytes;
+  }
+
+  public long getMinifiedBytes() {
+    return this.minifiedBytes;
+  }
+}
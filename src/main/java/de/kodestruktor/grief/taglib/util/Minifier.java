@@ -0,0 +1,338 @@
+package de.kodestruktor.grief.taglib.util;
+
+/**
+ * Conservative minifiers for scripts and stylesheets, without any dependencies.<br>
+ * <br>
+ * Scripts are minified following the JSMin algorithm: comments are removed and whitespace is reduced to what is needed to keep the semantics of
+ * the script, while strings, template literals and regular expressions are kept as they are. Names are not mangled. Stylesheets lose their
+ * comments and all whitespace not needed to separate tokens.
+ *
+ * @author Christoph Wende
+ */
+public final class Minifier {
+
+  private static final int EOF = -1;
+
+  /**
+   * Empty private constructor to avoid instantiation.
+   */
+  private Minifier() {
+    // Here be dragons...
+  }
+
+  /**
+   * Minify a script.
+   *
+   * @param script
+   *          the script
+   * @return the minified script
+   * @throws IllegalArgumentException
+   *           in case the script contains an unterminated comment, string or regular expression
+   */
+  public static String minifyScript(final String script) {
+    return new ScriptMinifier(script).minify();
+  }
+
+  /**
+   * Minify a stylesheet.
+   *
+   * @param stylesheet
+   *          the stylesheet
+   * @return the minified stylesheet
+   * @throws IllegalArgumentException
+   *           in case the stylesheet contains an unterminated comment or string
+   */
+  public static String minifyStylesheet(final String stylesheet) {
+    final StringBuilder out = new StringBuilder(stylesheet.length());
+    boolean space = false;
+
+    int i = 0;
+    while (i < stylesheet.length()) {
+      final char c = stylesheet.charAt(i);
+
+      if (c == '/' && i + 1 < stylesheet.length() && stylesheet.charAt(i + 1) == '*') {
+        final int end = stylesheet.indexOf("*/", i + 2);
+        if (end < 0) {
+          throw new IllegalArgumentException("Unterminated comment");
+        }
+        i = end + 2;
+        space = true;
+      } else if (Character.isWhitespace(c)) {
+        i++;
+        space = true;
+      } else {
+        final char last = out.length() == 0 ? '{' : out.charAt(out.length() - 1);
+        if (space && "{};:,>(".indexOf(last) < 0 && "{};,>)".indexOf(c) < 0) {
+          out.append(' ');
+        }
+        space = false;
+
+        if (c == '}' && last == ';') {
+          out.setLength(out.length() - 1);
+        }
+
+        if (c == '"' || c == '\'') {
+          i = copyString(stylesheet, i, out);
+        } else {
+          out.append(c);
+          i++;
+        }
+      }
+    }
+    return out.toString();
+  }
+
+  private static int copyString(final String source, final int start, final StringBuilder out) {
+    final char quote = source.charAt(start);
+    out.append(quote);
+
+    int i = start + 1;
+    while (i < source.length()) {
+      final char c = source.charAt(i++);
+      out.append(c);
+      if (c == '\\' && i < source.length()) {
+        out.append(source.charAt(i++));
+      } else if (c == quote) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Unterminated string");
+  }
+
+  /**
+   * Single use state of the JSMin algorithm.
+   */
+  private static final class ScriptMinifier {
+
+    private final String in;
+
+    private final StringBuilder out;
+
+    private int position;
+
+    private int lookahead = EOF;
+
+    private int a;
+
+    private int b;
+
+    private int x = EOF;
+
+    private int y = EOF;
+
+    ScriptMinifier(final String in) {
+      this.in = in;
+      this.out = new StringBuilder(in.length());
+    }
+
+    String minify() {
+      if (this.in.length() > 0 && this.in.charAt(0) == '\uFEFF') {
+        this.position = 1;
+      }
+
+      this.a = '\n';
+      this.action(3);
+      while (this.a != EOF) {
+        switch (this.a) {
+          case ' ':
+            this.action(isAlphanum(this.b) ? 1 : 2);
+            break;
+          case '\n':
+            switch (this.b) {
+              case '{':
+              case '[':
+              case '(':
+              case '+':
+              case '-':
+              case '!':
+              case '~':
+                this.action(1);
+                break;
+              case ' ':
+                this.action(3);
+                break;
+              default:
+                this.action(isAlphanum(this.b) ? 1 : 2);
+            }
+            break;
+          default:
+            switch (this.b) {
+              case ' ':
+                this.action(isAlphanum(this.a) ? 1 : 3);
+                break;
+              case '\n':
+                switch (this.a) {
+                  case '}':
+                  case ']':
+                  case ')':
+                  case '+':
+                  case '-':
+                  case '"':
+                  case '\'':
+                  case '`':
+                    this.action(1);
+                    break;
+                  default:
+                    this.action(isAlphanum(this.a) ? 1 : 3);
+                }
+                break;
+              default:
+                this.action(1);
+            }
+        }
+      }
+      return this.out.toString().trim();
+    }
+
+    /**
+     * @param d
+     *          1: output A, copy B to A, get the next B; 2: copy B to A, get the next B; 3: get the next B
+     */
+    private void action(final int d) {
+      if (d <= 1) {
+        this.write(this.a);
+        if ((this.y == '\n' || this.y == ' ') && (this.a == '+' || this.a == '-' || this.a == '*' || this.a == '/')
+            && (this.b == '+' || this.b == '-' || this.b == '*' || this.b == '/')) {
+          this.write(this.y);
+        }
+      }
+
+      if (d <= 2) {
+        this.a = this.b;
+        if (this.a == '\'' || this.a == '"' || this.a == '`') {
+          while (true) {
+            this.write(this.a);
+            this.a = this.read();
+            if (this.a == this.b) {
+              break;
+            }
+            if (this.a == '\\') {
+              this.write(this.a);
+              this.a = this.read();
+            }
+            if (this.a == EOF) {
+              throw new IllegalArgumentException("Unterminated string literal");
+            }
+          }
+        }
+      }
+
+      this.b = this.next();
+      if (this.b == '/' && "(,=:[!&|?+-~*/{}\n;".indexOf(this.a) >= 0) {
+        this.write(this.a);
+        if (this.a == '/' || this.a == '*') {
+          this.write(' ');
+        }
+        this.write(this.b);
+
+        while (true) {
+          this.a = this.read();
+          if (this.a == '[') {
+            while (true) {
+              this.write(this.a);
+              this.a = this.read();
+              if (this.a == ']') {
+                break;
+              }
+              if (this.a == '\\') {
+                this.write(this.a);
+                this.a = this.read();
+              }
+              if (this.a == EOF) {
+                throw new IllegalArgumentException("Unterminated set in regular expression literal");
+              }
+            }
+          } else if (this.a == '/') {
+            final int following = this.peek();
+            if (following == '/' || following == '*') {
+              throw new IllegalArgumentException("Unterminated set in regular expression literal");
+            }
+            break;
+          } else if (this.a == '\\') {
+            this.write(this.a);
+            this.a = this.read();
+          }
+          if (this.a == EOF) {
+            throw new IllegalArgumentException("Unterminated regular expression literal");
+          }
+          this.write(this.a);
+        }
+        this.b = this.next();
+      }
+    }
+
+    /**
+     * Get the next character outside of a literal, turning carriage returns into line feeds and all other control characters into blanks.
+     */
+    private int get() {
+      return translate(this.read());
+    }
+
+    /**
+     * Get the next character as it is, as tabs and other control characters inside of literals are part of their value.
+     */
+    private int read() {
+      final int c = this.lookahead;
+      this.lookahead = EOF;
+      if (c != EOF) {
+        return c;
+      }
+      return this.position < this.in.length() ? this.in.charAt(this.position++) : EOF;
+    }
+
+    private int peek() {
+      this.lookahead = this.read();
+      return translate(this.lookahead);
+    }
+
+    private int next() {
+      int c = this.get();
+      if (c == '/') {
+        switch (this.peek()) {
+          case '/':
+            do {
+              c = this.get();
+            } while (c > '\n');
+            break;
+          case '*':
+            this.get();
+            while (c != ' ') {
+              switch (this.get()) {
+                case '*':
+                  if (this.peek() == '/') {
+                    this.get();
+                    c = ' ';
+                  }
+                  break;
+                case EOF:
+                  throw new IllegalArgumentException("Unterminated comment");
+                default:
+                  break;
+              }
+            }
+            break;
+          default:
+            break;
+        }
+      }
+      this.y = this.x;
+      this.x = c;
+      return c;
+    }
+
+    private void write(final int c) {
+      this.out.append((char) c);
+    }
+
+    private static int translate(final int c) {
+      if (c >= ' ' || c == '\n' || c == EOF) {
+        return c;
+      }
+      return c == '\r' ? '\n' : ' ';
+    }
+
+    private static boolean isAlphanum(final int c) {
+      return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$' || c == '\\' || c > 126;
+    }
+  }
+}
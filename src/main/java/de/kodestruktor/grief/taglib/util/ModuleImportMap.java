@@ -0,0 +1,192 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Import map of the applications ES modules, loaded from the module descriptor configured in
+ * {@link GriefTaglibProperty#IMPORTMAP_PROP_DESCRIPTOR}. The descriptor is a properties file mapping a module specifier to a script relative to
+ * the script directory; a specifier ending with a slash maps a whole directory, e.g.:<br>
+ * <br>
+ * <code>lit=vendor/lit.js<br>
+ * components/=components/</code><br>
+ * <br>
+ * Every specifier is resolved to the versioned path of its script, the minified variant if available, so modules importing each other by
+ * specifier are fetched from the current revision directly instead of through a redirect or a stale cache entry. As the paths only change with
+ * the revision and the {@link MinifiedResources}, the map is built once per revision and kept in memory afterwards; it is built again as soon as
+ * other minified resources are registered, so a map requested before the minification on startup has finished does not stay unminified.
+ * Concurrent requests wait for a single build.
+ *
+ * @author Christoph Wende
+ */
+public final class ModuleImportMap {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ModuleImportMap.class);
+
+  private static final ConcurrentMap<Environment, ModuleImportMap> INSTANCES = new ConcurrentHashMap<>();
+
+  private final String revision;
+
+  private final MinifiedResources minified;
+
+  private final Map<String, String> imports;
+
+  private final String json;
+
+  /**
+   * @param revision
+   *          the revision the map has been built for
+   * @param minified
+   *          the minified resources the map has been built with; may be <code>null</code>
+   * @param imports
+   *          the scripts, relative to the script directory, mapped by their specifiers
+   * @param json
+   *          the import map
+   */
+  ModuleImportMap(final String revision, final MinifiedResources minified, final Map<String, String> imports, final String json) {
+    this.revision = revision;
+    this.minified = minified;
+    this.imports = imports;
+    this.json = json;
+  }
+
+  /**
+   * Get the import map of the application, building it on first access or if the revision or the minified resources have changed.
+   *
+   * @param applicationContext
+   *          the application context used to read the configuration and the descriptor
+   * @param revision
+   *          the current revision of the application
+   * @return the import map; empty if no descriptor is configured
+   */
+  public static ModuleImportMap get(final ApplicationContext applicationContext, final String revision) {
+    final Environment env = applicationContext.getEnvironment();
+    ModuleImportMap importMap = INSTANCES.get(env);
+    if (!isCurrent(importMap, env, revision)) {
+      // reading the descriptor is done once while concurrent requests wait for it
+      synchronized (INSTANCES) {
+        importMap = INSTANCES.get(env);
+        if (!isCurrent(importMap, env, revision)) {
+          importMap = build(applicationContext, env, revision, MinifiedResources.get(env));
+          INSTANCES.put(env, importMap);
+        }
+      }
+    }
+    return importMap;
+  }
+
+  /**
+   * Drop the import map of an application, so it is built again on next access.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    INSTANCES.remove(env);
+  }
+
+  private static boolean isCurrent(final ModuleImportMap importMap, final Environment env, final String revision) {
+    return importMap != null && StringUtils.equals(importMap.revision, revision) && importMap.minified == MinifiedResources.get(env);
+  }
+
+  private static ModuleImportMap build(final ResourceLoader resourceLoader, final Environment env, final String revision,
+      final MinifiedResources minified) {
+    final Map<String, String> imports = load(resourceLoader, env.getProperty(GriefTaglibProperty.IMPORTMAP_PROP_DESCRIPTOR));
+
+    final StringBuilder json = new StringBuilder(128 + imports.size() * 96).append("{\"imports\":{");
+    for (final Map.Entry<String, String> entry : imports.entrySet()) {
+      // directories are mapped as they are, single modules may have a minified variant
+      final String script = entry.getValue();
+      final String uri = minified == null || script.endsWith("/") ? script : minified.getScript(script);
+
+      if (json.charAt(json.length() - 1) != '{') {
+        json.append(',');
+      }
+      MarkupUtil.appendJsonString(json, entry.getKey());
+      json.append(':');
+      MarkupUtil.appendJsonString(json, ConfigurationUtil.buildScriptPath(env, revision, uri, false));
+    }
+    json.append("}}");
+
+    LOG.debug("Built import map of {} modules for revision [{}]", Integer.valueOf(imports.size()), revision);
+    return new ModuleImportMap(revision, minified, imports, json.toString());
+  }
+
+  private static Map<String, String> load(final ResourceLoader resourceLoader, final String location) {
+    if (StringUtils.isBlank(location)) {
+      return Collections.emptyMap();
+    }
+
+    final Resource resource = resourceLoader.getResource(location);
+    if (!resource.exists()) {
+      LOG.warn("Module descriptor [{}] does not exist", location);
+      return Collections.emptyMap();
+    }
+
+    final Properties descriptor = new Properties();
+    try (InputStream in = resource.getInputStream()) {
+      descriptor.load(in);
+    } catch (final IOException e) {
+      LOG.error("Could not read module descriptor [" + location + "]", e);
+      return Collections.emptyMap();
+    }
+
+    // sorted, so the rendered map does not change between nodes or restarts
+    final Map<String, String> imports = new TreeMap<>();
+    for (final String specifier : descriptor.stringPropertyNames()) {
+      final String script = StringUtils.removeStart(descriptor.getProperty(specifier).trim(), "/");
+      if (specifier.trim().endsWith("/") != script.endsWith("/")) {
+        LOG.warn("Ignoring module [{}] of descriptor [{}]; a directory may only be mapped to a directory", specifier, location);
+        continue;
+      }
+      imports.put(specifier.trim(), script);
+    }
+    return Collections.unmodifiableMap(imports);
+  }
+
+  /**
+   * Resolve a module to its script.
+   *
+   * @param module
+   *          a specifier of the import map or a script relative to the script directory
+   * @return the script relative to the script directory
+   */
+  public String resolve(final String module) {
+    final String script = this.imports.get(module);
+    return script == null ? module : script;
+  }
+
+  /**
+   * @return the import map as JSON object with the versioned path of each module in <code>imports</code>
+   */
+  public String toJson() {
+    return this.json;
+  }
+
+  /**
+   * @return the revision the map has been built for
+   */
+  public String getRevision() {
+    return this.revision;
+  }
+
+  public boolean isEmpty() {
+    return this.imports.isEmpty();
+  }
+}
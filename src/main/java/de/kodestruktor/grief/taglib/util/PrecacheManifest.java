@@ -0,0 +1,253 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.servlet.ServletContext;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import de.kodestruktor.grief.taglib.init.PrecacheManifestTask;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Precache manifest of a service worker, listing the paths of all versioned images, favicons, scripts, stylesheets and fonts along with the
+ * hashes of their contents, e.g.:<br>
+ * <br>
+ * <code>[{"url":"/app/resources/r1234/scripts/app.min.js","revision":"9e107d9d372bb6826bd81d3542a419d6"}]</code><br>
+ * <br>
+ * The paths are built like the tags build them, including asset hosts. Only the variant of a script or stylesheet the tags render is listed: the
+ * {@link MinifiedResources minified} variant if there is one, otherwise the {@link RewrittenStylesheets rewritten} one, otherwise the original.
+ * The images and stylesheets of each theme are listed as well, as they are, like the tags render them.<br>
+ * <br>
+ * As the versioned resources only change with the revision, the manifest is built once per revision and kept in memory afterwards; it is built
+ * again as soon as other minified or rewritten resources are registered. It is usually built on startup by the {@link PrecacheManifestTask},
+ * once all resources written on startup are in place; requests arriving for a new revision wait for a single build instead of building it
+ * concurrently.
+ *
+ * @author Christoph Wende
+ */
+public final class PrecacheManifest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PrecacheManifest.class);
+
+  private static final String[] RESOURCE_DIRECTORIES = { GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR,
+      GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, GriefTaglibProperty.RESOURCE_PROP_FONTDIR };
+
+  private static final String[] THEMED_DIRECTORIES = { GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, GriefTaglibProperty.RESOURCE_PROP_STYLEDIR };
+
+  private static final ConcurrentMap<Environment, PrecacheManifest> INSTANCES = new ConcurrentHashMap<>();
+
+  private final String revision;
+
+  private final MinifiedResources minified;
+
+  private final RewrittenStylesheets rewritten;
+
+  private final String json;
+
+  private final int entries;
+
+  /**
+   * @param revision
+   *          the revision the manifest has been built for
+   * @param minified
+   *          the minified resources the manifest has been built with; may be <code>null</code>
+   * @param rewritten
+   *          the rewritten stylesheets the manifest has been built with; may be <code>null</code>
+   * @param json
+   *          the manifest
+   * @param entries
+   *          the number of resources listed
+   */
+  PrecacheManifest(final String revision, final MinifiedResources minified, final RewrittenStylesheets rewritten, final String json,
+      final int entries) {
+    this.revision = revision;
+    this.minified = minified;
+    this.rewritten = rewritten;
+    this.json = json;
+    this.entries = entries;
+  }
+
+  /**
+   * Get the precache manifest of the application, building it on first access or if the revision or the derived resources have changed.
+   *
+   * @param servletContext
+   *          the servlet context to read the resources with
+   * @param env
+   *          the environment of the application
+   * @param revision
+   *          the current revision of the application
+   * @return the precache manifest
+   */
+  public static PrecacheManifest get(final ServletContext servletContext, final Environment env, final String revision) {
+    PrecacheManifest manifest = INSTANCES.get(env);
+    if (!isCurrent(manifest, env, revision)) {
+      // hashing all resources is expensive, so it is done once while concurrent requests wait for it
+      synchronized (INSTANCES) {
+        manifest = INSTANCES.get(env);
+        if (!isCurrent(manifest, env, revision)) {
+          manifest = build(servletContext, env, revision, MinifiedResources.get(env), RewrittenStylesheets.get(env));
+          INSTANCES.put(env, manifest);
+        }
+      }
+    }
+    return manifest;
+  }
+
+  /**
+   * Drop the precache manifest of an application.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    INSTANCES.remove(env);
+  }
+
+  private static boolean isCurrent(final PrecacheManifest manifest, final Environment env, final String revision) {
+    return manifest != null && StringUtils.equals(manifest.revision, revision) && manifest.minified == MinifiedResources.get(env)
+        && manifest.rewritten == RewrittenStylesheets.get(env);
+  }
+
+  private static PrecacheManifest build(final ServletContext servletContext, final Environment env, final String revision,
+      final MinifiedResources minified, final RewrittenStylesheets rewritten) {
+    final long start = System.nanoTime();
+    final ResourceConfiguration configuration = ConfigurationUtil.getResourceConfiguration(env);
+    final String exclude = env.getProperty(GriefTaglibProperty.PRECACHE_PROP_EXCLUDE);
+    final Pattern excluded = StringUtils.isBlank(exclude) ? null : Pattern.compile(exclude);
+
+    final StringBuilder json = new StringBuilder(4096).append('[');
+    int entries = 0;
+    for (final String directoryProp : RESOURCE_DIRECTORIES) {
+      final String directory = configuration.buildLocation(directoryProp, "", false, revision);
+      final List<String> locations = ConfigurationUtil.listResources(servletContext, directory);
+
+      final Set<String> variants = new HashSet<>();
+      for (final String location : locations) {
+        variants.add(MinifiedResources.toMinifiedUri(location));
+      }
+
+      // the variant the tags render is listed in place of its original, while the other variants are omitted
+      final Set<String> uris = new LinkedHashSet<>();
+      for (final String location : locations) {
+        final String uri = location.substring(directory.length());
+        if (!variants.contains(location) && !RewrittenStylesheets.isRewrittenUri(uri)) {
+          uris.add(resolve(directoryProp, uri, minified, rewritten));
+        }
+      }
+
+      for (final String uri : uris) {
+        if (excluded == null || !excluded.matcher(uri).find()) {
+          entries += append(json, entries, servletContext, directory + uri, configuration.buildPath(directoryProp, uri, false, revision));
+        }
+      }
+    }
+
+    final String themeDirectory = configuration.buildThemeLocation(false, revision);
+    final Set<String> themes = themeDirectory == null ? null : servletContext.getResourcePaths(themeDirectory);
+    if (themes != null) {
+      for (final String theme : new TreeSet<>(themes)) {
+        if (!theme.endsWith("/")) {
+          continue;
+        }
+
+        // themed resources are rendered as they are, neither rewritten nor minified
+        final String name = theme.substring(themeDirectory.length(), theme.length() - 1);
+        for (final String directoryProp : THEMED_DIRECTORIES) {
+          final String directory = configuration.buildLocation(directoryProp, "", false, revision, name);
+          for (final String location : ConfigurationUtil.listResources(servletContext, directory)) {
+            final String uri = location.substring(directory.length());
+            if (excluded == null || !excluded.matcher(uri).find()) {
+              entries += append(json, entries, servletContext, location, configuration.buildPath(directoryProp, uri, false, revision, name));
+            }
+          }
+        }
+      }
+    }
+    json.append(']');
+
+    LOG.info("Built precache manifest of {} resources for revision [{}] in {} ms", Integer.valueOf(entries), revision,
+        Long.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    return new PrecacheManifest(revision, minified, rewritten, json.toString(), entries);
+  }
+
+  /**
+   * Resolve the variant of a resource rendered by the tags, in the same order as the tags: minified, rewritten, original.
+   */
+  private static String resolve(final String directoryProp, final String uri, final MinifiedResources minified,
+      final RewrittenStylesheets rewritten) {
+    if (GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR.equals(directoryProp)) {
+      return minified == null ? uri : StringUtils.removeStart(minified.getScript(uri), "/");
+    }
+    if (!GriefTaglibProperty.RESOURCE_PROP_STYLEDIR.equals(directoryProp)) {
+      return uri;
+    }
+
+    String style = minified == null ? uri : StringUtils.removeStart(minified.getStyle(uri), "/");
+    if (rewritten != null && style.equals(uri)) {
+      style = StringUtils.removeStart(rewritten.getStyle(uri), "/");
+    }
+    return style;
+  }
+
+  private static int append(final StringBuilder json, final int entries, final ServletContext servletContext, final String location,
+      final String path) {
+    final String hash = hash(servletContext, location);
+    if (hash == null) {
+      return 0;
+    }
+
+    if (entries > 0) {
+      json.append(',');
+    }
+    json.append("{\"url\":");
+    MarkupUtil.appendJsonString(json, path);
+    json.append(",\"revision\":\"").append(hash).append("\"}");
+    return 1;
+  }
+
+  private static String hash(final ServletContext servletContext, final String location) {
+    try (InputStream in = servletContext.getResourceAsStream(location)) {
+      return in == null ? null : DigestUtils.md5DigestAsHex(StreamUtils.copyToByteArray(in));
+    } catch (final IOException e) {
+      LOG.warn("Could not read [{}]; omitting it from the precache manifest", location);
+      return null;
+    }
+  }
+
+  /**
+   * @return the manifest as JSON array of entries with <code>url</code> and <code>revision</code>
+   */
+  public String toJson() {
+    return this.json;
+  }
+
+  /**
+   * @return the revision the manifest has been built for
+   */
+  public String getRevision() {
+    return this.revision;
+  }
+
+  /**
+   * @return the number of resources listed
+   */
+  public int getEntries() {
+    return this.entries;
+  }
+}
@@ -0,0 +1,237 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.core.property.GriefProperty;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Immutable snapshot of the resource related configuration of the application using grief. The values are resolved once per {@link Environment}
+ * and shared by all tags, so rendering a resource path does not need to query the property sources again.
+ *
+ * @author Christoph Wende
+ * @see ConfigurationUtil#getResourceConfiguration(Environment)
+ */
+public final class ResourceConfiguration {
+
+  private final Environment environment;
+
+  private final String rootPath;
+
+  private final String resourceLocation;
+
+  private final String staticLocation;
+
+  private final String revisionLocationPrefix;
+
+  private final String themeLocation;
+
+  private final Map<String, String> resourceDirectories;
+
+  private final AssetHostRing assetHosts;
+
+  /**
+   * Resolve all resource properties of the given environment.
+   *
+   * @param environment
+   *          the environment of the application using grief
+   */
+  ResourceConfiguration(final Environment environment) {
+    this.environment = environment;
+    this.rootPath = environment.getProperty(GriefProperty.GRIEF_PROP_APP_ROOT);
+    this.resourceLocation = environment.getProperty(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_RESOURCES);
+    this.staticLocation = environment.getProperty(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_STATIC);
+    this.revisionLocationPrefix = environment.getProperty(GriefTaglibProperty.RESOURCE_PROP_VERSIONDIR_PREFIX);
+    this.themeLocation = StringUtils.removeEnd(environment.getProperty(GriefTaglibProperty.THEME_PROP_DIR), "/");
+
+    final Map<String, String> directories = new HashMap<>();
+    for (final String directoryProp : GriefTaglibProperty.RESOURCE_DIRECTORY_PROPERTIES) {
+      directories.put(directoryProp, environment.getProperty(directoryProp));
+    }
+    this.resourceDirectories = Collections.unmodifiableMap(directories);
+
+    this.assetHosts = AssetHostRing.parse(environment.getProperty(GriefTaglibProperty.RESOURCE_PROP_HOSTS));
+  }
+
+  /**
+   * Build the path to a static or versioned resource, as used in the rendered markup. If asset hosts are configured, the path is prefixed with the
+   * host responsible for the resource.
+   *
+   * @param relativeLocationProp
+   *          the resource location property name
+   * @param uri
+   *          the URI to the resource, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if the path to a static resource should be built, <code>false</code> otherwise
+   * @param revision
+   *          the current revision of the application
+   * @return the path to the resource
+   * @see GriefTaglibProperty#RESOURCE_PROP_HOSTS
+   */
+  public String buildPath(final String relativeLocationProp, final String uri, final boolean staticResource, final String revision) {
+    return this.buildPath(relativeLocationProp, uri, staticResource, revision, null);
+  }
+
+  /**
+   * Build the path to a static or versioned resource of a theme, as used in the rendered markup.
+   *
+   * @param relativeLocationProp
+   *          the resource location property name
+   * @param uri
+   *          the URI to the resource, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if the path to a static resource should be built, <code>false</code> otherwise
+   * @param revision
+   *          the current revision of the application
+   * @param theme
+   *          the theme providing the resource; <code>null</code> for the default resources
+   * @return the path to the resource
+   * @see GriefTaglibProperty#THEME_PROP_DIR
+   */
+  public String buildPath(final String relativeLocationProp, final String uri, final boolean staticResource, final String revision,
+      final String theme) {
+    final StringBuilder path = new StringBuilder(128);
+
+    // the revision is not part of the key, so a resource keeps its host across deployments
+    if (this.assetHosts != null) {
+      path.append(this.assetHosts.getHost(this.getResourceDirectory(relativeLocationProp), uri));
+    }
+
+    path.append(this.rootPath);
+    this.appendLocation(path, relativeLocationProp, uri, staticResource, revision, theme);
+
+    return path.toString();
+  }
+
+  /**
+   * Build the location of a static or versioned resource, relative to the web application root; e.g.
+   * <code>/resources/r1234/images/image.jpg</code>.
+   *
+   * @param relativeLocationProp
+   *          the resource location property name
+   * @param uri
+   *          the URI to the resource, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if the location of a static resource should be built, <code>false</code> otherwise
+   * @param revision
+   *          the current revision of the application
+   * @return the location of the resource inside the web application
+   */
+  public String buildLocation(final String relativeLocationProp, final String uri, final boolean staticResource, final String revision) {
+    return this.buildLocation(relativeLocationProp, uri, staticResource, revision, null);
+  }
+
+  /**
+   * Build the location of a static or versioned resource of a theme, relative to the web application root; e.g.
+   * <code>/resources/r1234/themes/brand/images/image.jpg</code>.
+   *
+   * @param relativeLocationProp
+   *          the resource location property name
+   * @param uri
+   *          the URI to the resource, relative to either the static or versioned resource directory
+   * @param staticResource
+   *          <code>true</code> if the location of a static resource should be built, <code>false</code> otherwise
+   * @param revision
+   *          the current revision of the application
+   * @param theme
+   *          the theme providing the resource; <code>null</code> for the default resources
+   * @return the location of the resource inside the web application
+   */
+  public String buildLocation(final String relativeLocationProp, final String uri, final boolean staticResource, final String revision,
+      final String theme) {
+    final StringBuilder location = new StringBuilder(96);
+    this.appendLocation(location, relativeLocationProp, uri, staticResource, revision, theme);
+    return location.toString();
+  }
+
+  /**
+   * Build the location of the directory holding the themes inside the static or versioned resource directory, ending with a slash; e.g.
+   * <code>/resources/r1234/themes/</code>.
+   *
+   * @param staticResource
+   *          <code>true</code> for the themes of the static resources, <code>false</code> for the versioned ones
+   * @param revision
+   *          the current revision of the application
+   * @return the location of the theme directory or <code>null</code>, if no theme directory is configured
+   */
+  public String buildThemeLocation(final boolean staticResource, final String revision) {
+    if (this.themeLocation == null) {
+      return null;
+    }
+
+    final StringBuilder location = new StringBuilder(64);
+    this.appendBaseLocation(location, staticResource, revision);
+    return location.append(this.themeLocation).append('/').toString();
+  }
+
+  private void appendLocation(final StringBuilder location, final String relativeLocationProp, final String uri, final boolean staticResource,
+      final String revision, final String theme) {
+    this.appendBaseLocation(location, staticResource, revision);
+
+    if (theme != null) {
+      location.append(this.themeLocation).append('/').append(theme);
+    }
+
+    location.append(this.getResourceDirectory(relativeLocationProp)).append(uri.startsWith("/") ? "" : "/").append(uri);
+  }
+
+  private void appendBaseLocation(final StringBuilder location, final boolean staticResource, final String revision) {
+    location.append(this.resourceLocation);
+
+    if (staticResource) {
+      location.append(this.staticLocation);
+    } else {
+      location.append(this.revisionLocationPrefix).append(revision);
+    }
+  }
+
+  /**
+   * Get the configured directory of a resource type, relative to the static and/or versioned directories.
+   *
+   * @param relativeLocationProp
+   *          the resource location property name, e.g. {@link GriefTaglibProperty#RESOURCE_PROP_IMAGEDIR}
+   * @return the configured directory
+   */
+  public String getResourceDirectory(final String relativeLocationProp) {
+    if (this.resourceDirectories.containsKey(relativeLocationProp)) {
+      return this.resourceDirectories.get(relativeLocationProp);
+    }
+    return this.environment.getProperty(relativeLocationProp);
+  }
+
+  /**
+   * @return the configured asset hosts or <code>null</code>, if resources are served by the application host
+   */
+  public AssetHostRing getAssetHosts() {
+    return this.assetHosts;
+  }
+
+  public String getRootPath() {
+    return this.rootPath;
+  }
+
+  public String getResourceLocation() {
+    return this.resourceLocation;
+  }
+
+  public String getStaticLocation() {
+    return this.staticLocation;
+  }
+
+  public String getRevisionLocationPrefix() {
+    return this.revisionLocationPrefix;
+  }
+
+  /**
+   * @return the configured theme directory or <code>null</code>, if themes are not used
+   */
+  public String getThemeLocation() {
+    return this.themeLocation;
+  }
+
+}
@@ -0,0 +1,102 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.init.StylesheetRewriteTask;
+
+/**
+ * The rewritten variants of the versioned stylesheets, written next to the originals by the {@link StylesheetRewriteTask} on startup, e.g.
+ * <code>app.rewritten.css</code> for <code>app.css</code>. The originals are never touched, so every startup rewrites them from scratch for the
+ * current configuration. The style tag renders the rewritten variant, unless a minified one is rendered, which is minified from the rewritten
+ * variant in turn.
+ *
+ * @author Christoph Wende
+ */
+public final class RewrittenStylesheets {
+
+  private static final String SUFFIX = ".rewritten";
+
+  private static final ConcurrentMap<Environment, RewrittenStylesheets> INSTANCES = new ConcurrentHashMap<>();
+
+  private final Map<String, String> styles;
+
+  /**
+   * @param styles
+   *          the URIs of the rewritten stylesheets, mapped by the URIs of the originals
+   */
+  public RewrittenStylesheets(final Map<String, String> styles) {
+    this.styles = Collections.unmodifiableMap(new HashMap<>(styles));
+  }
+
+  /**
+   * Get the rewritten stylesheets to render.
+   *
+   * @param env
+   *          the environment of the application
+   * @return the rewritten stylesheets or <code>null</code>, if none have been written
+   */
+  public static RewrittenStylesheets get(final Environment env) {
+    return INSTANCES.get(env);
+  }
+
+  /**
+   * Forget the rewritten stylesheets of an application.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    INSTANCES.remove(env);
+  }
+
+  /**
+   * Register the rewritten stylesheets of the application, replacing the previous ones.
+   *
+   * @param env
+   *          the environment of the application
+   * @param stylesheets
+   *          the rewritten stylesheets
+   */
+  public static void register(final Environment env, final RewrittenStylesheets stylesheets) {
+    INSTANCES.put(env, stylesheets);
+  }
+
+  /**
+   * Derive the URI of the rewritten variant of a stylesheet, e.g. <code>app.rewritten.css</code> for <code>app.css</code>.
+   *
+   * @param uri
+   *          the URI of the original
+   * @return the URI of the rewritten variant
+   */
+  public static String toRewrittenUri(final String uri) {
+    final int extension = uri.lastIndexOf('.');
+    return extension > uri.lastIndexOf('/') ? uri.substring(0, extension) + SUFFIX + uri.substring(extension) : uri + SUFFIX;
+  }
+
+  /**
+   * @param uri
+   *          the URI of a stylesheet
+   * @return <code>true</code>, if it is a rewritten variant of another stylesheet, which must not be processed as an original
+   */
+  public static boolean isRewrittenUri(final String uri) {
+    return StringUtils.endsWith(uri.toLowerCase(Locale.ROOT), SUFFIX + ".css");
+  }
+
+  /**
+   * @param uri
+   *          the URI of a stylesheet, relative to the style directory
+   * @return the URI of the rewritten variant, or the given URI, if there is none
+   */
+  public String getStyle(final String uri) {
+    final String rewritten = this.styles.get(StringUtils.removeStart(uri, "/"));
+    return rewritten == null ? uri : rewritten;
+  }
+}
@@ -0,0 +1,231 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Dependency graph of the applications scripts, loaded from the descriptor configured in
+ * {@link GriefTaglibProperty#SCRIPT_PROP_DEPENDENCIES}. The descriptor is a properties file mapping a script to a comma separated list of the
+ * scripts it depends on, all relative to the script directory; e.g.:<br>
+ * <br>
+ * <code>app.js=vendor.js,util.js</code><br>
+ * <br>
+ * The graph is sorted topologically once when loading, so the dependencies of every script are known in execution order without any work at
+ * request time.
+ *
+ * @author Christoph Wende
+ */
+public final class ScriptDependencyGraph {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ScriptDependencyGraph.class);
+
+  private static final ConcurrentMap<Environment, ScriptDependencyGraph> GRAPHS = new ConcurrentHashMap<>();
+
+  private static final ScriptDependencyGraph EMPTY = new ScriptDependencyGraph(Collections.<String, List<String>> emptyMap());
+
+  private final List<String> order;
+
+  private final Map<String, List<String>> dependencies;
+
+  /**
+   * Build the graph and sort it topologically.
+   *
+   * @param directDependencies
+   *          the direct dependencies of each script, in the order they are declared
+   * @throws IllegalStateException
+   *           in case the dependencies contain a cycle
+   */
+  public ScriptDependencyGraph(final Map<String, List<String>> directDependencies) {
+    final Set<String> sorted = new LinkedHashSet<>();
+    final Map<String, List<String>> resolved = new HashMap<>();
+
+    for (final String script : new TreeMap<>(directDependencies).keySet()) {
+      visit(script, directDependencies, sorted, new LinkedHashSet<String>());
+    }
+
+    // the transitive dependencies of a script are all scripts sorted before it, which it can reach
+    for (final String script : sorted) {
+      final Set<String> reachable = new LinkedHashSet<>();
+      collect(script, directDependencies, reachable);
+
+      final List<String> scriptDependencies = new ArrayList<>(reachable.size());
+      for (final String candidate : sorted) {
+        if (reachable.contains(candidate)) {
+          scriptDependencies.add(candidate);
+        }
+      }
+      resolved.put(script, Collections.unmodifiableList(scriptDependencies));
+    }
+
+    this.order = Collections.unmodifiableList(new ArrayList<>(sorted));
+    this.dependencies = Collections.unmodifiableMap(resolved);
+  }
+
+  /**
+   * Get the dependency graph of the application, loading it on first access.
+   *
+   * @param applicationContext
+   *          the application context used to read the configuration and the descriptor
+   * @return the graph; empty if no descriptor is configured or it cannot be used
+   */
+  public static ScriptDependencyGraph get(final ApplicationContext applicationContext) {
+    final Environment env = applicationContext.getEnvironment();
+    ScriptDependencyGraph graph = GRAPHS.get(env);
+
+    if (graph == null) {
+      graph = load(applicationContext, env.getProperty(GriefTaglibProperty.SCRIPT_PROP_DEPENDENCIES));
+      final ScriptDependencyGraph existing = GRAPHS.putIfAbsent(env, graph);
+      if (existing != null) {
+        graph = existing;
+      }
+    }
+    return graph;
+  }
+
+  /**
+   * Drop the dependency graph of an application, so the descriptor is read again on next access.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    GRAPHS.remove(env);
+  }
+
+  /**
+   * Load a dependency graph from a descriptor.
+   *
+   * @param resourceLoader
+   *          the resource loader to read the descriptor with
+   * @param location
+   *          the location of the descriptor; may be <code>null</code>
+   * @return the graph; empty if the descriptor does not exist or contains a cycle
+   */
+  public static ScriptDependencyGraph load(final ResourceLoader resourceLoader, final String location) {
+    if (StringUtils.isBlank(location)) {
+      return EMPTY;
+    }
+
+    final Resource resource = resourceLoader.getResource(location);
+    if (!resource.exists()) {
+      LOG.warn("Script dependency descriptor [{}] does not exist", location);
+      return EMPTY;
+    }
+
+    final Properties descriptor = new Properties();
+    try (InputStream in = resource.getInputStream()) {
+      descriptor.load(in);
+    } catch (final IOException e) {
+      LOG.error("Could not read script dependency descriptor [" + location + "]", e);
+      return EMPTY;
+    }
+
+    final Map<String, List<String>> directDependencies = new HashMap<>();
+    for (final String script : descriptor.stringPropertyNames()) {
+      final List<String> scriptDependencies = new ArrayList<>();
+      for (final String dependency : StringUtils.split(descriptor.getProperty(script), ',')) {
+        if (StringUtils.isNotBlank(dependency)) {
+          scriptDependencies.add(normalize(dependency));
+        }
+      }
+      directDependencies.put(normalize(script), scriptDependencies);
+    }
+
+    final ScriptDependencyGraph graph;
+    try {
+      graph = new ScriptDependencyGraph(directDependencies);
+    } catch (final IllegalStateException e) {
+      // the empty graph is cached, so the descriptor is neither parsed nor reported again on every script tag
+      LOG.error("Ignoring script dependency descriptor [{}]: {}", location, e.getMessage());
+      return EMPTY;
+    }
+    LOG.debug("Loaded {} scripts from dependency descriptor [{}]", Integer.valueOf(graph.order.size()), location);
+    return graph;
+  }
+
+  /**
+   * Get the transitive dependencies of a script.
+   *
+   * @param script
+   *          the script, relative to the script directory; a leading slash is ignored
+   * @return the dependencies in execution order, not containing the script itself
+   */
+  public List<String> getDependencies(final String script) {
+    final List<String> scriptDependencies = this.dependencies.get(normalize(script));
+    return scriptDependencies == null ? Collections.<String> emptyList() : scriptDependencies;
+  }
+
+  /**
+   * Normalize the URI of a script, so it is known to the graph no matter whether it is passed with a leading slash or not.
+   *
+   * @param script
+   *          the script, relative to the script directory
+   * @return the script without surrounding whitespace and leading slash
+   */
+  public static String normalize(final String script) {
+    return StringUtils.removeStart(StringUtils.trimToEmpty(script), "/");
+  }
+
+  /**
+   * @return all known scripts in execution order
+   */
+  public List<String> getOrder() {
+    return this.order;
+  }
+
+  public boolean isEmpty() {
+    return this.order.isEmpty();
+  }
+
+  private static void visit(final String script, final Map<String, List<String>> directDependencies, final Set<String> sorted,
+      final Set<String> path) {
+    if (sorted.contains(script)) {
+      return;
+    }
+    if (!path.add(script)) {
+      throw new IllegalStateException("Cyclic script dependency: " + StringUtils.join(path, " -> ") + " -> " + script);
+    }
+
+    final List<String> scriptDependencies = directDependencies.get(script);
+    if (scriptDependencies != null) {
+      for (final String dependency : scriptDependencies) {
+        visit(dependency, directDependencies, sorted, path);
+      }
+    }
+
+    path.remove(script);
+    sorted.add(script);
+  }
+
+  private static void collect(final String script, final Map<String, List<String>> directDependencies, final Set<String> reachable) {
+    final List<String> scriptDependencies = directDependencies.get(script);
+    if (scriptDependencies != null) {
+      for (final String dependency : scriptDependencies) {
+        if (reachable.add(dependency)) {
+          collect(dependency, directDependencies, reachable);
+        }
+      }
+    }
+  }
+}
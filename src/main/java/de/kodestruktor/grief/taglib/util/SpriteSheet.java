@@ -0,0 +1,240 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Layout of a sprite sheet, packing many small icons into a single image. The icons are sorted by height and placed on shelves, which wastes
+ * little space for icons of similar size and is cheap enough to run on every startup. Along with the image a stylesheet is generated, mapping
+ * every icon to a CSS class with its size and position in the sheet.<br>
+ * <br>
+ * The sheet is built by the initializer on startup, see {@link GriefTaglibProperty#SPRITE_PROP_DIR}, and registered per application.
+ *
+ * @author Christoph Wende
+ */
+public final class SpriteSheet {
+
+  /**
+   * CSS class shared by all icons of the sheet.
+   */
+  public static final String CSS_CLASS = "g-icon";
+
+  private static final int PADDING = 2;
+
+  private static final ConcurrentMap<Environment, SpriteSheet> SHEETS = new ConcurrentHashMap<>();
+
+  private final Map<String, Sprite> sprites;
+
+  private final int width;
+
+  private final int height;
+
+  private SpriteSheet(final Map<String, Sprite> sprites, final int width, final int height) {
+    this.sprites = Collections.unmodifiableMap(sprites);
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Get the sprite sheet of the application.
+   *
+   * @param env
+   *          the environment of the application
+   * @return the sheet or <code>null</code>, if no sheet has been built
+   */
+  public static SpriteSheet get(final Environment env) {
+    return SHEETS.get(env);
+  }
+
+  /**
+   * Forget the sprite sheet of an application.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    SHEETS.remove(env);
+  }
+
+  /**
+   * Register the sprite sheet of the application, replacing the previous one.
+   *
+   * @param env
+   *          the environment of the application
+   * @param sheet
+   *          the sheet
+   */
+  public static void register(final Environment env, final SpriteSheet sheet) {
+    SHEETS.put(env, sheet);
+  }
+
+  /**
+   * Pack the icons into a sheet.
+   *
+   * @param icons
+   *          the icons, mapped by their URI relative to the image directory
+   * @return the sheet
+   */
+  public static SpriteSheet pack(final Map<String, BufferedImage> icons) {
+    final List<Map.Entry<String, BufferedImage>> entries = new ArrayList<>(icons.entrySet());
+    Collections.sort(entries, new Comparator<Map.Entry<String, BufferedImage>>() {
+
+      @Override
+      public int compare(final Map.Entry<String, BufferedImage> o1, final Map.Entry<String, BufferedImage> o2) {
+        final int result = Integer.compare(o2.getValue().getHeight(), o1.getValue().getHeight());
+        return result != 0 ? result : o1.getKey().compareTo(o2.getKey());
+      }
+    });
+
+    // aim for a square sheet, but at least as wide as the widest icon
+    long area = 0;
+    int maxWidth = 0;
+    for (final Map.Entry<String, BufferedImage> entry : entries) {
+      area += (long) (entry.getValue().getWidth() + PADDING) * (entry.getValue().getHeight() + PADDING);
+      maxWidth = Math.max(maxWidth, entry.getValue().getWidth() + PADDING);
+    }
+    final int shelfWidth = Math.max(maxWidth, (int) Math.ceil(Math.sqrt(area)));
+
+    final Map<String, Sprite> sprites = new LinkedHashMap<>();
+    int x = 0;
+    int y = 0;
+    int shelfHeight = 0;
+    int sheetWidth = 0;
+    for (final Map.Entry<String, BufferedImage> entry : entries) {
+      final BufferedImage icon = entry.getValue();
+      if (x + icon.getWidth() > shelfWidth) {
+        x = 0;
+        y += shelfHeight + PADDING;
+        shelfHeight = 0;
+      }
+
+      sprites.put(entry.getKey(), new Sprite(MarkupUtil.toIdentifier(CSS_CLASS, entry.getKey()), x, y, icon.getWidth(), icon.getHeight()));
+      sheetWidth = Math.max(sheetWidth, x + icon.getWidth());
+      shelfHeight = Math.max(shelfHeight, icon.getHeight());
+      x += icon.getWidth() + PADDING;
+    }
+
+    return new SpriteSheet(sprites, Math.max(1, sheetWidth), Math.max(1, y + shelfHeight));
+  }
+
+  /**
+   * Draw the sheet.
+   *
+   * @param icons
+   *          the icons the sheet has been packed from
+   * @return the image of the sheet
+   */
+  public BufferedImage paint(final Map<String, BufferedImage> icons) {
+    final BufferedImage image = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_ARGB);
+    final Graphics2D graphics = image.createGraphics();
+    try {
+      for (final Map.Entry<String, Sprite> entry : this.sprites.entrySet()) {
+        graphics.drawImage(icons.get(entry.getKey()), entry.getValue().getX(), entry.getValue().getY(), null);
+      }
+    } finally {
+      graphics.dispose();
+    }
+    return image;
+  }
+
+  /**
+   * Generate the stylesheet of the sheet.
+   *
+   * @param imagePath
+   *          the path of the sheet image, as rendered to the client
+   * @return the stylesheet
+   */
+  public String toCss(final String imagePath) {
+    final StringBuilder css = new StringBuilder(64 + this.sprites.size() * 96);
+    css.append('.').append(CSS_CLASS).append("{display:inline-block;background-image:url(\"").append(imagePath)
+        .append("\");background-repeat:no-repeat}\n");
+
+    for (final Sprite sprite : this.sprites.values()) {
+      css.append('.').append(sprite.getCssClass()).append("{width:").append(sprite.getWidth()).append("px;height:").append(sprite.getHeight())
+          .append("px;background-position:").append(-sprite.getX()).append("px ").append(-sprite.getY()).append("px}\n");
+    }
+    return css.toString();
+  }
+
+  /**
+   * Get the sprite of an icon.
+   *
+   * @param uri
+   *          the URI of the icon, relative to the image directory
+   * @return the sprite or <code>null</code>, if the icon is not part of the sheet
+   */
+  public Sprite getSprite(final String uri) {
+    return this.sprites.get(StringUtils.removeStart(uri, "/"));
+  }
+
+  public Map<String, Sprite> getSprites() {
+    return this.sprites;
+  }
+
+  public int getWidth() {
+    return this.width;
+  }
+
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Position and size of a single icon in the sheet.
+   *
+   * @author Christoph Wende
+   */
+  public static final class Sprite {
+
+    private final String cssClass;
+
+    private final int x;
+
+    private final int y;
+
+    private final int width;
+
+    private final int height;
+
+    Sprite(final String cssClass, final int x, final int y, final int width, final int height) {
+      this.cssClass = cssClass;
+      this.x = x;
+      this.y = y;
+      this.width = width;
+      this.height = height;
+    }
+
+    public String getCssClass() {
+      return this.cssClass;
+    }
+
+    public int getX() {
+      return this.x;
+    }
+
+    public int getY() {
+      return this.y;
+    }
+
+    public int getWidth() {
+      return this.width;
+    }
+
+    public int getHeight() {
+      return this.height;
+    }
+  }
+}
@@ -0,0 +1,302 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StreamUtils;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Cache of cleaned SVG files, loaded lazily on first use. The cache is bounded by the total number of characters configured in
+ * {@link GriefTaglibProperty#SVG_PROP_CACHE_SIZE}, counting all strings retained per file, and evicts the least recently used files first. It is
+ * cleared as soon as a new revision is requested.<br>
+ * <br>
+ * Cleaning removes everything not needed to render the SVG inline: the XML declaration, doctype, comments, metadata and the whitespace between
+ * elements. The ids defined inside the SVG, e.g. of gradients, clip paths or masks, are collected, so they can be made unique per rendering by
+ * {@link Svg#getContent(String)}.
+ *
+ * @author Christoph Wende
+ */
+public final class SvgCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SvgCache.class);
+
+  private static final int DEFAULT_CACHE_SIZE = 512 * 1024;
+
+  private static final Pattern CLUTTER = Pattern.compile("<\\?xml.*?\\?>|<!DOCTYPE[^>]*>|<!--.*?-->|<metadata[\\s>].*?</metadata>", Pattern.DOTALL
+      | Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern WHITESPACE = Pattern.compile(">\\s+<");
+
+  private static final Pattern ROOT_ATTRIBUTES = Pattern.compile("\\s(?:class|id)\\s*=\\s*(?:\"[^\"]*\"|'[^']*')");
+
+  private static final Pattern VIEW_BOX = Pattern.compile("\\sviewBox\\s*=\\s*[\"']([^\"']*)[\"']");
+
+  private static final Pattern WIDTH = Pattern.compile("\\swidth\\s*=\\s*[\"'](\\d+)(?:px)?[\"']");
+
+  private static final Pattern HEIGHT = Pattern.compile("\\sheight\\s*=\\s*[\"'](\\d+)(?:px)?[\"']");
+
+  private static final Pattern ID = Pattern.compile("\\sid\\s*=\\s*[\"']([^\"']+)[\"']");
+
+  private static final Pattern ID_OR_REFERENCE = Pattern.compile(
+      "(\\sid\\s*=\\s*[\"']|url\\(\\s*[\"']?#|\\s(?:xlink:)?href\\s*=\\s*[\"']#)([^\"')\\s]+)");
+
+  private static final Svg NONE = new Svg("", "", "", null, Collections.<String> emptySet());
+
+  private static final ConcurrentMap<Environment, SvgCache> INSTANCES = new ConcurrentHashMap<>();
+
+  private final ResourceLoader resourceLoader;
+
+  private final int cacheSize;
+
+  private final LinkedHashMap<String, Svg> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+  private int size;
+
+  private String revision;
+
+  /**
+   * @param resourceLoader
+   *          the resource loader to read the files with, relative to the web application root
+   * @param cacheSize
+   *          the maximum number of characters to cache, counting all strings retained per file
+   */
+  public SvgCache(final ResourceLoader resourceLoader, final int cacheSize) {
+    this.resourceLoader = resourceLoader;
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * Get the SVG cache of the application, creating it on first access.
+   *
+   * @param applicationContext
+   *          the application context used to read the configuration and the files
+   * @return the cache
+   */
+  public static SvgCache get(final ApplicationContext applicationContext) {
+    final Environment env = applicationContext.getEnvironment();
+    SvgCache cache = INSTANCES.get(env);
+
+    if (cache == null) {
+      cache = new SvgCache(applicationContext,
+          env.getProperty(GriefTaglibProperty.SVG_PROP_CACHE_SIZE, Integer.class, Integer.valueOf(DEFAULT_CACHE_SIZE)).intValue());
+      final SvgCache existing = INSTANCES.putIfAbsent(env, cache);
+      if (existing != null) {
+        cache = existing;
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * Drop the SVG documents cached for an application.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    INSTANCES.remove(env);
+  }
+
+  /**
+   * Get a cleaned SVG file, loading it if neccessary.
+   *
+   * @param location
+   *          the location of the file inside the web application
+   * @param currentRevision
+   *          the current revision of the application; the cache is cleared whenever it changes
+   * @return the SVG or <code>null</code>, if the file does not exist or is no SVG
+   */
+  public Svg get(final String location, final String currentRevision) {
+    Svg svg;
+    synchronized (this.cache) {
+      if (!StringUtils.equals(this.revision, currentRevision)) {
+        this.cache.clear();
+        this.size = 0;
+        this.revision = currentRevision;
+      }
+      svg = this.cache.get(location);
+    }
+
+    if (svg == null) {
+      svg = this.load(location);
+      synchronized (this.cache) {
+        if (StringUtils.equals(this.revision, currentRevision) && this.cache.put(location, svg) == null) {
+          this.size += svg.getWeight();
+          this.evict();
+        }
+      }
+    }
+    return svg == NONE ? null : svg;
+  }
+
+  private void evict() {
+    final Iterator<Svg> eldest = this.cache.values().iterator();
+    while (this.size > this.cacheSize && eldest.hasNext()) {
+      this.size -= eldest.next().getWeight();
+      eldest.remove();
+    }
+  }
+
+  private Svg load(final String location) {
+    final Resource resource = this.resourceLoader.getResource(location);
+    if (!resource.exists()) {
+      LOG.warn("SVG [{}] does not exist", location);
+      return NONE;
+    }
+
+    final String content;
+    try (InputStream in = resource.getInputStream()) {
+      content = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+    } catch (final IOException e) {
+      LOG.error("Could not read SVG [" + location + "]", e);
+      return NONE;
+    }
+
+    final String markup = WHITESPACE.matcher(CLUTTER.matcher(content).replaceAll("")).replaceAll("><").trim();
+    final int start = markup.indexOf("<svg");
+    final int startEnd = start < 0 ? -1 : markup.indexOf('>', start);
+    if (startEnd < 0) {
+      LOG.warn("[{}] is no SVG", location);
+      return NONE;
+    }
+
+    final String startTag = markup.substring(start, startEnd + 1);
+    final int end = markup.lastIndexOf("</svg>");
+    final String innerContent = startTag.endsWith("/>") || end < startEnd ? "" : markup.substring(startEnd + 1, end);
+
+    // class and id are set by the tag rendering the SVG
+    final String attributes = ROOT_ATTRIBUTES.matcher(startTag.substring("<svg".length(), startTag.length() - (startTag.endsWith("/>") ? 2 : 1)))
+        .replaceAll("");
+
+    final Set<String> ids = new HashSet<>();
+    final Matcher id = ID.matcher(innerContent);
+    while (id.find()) {
+      ids.add(id.group(1));
+    }
+
+    return new Svg(markup.substring(start), attributes, innerContent, findViewBox(startTag), ids);
+  }
+
+  private static String findViewBox(final String startTag) {
+    final Matcher viewBox = VIEW_BOX.matcher(startTag);
+    if (viewBox.find()) {
+      return viewBox.group(1);
+    }
+
+    final Matcher width = WIDTH.matcher(startTag);
+    final Matcher height = HEIGHT.matcher(startTag);
+    if (width.find() && height.find()) {
+      return "0 0 " + width.group(1) + " " + height.group(1);
+    }
+    return null;
+  }
+
+  /**
+   * A cleaned SVG file.
+   *
+   * @author Christoph Wende
+   */
+  public static final class Svg {
+
+    private final String markup;
+
+    private final String attributes;
+
+    private final String content;
+
+    private final String viewBox;
+
+    private final Set<String> ids;
+
+    Svg(final String markup, final String attributes, final String content, final String viewBox, final Set<String> ids) {
+      this.markup = markup;
+      this.attributes = attributes;
+      this.content = content;
+      this.viewBox = viewBox;
+      this.ids = ids;
+    }
+
+    /**
+     * @return the complete cleaned markup, starting with the <code>svg</code> element
+     */
+    public String getMarkup() {
+      return this.markup;
+    }
+
+    /**
+     * @return the attributes of the <code>svg</code> element, each preceded by a blank
+     */
+    public String getAttributes() {
+      return this.attributes;
+    }
+
+    /**
+     * @return the content of the <code>svg</code> element
+     */
+    public String getContent() {
+      return this.content;
+    }
+
+    /**
+     * Get the content of the <code>svg</code> element with all ids defined inside it and the local references to them, i.e.
+     * <code>url(#id)</code>, <code>href="#id"</code> and <code>xlink:href="#id"</code>, prefixed. An SVG rendered several times into the same
+     * page thus does not define the same ids twice, which would let its references resolve to the first rendering only.
+     *
+     * @param prefix
+     *          the prefix, unique per rendering of the SVG in a page
+     * @return the content with prefixed ids, or the content itself, if it defines no ids
+     */
+    public String getContent(final String prefix) {
+      if (this.ids.isEmpty()) {
+        return this.content;
+      }
+
+      final StringBuffer prefixed = new StringBuffer(this.content.length() + this.ids.size() * 2 * (prefix.length() + 1));
+      final Matcher matcher = ID_OR_REFERENCE.matcher(this.content);
+      while (matcher.find()) {
+        if (this.ids.contains(matcher.group(2))) {
+          matcher.appendReplacement(prefixed, Matcher.quoteReplacement(matcher.group(1) + prefix + "-" + matcher.group(2)));
+        }
+      }
+      matcher.appendTail(prefixed);
+      return prefixed.toString();
+    }
+
+    /**
+     * @return the view box of the SVG; <code>null</code> if it has neither a view box nor a width and height in pixels
+     */
+    public String getViewBox() {
+      return this.viewBox;
+    }
+
+    /**
+     * @return the number of characters retained by this SVG, as the attributes and the content are kept besides the markup
+     */
+    int getWeight() {
+      int weight = this.markup.length() + this.attributes.length() + this.content.length() + (this.viewBox == null ? 0 : this.viewBox.length());
+      for (final String id : this.ids) {
+        weight += id.length();
+      }
+      return weight;
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package de.kodestruktor.grief.taglib.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletContext;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Index of the resources provided by each theme, resolving which theme a resource has to be served from without touching the file system. A theme
+ * overrides some of the default resources by providing files with the same URI in its directory below
+ * {@link GriefTaglibProperty#THEME_PROP_DIR}. Resources missing in a theme are looked up along the chain configured in
+ * {@link GriefTaglibProperty#THEME_PROP_FALLBACK} and finally taken from the default resources.<br>
+ * <br>
+ * The index is built by listing the theme directories once, usually on startup, and merged per theme along its fallback chain, so resolving a
+ * resource is a single map lookup. As the versioned themes depend on the revision, the index is rebuilt as soon as another revision is requested;
+ * concurrent requests wait for a single rebuild instead of listing the directories each.
+ *
+ * @author Christoph Wende
+ */
+public final class ThemeIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ThemeIndex.class);
+
+  private static final ConcurrentMap<Environment, ThemeIndex> INSTANCES = new ConcurrentHashMap<>();
+
+  private final String revision;
+
+  private final Map<String, Map<String, String>> staticResources;
+
+  private final Map<String, Map<String, String>> versionedResources;
+
+  /**
+   * @param revision
+   *          the revision the versioned resources have been indexed for
+   * @param staticResources
+   *          the themes providing the static resources, mapped by the requested theme and the location of the resource inside the theme
+   * @param versionedResources
+   *          the themes providing the versioned resources, mapped by the requested theme and the location of the resource inside the theme
+   */
+  ThemeIndex(final String revision, final Map<String, Map<String, String>> staticResources,
+      final Map<String, Map<String, String>> versionedResources) {
+    this.revision = revision;
+    this.staticResources = staticResources;
+    this.versionedResources = versionedResources;
+  }
+
+  /**
+   * Get the theme index of the application, building it on first access or if the revision has changed.
+   *
+   * @param servletContext
+   *          the servlet context to list the theme directories with
+   * @param env
+   *          the environment of the application
+   * @param revision
+   *          the current revision of the application
+   * @return the theme index or <code>null</code>, if no theme directory is configured
+   */
+  public static ThemeIndex get(final ServletContext servletContext, final Environment env, final String revision) {
+    final ResourceConfiguration configuration = ConfigurationUtil.getResourceConfiguration(env);
+    if (configuration.getThemeLocation() == null) {
+      return null;
+    }
+
+    ThemeIndex index = INSTANCES.get(env);
+    if (index == null || !StringUtils.equals(index.revision, revision)) {
+      // listing all theme directories is expensive, so it is done once while concurrent requests wait for it
+      synchronized (INSTANCES) {
+        index = INSTANCES.get(env);
+        if (index == null || !StringUtils.equals(index.revision, revision)) {
+          index = build(servletContext, configuration, parseFallbacks(env.getProperty(GriefTaglibProperty.THEME_PROP_FALLBACK)), revision);
+          INSTANCES.put(env, index);
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Drop the theme index of an application.
+   *
+   * @param env
+   *          the environment of the application
+   */
+  static void clear(final Environment env) {
+    INSTANCES.remove(env);
+  }
+
+  /**
+   * Resolve the theme providing a resource.
+   *
+   * @param theme
+   *          the theme of the current request; may be <code>null</code>
+   * @param directory
+   *          the configured directory of the resource type, e.g. <code>/images</code>
+   * @param uri
+   *          the URI to the resource, relative to the directory of its type
+   * @param staticResource
+   *          <code>true</code> for a static resource, <code>false</code> for a versioned one
+   * @return the theme providing the resource or <code>null</code>, if the default resource has to be used
+   */
+  public String resolve(final String theme, final String directory, final String uri, final boolean staticResource) {
+    if (theme == null) {
+      return null;
+    }
+
+    final Map<String, String> providers = (staticResource ? this.staticResources : this.versionedResources).get(theme);
+    if (providers == null) {
+      return null;
+    }
+    return providers.get(directory + (uri.startsWith("/") ? "" : "/") + uri);
+  }
+
+  /**
+   * @return the revision the versioned resources have been indexed for
+   */
+  public String getRevision() {
+    return this.revision;
+  }
+
+  private static ThemeIndex build(final ServletContext servletContext, final ResourceConfiguration configuration,
+      final Map<String, String> fallbacks, final String revision) {
+    final long start = System.nanoTime();
+
+    final ThemeIndex index = new ThemeIndex(revision, index(servletContext, configuration.buildThemeLocation(true, revision), fallbacks),
+        index(servletContext, configuration.buildThemeLocation(false, revision), fallbacks));
+
+    LOG.info("Indexed {} static and {} versioned themes of revision [{}] in {} ms", Integer.valueOf(index.staticResources.size()),
+        Integer.valueOf(index.versionedResources.size()), revision, Long.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    return index;
+  }
+
+  private static Map<String, Map<String, String>> index(final ServletContext servletContext, final String themeDirectory,
+      final Map<String, String> fallbacks) {
+    final Map<String, Set<String>> resources = new HashMap<>();
+
+    final Set<String> themeDirectories = servletContext.getResourcePaths(themeDirectory);
+    if (themeDirectories != null) {
+      for (final String directory : themeDirectories) {
+        if (!directory.endsWith("/")) {
+          continue;
+        }
+
+        final Set<String> locations = new HashSet<>();
+        for (final String resource : ConfigurationUtil.listResources(servletContext, directory)) {
+          // keeps the leading slash, like the configured resource directories
+          locations.add(resource.substring(directory.length() - 1));
+        }
+        resources.put(StringUtils.substringAfterLast(StringUtils.removeEnd(directory, "/"), "/"), locations);
+      }
+    }
+
+    final Set<String> themes = new HashSet<>(resources.keySet());
+    themes.addAll(fallbacks.keySet());
+
+    final Map<String, Map<String, String>> index = new HashMap<>();
+    for (final String theme : themes) {
+      final Map<String, String> providers = new HashMap<>();
+      final Set<String> visited = new HashSet<>();
+
+      // the nearest theme of the chain providing a resource wins; the visited themes guard against cyclic fallbacks
+      for (String current = theme; current != null && visited.add(current); current = fallbacks.get(current)) {
+        final Set<String> locations = resources.get(current);
+        if (locations != null) {
+          for (final String location : locations) {
+            if (!providers.containsKey(location)) {
+              providers.put(location, current);
+            }
+          }
+        }
+      }
+      index.put(theme, Collections.unmodifiableMap(providers));
+    }
+    return Collections.unmodifiableMap(index);
+  }
+
+  private static Map<String, String> parseFallbacks(final String fallback) {
+    final Map<String, String> fallbacks = new HashMap<>();
+    if (StringUtils.isBlank(fallback)) {
+      return fallbacks;
+    }
+
+    for (final String pair : StringUtils.split(fallback, ", ")) {
+      final String theme = StringUtils.substringBefore(pair, ":");
+      final String parent = StringUtils.substringAfter(pair, ":");
+      if (StringUtils.isBlank(theme) || StringUtils.isBlank(parent)) {
+        LOG.warn("Ignoring invalid theme fallback [{}]", pair);
+      } else {
+        fallbacks.put(theme, parent);
+      }
+    }
+    return fallbacks;
+  }
+}
@@ -0,0 +1,40 @@
+package de.kodestruktor.grief.taglib.init;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+
+import de.kodestruktor.grief.taglib.util.ConfigurationUtil;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+import de.kodestruktor.grief.taglib.util.ResourceConfiguration;
+
+/**
+ * Tests the {@link GriefTaglibInitializer} releasing the caches of a closed context.
+ *
+ * @author Christoph Wende
+ */
+public class GriefTaglibInitializerTest {
+
+  @Test
+  public void clearsCachesOnClose() {
+    final StaticWebApplicationContext applicationContext = new StaticWebApplicationContext();
+    applicationContext.getEnvironment().setActiveProfiles("production");
+    final ResourceConfiguration configuration = ConfigurationUtil.getResourceConfiguration(applicationContext.getEnvironment());
+    MinifiedResources.register(applicationContext.getEnvironment(),
+        new MinifiedResources(Collections.<String, String> emptyMap(), Collections.<String, String> emptyMap(), 0L, 0L));
+    assertSame(configuration, ConfigurationUtil.getResourceConfiguration(applicationContext.getEnvironment()));
+    assertNotNull(MinifiedResources.get(applicationContext.getEnvironment()));
+
+    new GriefTaglibInitializer().onApplicationEvent(new ContextClosedEvent(applicationContext));
+
+    assertNotSame(configuration, ConfigurationUtil.getResourceConfiguration(applicationContext.getEnvironment()));
+    assertNull(MinifiedResources.get(applicationContext.getEnvironment()));
+  }
+}
@@ -0,0 +1,108 @@
+package de.kodestruktor.grief.taglib.init;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.FileSystemResourceLoader;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+
+import de.kodestruktor.grief.core.property.GriefProperty;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.util.MinifiedResources;
+
+/**
+ * Tests the {@link MinificationTask} on an application deployed to a temporary directory.
+ *
+ * @author Christoph Wende
+ */
+public class MinificationTaskTest {
+
+  private static final String VENDOR_MINIFIED = "/*! vendor v1.0 */var v=1;";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File scripts;
+
+  @Before
+  public void setUp() throws IOException {
+    final File root = this.folder.getRoot();
+    write(new File(root, "META-INF/MANIFEST.MF"), "Manifest-Version: 1.0\nImplementation-Version: 1234\n");
+    this.scripts = new File(root, "resources/r1234/scripts");
+    write(new File(this.scripts, "app.js"), "var app = 1;\n");
+    write(new File(this.scripts, "vendor.js"), "/*! vendor v1.0 */\nvar v = 1;\n");
+    write(new File(this.scripts, "vendor.min.js"), VENDOR_MINIFIED);
+    write(new File(root, "resources/r1234/styles/app.css"), "body { margin: 0; }\n");
+  }
+
+  @Test
+  public void keepsShippedMinifiedVariant() throws Exception {
+    final InitializationContext context = this.execute();
+
+    assertEquals(VENDOR_MINIFIED, read(new File(this.scripts, "vendor.min.js")));
+    final MinifiedResources resources = MinifiedResources.get(context.getEnvironment());
+    assertEquals("vendor.min.js", resources.getScript("vendor.js"));
+    assertEquals("app.min.js", resources.getScript("app.js"));
+  }
+
+  @Test
+  public void minifiesOwnVariantAgainOnRestart() throws Exception {
+    this.execute();
+    write(new File(this.scripts, "app.js"), "var app = 2;\n");
+    final InitializationContext context = this.execute();
+
+    final String minified = read(new File(this.scripts, "app.min.js"));
+    assertTrue(minified, minified.contains("app=2"));
+    assertEquals("app.min.js", MinifiedResources.get(context.getEnvironment()).getScript("app.js"));
+  }
+
+  private InitializationContext execute() throws Exception {
+    final MockServletContext servletContext = new MockServletContext("file:" + this.folder.getRoot().getAbsolutePath(),
+        new FileSystemResourceLoader());
+    final StaticWebApplicationContext applicationContext = new StaticWebApplicationContext();
+    applicationContext.setServletContext(servletContext);
+    applicationContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource("grief", createProperties()));
+    applicationContext.refresh();
+    servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+
+    final InitializationContext context = new InitializationContext(applicationContext);
+    new MinificationTask().execute(context);
+    return context;
+  }
+
+  private static Map<String, Object> createProperties() {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put(GriefProperty.GRIEF_PROP_APP_ROOT, "/app");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_RESOURCES, "/resources");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_STATIC, "/static");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_VERSIONDIR_PREFIX, "/r");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR, "/scripts");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, "/styles");
+    properties.put(GriefTaglibProperty.MINIFY_PROP_ENABLED, "true");
+    properties.put(GriefTaglibProperty.MINIFY_PROP_PROFILES, "default");
+    return properties;
+  }
+
+  private static void write(final File file, final String content) throws IOException {
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(final File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+}
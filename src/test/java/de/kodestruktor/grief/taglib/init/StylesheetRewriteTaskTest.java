@@ -0,0 +1,125 @@
+package de.kodestruktor.grief.taglib.init;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.FileSystemResourceLoader;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+
+import de.kodestruktor.grief.core.property.GriefProperty;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+import de.kodestruktor.grief.taglib.util.RewrittenStylesheets;
+
+/**
+ * Tests the {@link StylesheetRewriteTask} on an application deployed to a temporary directory.
+ *
+ * @author Christoph Wende
+ */
+public class StylesheetRewriteTaskTest {
+
+  private static final String STYLESHEET = "body { background: url('../images/logo.png'); }\n"
+      + ".icon { background: url(data:image/png;base64,AA==); }\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File styles;
+
+  @Before
+  public void setUp() throws IOException {
+    final File root = this.folder.getRoot();
+    write(new File(root, "META-INF/MANIFEST.MF"), "Manifest-Version: 1.0\nImplementation-Version: 1234\n");
+    write(new File(root, "resources/r1234/images/logo.png"), "png");
+    this.styles = new File(root, "resources/r1234/styles");
+    write(new File(this.styles, "app.css"), STYLESHEET);
+  }
+
+  @Test
+  public void writesRewrittenVariantAndKeepsOriginal() throws Exception {
+    final InitializationContext context = this.execute("//static1.example.com");
+
+    assertEquals(STYLESHEET, read(new File(this.styles, "app.css")));
+    assertEquals("body { background: url('//static1.example.com/app/resources/r1234/images/logo.png'); }\n"
+        + ".icon { background: url(data:image/png;base64,AA==); }\n", read(new File(this.styles, "app.rewritten.css")));
+    assertEquals("app.rewritten.css", RewrittenStylesheets.get(context.getEnvironment()).getStyle("/app.css"));
+  }
+
+  @Test
+  public void rewritesOriginalAgainOnRestart() throws Exception {
+    this.execute("//static1.example.com");
+    final InitializationContext context = this.execute("//cdn.example.com");
+
+    assertEquals("body { background: url('//cdn.example.com/app/resources/r1234/images/logo.png'); }\n"
+        + ".icon { background: url(data:image/png;base64,AA==); }\n", read(new File(this.styles, "app.rewritten.css")));
+    assertFalse(new File(this.styles, "app.rewritten.rewritten.css").exists());
+    assertEquals("app.rewritten.css", RewrittenStylesheets.get(context.getEnvironment()).getStyle("app.css"));
+  }
+
+  @Test
+  public void registersNothingIfDisabled() throws Exception {
+    final Map<String, Object> properties = createProperties(null);
+    properties.put(GriefTaglibProperty.REWRITE_PROP_ENABLED, "false");
+    final InitializationContext context = this.execute(properties);
+
+    assertNull(RewrittenStylesheets.get(context.getEnvironment()));
+    assertFalse(new File(this.styles, "app.rewritten.css").exists());
+  }
+
+  private InitializationContext execute(final String hosts) throws Exception {
+    return this.execute(createProperties(hosts));
+  }
+
+  private InitializationContext execute(final Map<String, Object> properties) throws Exception {
+    final MockServletContext servletContext = new MockServletContext("file:" + this.folder.getRoot().getAbsolutePath(),
+        new FileSystemResourceLoader());
+    final StaticWebApplicationContext applicationContext = new StaticWebApplicationContext();
+    applicationContext.setServletContext(servletContext);
+    applicationContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource("grief", properties));
+    applicationContext.refresh();
+    servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+
+    final InitializationContext context = new InitializationContext(applicationContext);
+    new StylesheetRewriteTask().execute(context);
+    return context;
+  }
+
+  private static Map<String, Object> createProperties(final String hosts) {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put(GriefProperty.GRIEF_PROP_APP_ROOT, "/app");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_RESOURCES, "/resources");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_STATIC, "/static");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_VERSIONDIR_PREFIX, "/r");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, "/images");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, "/styles");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_FONTDIR, "/fonts");
+    properties.put(GriefTaglibProperty.REWRITE_PROP_ENABLED, "true");
+    if (hosts != null) {
+      properties.put(GriefTaglibProperty.RESOURCE_PROP_HOSTS, hosts);
+    }
+    return properties;
+  }
+
+  private static void write(final File file, final String content) throws IOException {
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(final File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,75 @@
+package de.kodestruktor.grief.taglib.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import de.kodestruktor.grief.core.property.GriefProperty;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Tests the {@link HintRenderer} along with the {@link ResourceHints} of a request.
+ *
+ * @author Christoph Wende
+ */
+public class HintRendererTest {
+
+  private RenderContext context;
+
+  private ResourceHints hints;
+
+  @Before
+  public void setUp() {
+    final MockEnvironment env = new MockEnvironment();
+    env.setProperty(GriefProperty.GRIEF_PROP_APP_ROOT, "/app");
+    env.setProperty(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_RESOURCES, "/resources");
+    env.setProperty(GriefTaglibProperty.RESOURCE_PROP_VERSIONDIR_PREFIX, "/r");
+    env.setProperty(GriefTaglibProperty.RESOURCE_PROP_FONTDIR, "/fonts");
+
+    this.context = new RenderContext(env, new StaticMessageSource(), Locale.ENGLISH, "1", null);
+    this.hints = new ResourceHints();
+  }
+
+  @Test
+  public void preloadsFontsInCorsMode() throws IOException {
+    assertEquals("<link rel=\"preload\" href=\"/app/resources/r1/fonts/roboto.woff2\" as=\"font\" crossorigin=\"anonymous\" />",
+        this.render("preload", null, "roboto.woff2", GriefTaglibProperty.RESOURCE_TYPE_FONT, null));
+
+    // the preload of the font tag is the same hint
+    assertFalse(this.hints.markRendered(new ResourceHint("preload", "/app/resources/r1/fonts/roboto.woff2", GriefTaglibProperty.RESOURCE_TYPE_FONT,
+        "font/woff2", "anonymous")));
+  }
+
+  @Test
+  public void distinguishesCorsModes() throws IOException {
+    assertEquals("<link rel=\"preconnect\" href=\"https://cdn.example.com\" />",
+        this.render("preconnect", "https://cdn.example.com", null, null, null));
+    assertEquals("<link rel=\"preconnect\" href=\"https://cdn.example.com\" crossorigin />",
+        this.render("preconnect", "https://cdn.example.com", null, null, ""));
+    assertEquals("", this.render("preconnect", "https://cdn.example.com", null, null, "anonymous"));
+    assertEquals("<link rel=\"preconnect\" href=\"https://cdn.example.com\" crossorigin=\"use-credentials\" />",
+        this.render("preconnect", "https://cdn.example.com", null, null, "use-credentials"));
+  }
+
+  private String render(final String rel, final String href, final String uri, final String resourceType, final String crossorigin)
+      throws IOException {
+    final HintRenderer renderer = new HintRenderer();
+    renderer.setRel(rel);
+    renderer.setHref(href);
+    renderer.setUri(uri);
+    renderer.setResourceType(resourceType);
+    renderer.setCrossorigin(crossorigin);
+    renderer.setHints(this.hints);
+
+    final StringBuilder out = new StringBuilder();
+    renderer.render(this.context, out);
+    return out.toString();
+  }
+}
@@ -0,0 +1,39 @@
+package de.kodestruktor.grief.taglib.render;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the loading attributes rendered by the {@link ImageRenderer}.
+ *
+ * @author Christoph Wende
+ */
+public class ImageRendererTest {
+
+  @Test
+  public void loadsFirstImagesEagerly() {
+    final ImageLoading policy = new ImageLoading(1);
+
+    assertEquals(" fetchpriority=\"high\"", render(null, policy));
+    assertEquals(" loading=\"lazy\" decoding=\"async\"", render(null, policy));
+  }
+
+  @Test
+  public void rendersOverridesWithoutClaimingEagerImages() {
+    final ImageLoading policy = new ImageLoading(1);
+
+    assertEquals(" loading=\"eager\"", render("eager", policy));
+    assertEquals(" loading=\"lazy\" decoding=\"async\"", render("lazy", policy));
+    assertEquals(" fetchpriority=\"high\"", render("auto", policy));
+  }
+
+  private static String render(final String loading, final ImageLoading policy) {
+    final ImageRenderer renderer = new ImageRenderer();
+    renderer.setUri("logo.png");
+    renderer.setLoading(loading);
+    renderer.setLoadingPolicy(policy);
+    // without dimensions the attributes do not depend on the render context
+    return renderer.buildAttributes(null);
+  }
+}
@@ -0,0 +1,30 @@
+package de.kodestruktor.grief.taglib.render;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Tests the hints for adjacent pages built by the {@link PaginationRenderer}.
+ *
+ * @author Christoph Wende
+ */
+public class PaginationRendererTest {
+
+  @Test
+  public void encodesLinkHeader() {
+    final PaginationRenderer renderer = new PaginationRenderer();
+    renderer.setPage(new PageImpl<>(Arrays.asList("a", "b", "c"), new PageRequest(2, 3), 30));
+    renderer.setUri("/list?q=a b>\"c\"&");
+    renderer.setHint(GriefTaglibProperty.PAGINATION_HINT_ALL);
+
+    assertEquals("</list?q=a%20b%3E%22c%22&page=3>; rel=prefetch, </list?q=a%20b%3E%22c%22&page=1>; rel=prev, "
+        + "</list?q=a%20b%3E%22c%22&page=3>; rel=next", renderer.buildLinkHeader());
+  }
+}
@@ -0,0 +1,100 @@
+package de.kodestruktor.grief.taglib.render;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import de.kodestruktor.grief.core.property.GriefProperty;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Tests the {@link ScriptRenderer} along with the {@link RenderedScripts} of a request.
+ *
+ * @author Christoph Wende
+ */
+public class ScriptRendererTest {
+
+  private RenderContext context;
+
+  private RenderedScripts renderedScripts;
+
+  @Before
+  public void setUp() {
+    final MockEnvironment env = new MockEnvironment();
+    env.setProperty(GriefProperty.GRIEF_PROP_APP_ROOT, "/app");
+    env.setProperty(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_RESOURCES, "/resources");
+    env.setProperty(GriefTaglibProperty.RESOURCE_PROP_VERSIONDIR_PREFIX, "/r");
+    env.setProperty(GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR, "/scripts");
+
+    this.context = new RenderContext(env, new StaticMessageSource(), Locale.ENGLISH, "1", null);
+    this.renderedScripts = new RenderedScripts();
+  }
+
+  @Test
+  public void rendersDependenciesOnce() throws IOException {
+    assertEquals(classic("vendor.js") + "\n" + classic("app.js"), this.render("app.js", null, "vendor.js"));
+    assertEquals(classic("admin.js"), this.render("admin.js", null, "vendor.js"));
+    assertEquals("", this.render("/app.js", null));
+  }
+
+  @Test
+  public void rendersDependenciesOfModulesAsModules() throws IOException {
+    assertEquals(module("vendor.js") + "\n" + module("util.js") + "\n" + module("app.js"), this.render("app.js", "module", "vendor.js", "util.js"));
+    assertEquals(module("admin.js"), this.render("admin.js", "module", "vendor.js"));
+    // a classic script cannot use the module, so it is rendered again
+    assertEquals(classic("util.js") + "\n" + classic("legacy.js"), this.render("legacy.js", null, "util.js"));
+  }
+
+  @Test
+  public void rendersDeferredDependenciesAgainForBlockingScripts() throws IOException {
+    assertEquals(deferred("vendor.js") + "\n" + deferred("app.js"), this.render("app.js", "defer", "vendor.js"));
+    assertEquals(classic("vendor.js") + "\n" + classic("inline.js"), this.render("inline.js", null, "/vendor.js"));
+    // rendered blocking, the dependency is executed early enough for every loading now
+    assertEquals(deferred("late.js"), this.render("late.js", "defer", "vendor.js"));
+  }
+
+  @Test
+  public void rendersDependenciesOfAsyncScriptsBlocking() throws IOException {
+    assertEquals(classic("vendor.js") + "\n" + "<script type=\"text/javascript\" src=\"/app/resources/r1/scripts/app.js\" id=\"\" async></script>",
+        this.render("app.js", "async", "vendor.js"));
+  }
+
+  @Test
+  public void keepsScriptsRenderedAsyncFromSatisfyingDependents() throws IOException {
+    this.render("vendor.js", "async");
+    assertEquals(deferred("vendor.js") + "\n" + deferred("app.js"), this.render("app.js", "defer", "vendor.js"));
+  }
+
+  private String render(final String uri, final String loading, final String... dependencies) throws IOException {
+    final ScriptRenderer renderer = new ScriptRenderer();
+    renderer.setUri(uri);
+    renderer.setAsync("async".equals(loading));
+    renderer.setDefer("defer".equals(loading));
+    renderer.setModule("module".equals(loading));
+    renderer.setDependencies(Arrays.asList(dependencies));
+    renderer.setRenderedScripts(this.renderedScripts);
+
+    final StringBuilder out = new StringBuilder();
+    renderer.render(this.context, out);
+    return out.toString();
+  }
+
+  private static String classic(final String script) {
+    return "<script type=\"text/javascript\" src=\"/app/resources/r1/scripts/" + script + "\" id=\"\"></script>";
+  }
+
+  private static String module(final String script) {
+    return "<script type=\"module\" src=\"/app/resources/r1/scripts/" + script + "\" id=\"\"></script>";
+  }
+
+  private static String deferred(final String script) {
+    return "<script type=\"text/javascript\" src=\"/app/resources/r1/scripts/" + script + "\" id=\"\" defer></script>";
+  }
+}
@@ -0,0 +1,431 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.servlet.jsp.JspContext;
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.JspWriter;
+import javax.servlet.jsp.PageContext;
+import javax.servlet.jsp.tagext.JspFragment;
+import javax.servlet.jsp.tagext.Tag;
+import javax.servlet.jsp.tagext.TryCatchFinally;
+
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+
+import de.kodestruktor.grief.core.property.GriefProperty;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Measures the bytes allocated per invocation of every tag, driving it through its lifecycle on a mocked page, and fails as soon as a tag exceeds
+ * its budget checked in with <code>allocation-baseline.properties</code>. Every tag is warmed up first, so caches are filled and the JIT has
+ * compiled the hot paths; afterwards the allocations are read from the {@link com.sun.management.ThreadMXBean} around each invocation.<br>
+ * <br>
+ * To update the baseline after an intended change, run the test with <code>-Dgrief.allocation.record=true</code>, which prints the measured
+ * allocations instead of checking them.
+ *
+ * @author Christoph Wende
+ */
+public class TagAllocationTest {
+
+  private static final String BASELINE = "/allocation-baseline.properties";
+
+  private static final String RECORD_PROP = "grief.allocation.record";
+
+  private static final int WARMUP = 2000;
+
+  private static final int RUNS = 200;
+
+  private static com.sun.management.ThreadMXBean threads;
+
+  private static long overhead;
+
+  private static Properties budgets;
+
+  private static MockServletContext servletContext;
+
+  private static StaticWebApplicationContext applicationContext;
+
+  @BeforeClass
+  public static void setUpClass() throws IOException {
+    Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    budgets = new Properties();
+    try (InputStream in = TagAllocationTest.class.getResourceAsStream(BASELINE)) {
+      assertNotNull("Missing " + BASELINE, in);
+      budgets.load(in);
+    }
+
+    // reading the allocated bytes may allocate itself
+    long calibration = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      final long before = allocatedBytes();
+      calibration = Math.min(calibration, allocatedBytes() - before);
+    }
+    overhead = calibration;
+
+    servletContext = new MockServletContext("classpath:webapp");
+    applicationContext = new StaticWebApplicationContext();
+    applicationContext.setServletContext(servletContext);
+    applicationContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource("grief", createProperties()));
+    applicationContext.getStaticMessageSource().addMessage(GriefTaglibProperty.PAGINATION_PROP_PREV, Locale.ENGLISH, "previous");
+    applicationContext.getStaticMessageSource().addMessage(GriefTaglibProperty.PAGINATION_PROP_NEXT, Locale.ENGLISH, "next");
+    applicationContext.refresh();
+    servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    if (applicationContext != null) {
+      applicationContext.close();
+    }
+  }
+
+  private static Map<String, Object> createProperties() {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put(GriefProperty.GRIEF_PROP_APP_ROOT, "/app");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_RESOURCES, "/resources");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_STATIC, "/static");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_VERSIONDIR_PREFIX, "/r");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, "/images");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR, "/scripts");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, "/styles");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_FONTDIR, "/fonts");
+    properties.put(GriefTaglibProperty.SCRIPT_PROP_DEPENDENCIES, "/WEB-INF/scripts.properties");
+    properties.put(GriefTaglibProperty.IMPORTMAP_PROP_DESCRIPTOR, "/WEB-INF/importmap.properties");
+    properties.put(GriefTaglibProperty.IMAGE_PROP_DIMENSIONS_ENABLED, "true");
+    properties.put(GriefTaglibProperty.VERSION_PROP_ENABLED, "true");
+    properties.put(GriefTaglibProperty.VERSION_PROP_META_ENABLED, "true");
+    properties.put(GriefTaglibProperty.ESI_PROP_ENABLED, "true");
+    return properties;
+  }
+
+  @Test
+  public void compact() throws Exception {
+    final Compact compact = new Compact();
+    final Body body = new Body("<body>\n    <!-- navigation -->\n    <p>\n      compacted   text\n    </p>\n</body>\n");
+    compact.setJspBody(body);
+    this.measure("compact", true, new Invocation() {
+
+      @Override
+      void invoke(final PageContext pageContext) throws Exception {
+        body.setJspContext(pageContext);
+        compact.setJspContext(pageContext);
+        compact.doTag();
+      }
+    });
+  }
+
+  @Test
+  public void constants() throws Exception {
+    final Constants constants = new Constants();
+    constants.setClassName(GriefTaglibProperty.class.getName());
+    constants.setVar("grief");
+    this.measure("constants", false, new TagInvocation(constants));
+  }
+
+  @Test
+  public void etag() throws Exception {
+    final Etag etag = new Etag();
+    final Validator validator = new Validator();
+    validator.setParent(etag);
+    validator.setValue("42");
+    this.measure("etag", false, new Invocation() {
+
+      @Override
+      void invoke(final PageContext pageContext) throws Exception {
+        etag.setPageContext(pageContext);
+        try {
+          etag.doStartTag();
+          validator.setPageContext(pageContext);
+          validator.doStartTag();
+          validator.doEndTag();
+          etag.doEndTag();
+        } finally {
+          etag.doFinally();
+        }
+      }
+    });
+  }
+
+  @Test
+  public void favicon() throws Exception {
+    final Favicon favicon = new Favicon();
+    favicon.setUri("icon.png");
+    this.measure("favicon", true, new TagInvocation(favicon));
+  }
+
+  @Test
+  public void flush() throws Exception {
+    this.measure("flush", false, new TagInvocation(new Flush()));
+  }
+
+  @Test
+  public void font() throws Exception {
+    final Font font = new Font();
+    font.setFamily("Roboto");
+    font.setUri("roboto.woff2");
+    this.measure("font", true, new TagInvocation(font));
+  }
+
+  @Test
+  public void fragment() throws Exception {
+    final Fragment fragment = new Fragment();
+    fragment.setSrc("/fragments/navigation");
+    this.measure("fragment", true, new TagInvocation(fragment) {
+
+      @Override
+      void prepare(final MockHttpServletRequest request) {
+        request.addHeader("Surrogate-Capability", "cache=\"ESI/1.0\"");
+      }
+    });
+  }
+
+  @Test
+  public void hint() throws Exception {
+    final Hint hint = new Hint();
+    hint.setRel("preload");
+    hint.setUri("app.js");
+    hint.setAs("script");
+    this.measure("hint", true, new TagInvocation(hint));
+  }
+
+  @Test
+  public void icon() throws Exception {
+    final Icon icon = new Icon();
+    icon.setUri("icon.png");
+    icon.setAlt("Icon");
+    this.measure("icon", true, new TagInvocation(icon));
+  }
+
+  @Test
+  public void image() throws Exception {
+    final Image image = new Image();
+    image.setUri("logo.png");
+    image.setAlt("Logo");
+    this.measure("image", true, new TagInvocation(image));
+  }
+
+  @Test
+  public void importmap() throws Exception {
+    final Importmap importmap = new Importmap();
+    importmap.setEntry("app");
+    this.measure("importmap", true, new TagInvocation(importmap));
+  }
+
+  @Test
+  public void pagination() throws Exception {
+    final Pagination<String> pagination = new Pagination<>();
+    pagination.setPage(new PageImpl<>(Arrays.asList("a", "b", "c"), new PageRequest(2, 3), 30));
+    pagination.setUri("/list");
+    this.measure("pagination", true, new TagInvocation(pagination));
+  }
+
+  @Test
+  public void precache() throws Exception {
+    this.measure("precache", true, new TagInvocation(new Precache()));
+  }
+
+  @Test
+  public void script() throws Exception {
+    final Script script = new Script();
+    script.setUri("app.js");
+    this.measure("script", true, new TagInvocation(script));
+  }
+
+  @Test
+  public void style() throws Exception {
+    final Style style = new Style();
+    style.setUri("app.css");
+    this.measure("style", true, new TagInvocation(style));
+  }
+
+  @Test
+  public void svg() throws Exception {
+    final Svg svg = new Svg();
+    svg.setUri("arrow.svg");
+    svg.setCssClass("arrow");
+    this.measure("svg", true, new TagInvocation(svg));
+  }
+
+  @Test
+  public void trace() throws Exception {
+    this.measure("trace", false, new TagInvocation(new Trace()));
+  }
+
+  @Test
+  public void validator() throws Exception {
+    final Etag etag = new Etag();
+    final Validator validator = new Validator();
+    validator.setParent(etag);
+    validator.setValue("42");
+    this.measure("validator", false, new Invocation() {
+
+      @Override
+      void invoke(final PageContext pageContext) throws Exception {
+        validator.setPageContext(pageContext);
+        validator.doStartTag();
+        validator.doEndTag();
+      }
+    });
+  }
+
+  @Test
+  public void version() throws Exception {
+    final Version version = new Version();
+    version.setType("both");
+    version.setStyle("meta");
+    this.measure("version", true, new TagInvocation(version));
+  }
+
+  /**
+   * Warm up the invocation, then measure its average allocations and check them against the budget of the tag.
+   */
+  private void measure(final String name, final boolean rendering, final Invocation invocation) throws Exception {
+    for (int i = 0; i < WARMUP; i++) {
+      final TestPageContext pageContext = createPageContext(invocation);
+      invocation.invoke(pageContext);
+      if (i == 0) {
+        assertTrue("The " + name + " tag has to " + (rendering ? "render markup" : "render nothing"), rendering == pageContext.getWritten() > 0);
+      }
+    }
+
+    // the pages are prepared ahead, so only the invocations themselves are measured
+    final TestPageContext[] pageContexts = new TestPageContext[RUNS];
+    for (int i = 0; i < RUNS; i++) {
+      pageContexts[i] = createPageContext(invocation);
+    }
+
+    long allocated = 0;
+    for (final TestPageContext pageContext : pageContexts) {
+      final long before = allocatedBytes();
+      invocation.invoke(pageContext);
+      allocated += allocatedBytes() - before - overhead;
+    }
+    final long perInvocation = allocated / RUNS;
+
+    if (Boolean.getBoolean(RECORD_PROP)) {
+      System.out.println(name + "=" + perInvocation);
+      return;
+    }
+
+    final String budget = budgets.getProperty(name);
+    assertNotNull("No allocation budget for the " + name + " tag in " + BASELINE, budget);
+    assertTrue("The " + name + " tag allocated " + perInvocation + " bytes per invocation, exceeding its budget of " + budget.trim() + " bytes",
+        perInvocation <= Long.parseLong(budget.trim()));
+  }
+
+  private static TestPageContext createPageContext(final Invocation invocation) {
+    final MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/app/page");
+    request.setContextPath("/app");
+    request.addPreferredLocale(Locale.ENGLISH);
+    invocation.prepare(request);
+    return new TestPageContext(servletContext, request, new MockHttpServletResponse());
+  }
+
+  private static long allocatedBytes() {
+    return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * A single use of a tag on a page.
+   */
+  private abstract static class Invocation {
+
+    /**
+     * Prepare the request of the page, before the invocation is measured.
+     *
+     * @param request
+     *          the request
+     */
+    void prepare(final MockHttpServletRequest request) {
+      // nothing to prepare per default
+    }
+
+    abstract void invoke(PageContext pageContext) throws Exception;
+  }
+
+  /**
+   * Body of a simple tag, writing static markup to the writer it is invoked with, the way the container does.
+   */
+  private static class Body extends JspFragment {
+
+    private final String markup;
+
+    private JspContext jspContext;
+
+    Body(final String markup) {
+      this.markup = markup;
+    }
+
+    @Override
+    public void invoke(final Writer out) throws JspException, IOException {
+      final JspWriter writer = out == null ? this.jspContext.getOut() : this.jspContext.pushBody(out);
+      try {
+        writer.write(this.markup);
+      } finally {
+        if (out != null) {
+          this.jspContext.popBody();
+        }
+      }
+    }
+
+    @Override
+    public JspContext getJspContext() {
+      return this.jspContext;
+    }
+
+    void setJspContext(final JspContext jspContext) {
+      this.jspContext = jspContext;
+    }
+  }
+
+  /**
+   * Drives a tag without body through its lifecycle, the way the container does.
+   */
+  private static class TagInvocation extends Invocation {
+
+    private final Tag tag;
+
+    TagInvocation(final Tag tag) {
+      this.tag = tag;
+    }
+
+    @Override
+    void invoke(final PageContext pageContext) throws JspException {
+      this.tag.setPageContext(pageContext);
+      try {
+        this.tag.doStartTag();
+        this.tag.doEndTag();
+      } finally {
+        if (this.tag instanceof TryCatchFinally) {
+          ((TryCatchFinally) this.tag).doFinally();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package de.kodestruktor.grief.taglib.tag;
+
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.jsp.JspWriter;
+
+import org.springframework.mock.web.MockJspWriter;
+import org.springframework.mock.web.MockPageContext;
+
+/**
+ * Page context writing the page to a sink only counting the characters, so measuring a tag does not include growing the buffer of the mocked
+ * response. Unlike {@link MockPageContext}, it supports redirecting the output by {@link #pushBody(Writer)}.
+ *
+ * @author Christoph Wende
+ */
+final class TestPageContext extends MockPageContext {
+
+  private final CountingWriter page = new CountingWriter();
+
+  private final Deque<JspWriter> writers = new ArrayDeque<>();
+
+  TestPageContext(final ServletContext servletContext, final HttpServletRequest request, final HttpServletResponse response) {
+    super(servletContext, request, response);
+    this.writers.push(new MockJspWriter(this.page));
+  }
+
+  @Override
+  public JspWriter getOut() {
+    return this.writers.peek();
+  }
+
+  @Override
+  public JspWriter pushBody(final Writer writer) {
+    final JspWriter out = new MockJspWriter(writer);
+    this.writers.push(out);
+    return out;
+  }
+
+  @Override
+  public JspWriter popBody() {
+    this.writers.pop();
+    return this.writers.peek();
+  }
+
+  /**
+   * @return the number of characters written to the page
+   */
+  long getWritten() {
+    return this.page.written;
+  }
+
+  /**
+   * Discards everything written to it, counting the characters.
+   */
+  private static final class CountingWriter extends Writer {
+
+    private long written;
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) {
+      this.written += len;
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) {
+      this.written += len;
+    }
+
+    @Override
+    public void write(final int c) {
+      this.written++;
+    }
+
+    @Override
+    public void flush() {
+      // nothing to flush
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+}
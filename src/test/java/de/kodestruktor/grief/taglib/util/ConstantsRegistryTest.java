@@ -0,0 +1,31 @@
+package de.kodestruktor.grief.taglib.util;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Tests the {@link ConstantsRegistry} releasing the constants of a class loader.
+ *
+ * @author Christoph Wende
+ */
+public class ConstantsRegistryTest {
+
+  @Test
+  public void clearsConstantsOfClassLoader() throws Exception {
+    final ClassLoader classLoader = GriefTaglibProperty.class.getClassLoader();
+    final Map<String, Object> constants = ConstantsRegistry.getConstants(GriefTaglibProperty.class);
+    final Map<String, Map<String, Object>> packages = ConstantsRegistry.getConstants("de.kodestruktor.grief.taglib.property", classLoader, 1);
+    assertSame(constants, ConstantsRegistry.getConstants(GriefTaglibProperty.class));
+
+    ConstantsRegistry.clear(classLoader);
+
+    assertNotSame(constants, ConstantsRegistry.getConstants(GriefTaglibProperty.class));
+    assertNotSame(packages, ConstantsRegistry.getConstants("de.kodestruktor.grief.taglib.property", classLoader, 1));
+  }
+}
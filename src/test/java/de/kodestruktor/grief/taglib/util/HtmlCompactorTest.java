@@ -0,0 +1,103 @@
+package de.kodestruktor.grief.taglib.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link HtmlCompactor}.
+ *
+ * @author Christoph Wende
+ */
+public class HtmlCompactorTest {
+
+  @Test
+  public void collapsesWhitespace() throws IOException {
+    assertEquals("<p>a b\nc</p>", compact("<p>a   b  \n\n  c</p>"));
+    assertEquals("<div>\n<p>text</p>\n</div>\n", compact("<div>\n    <p>text</p>\n</div>\n"));
+  }
+
+  @Test
+  public void removesComments() throws IOException {
+    assertEquals("<p>a b</p>", compact("<p>a <!-- removed -- still removed --> b</p>"));
+    assertEquals("<p>a</p>", compact("<p><!---->a<!-- - --></p>"));
+  }
+
+  @Test
+  public void keepsConditionalComments() throws IOException {
+    final String conditional = "<!--[if lt IE 9]><script src=\"html5.js\"></script><![endif]-->";
+    assertEquals(conditional, compact(conditional));
+    assertEquals("<!--[if !IE]><!--> <p>x</p> <!--<![endif]-->", compact("<!--[if !IE]><!-->  <p>x</p>  <!--<![endif]-->"));
+  }
+
+  @Test
+  public void keepsRawElements() throws IOException {
+    assertEquals("<pre>  a\n\n  b  </pre>", compact("<pre>  a\n\n  b  </pre>"));
+    assertEquals("<textarea name=\"t\">  x  </textarea>", compact("<textarea  name=\"t\">  x  </textarea>"));
+    assertEquals("<script>if (a < b) {\n  // <!-- not a comment -->\n}</script>",
+        compact("<script>if (a < b) {\n  // <!-- not a comment -->\n}</script>"));
+    assertEquals("<style>a  >  b { }</style>\n<p>c</p>", compact("<style>a  >  b { }</style>\n  <p>c</p>"));
+  }
+
+  @Test
+  public void endsRawElementsCaseInsensitive() throws IOException {
+    assertEquals("<SCRIPT>a  b</Script>\n<p>c d</p>", compact("<SCRIPT>a  b</Script>\n<p>c   d</p>"));
+  }
+
+  @Test
+  public void doesNotTakePrefixesForRawElements() throws IOException {
+    assertEquals("<preview>a b</preview>", compact("<preview>a    b</preview>"));
+  }
+
+  @Test
+  public void keepsQuotedAttributeValues() throws IOException {
+    assertEquals("<a title=\"a   b\" class='c  d'>x</a>", compact("<a   title=\"a   b\"\n   class='c  d' >x</a>"));
+  }
+
+  @Test
+  public void keepsSingleLessThanSigns() throws IOException {
+    assertEquals("<p>1 < 2 and 3 <4</p>", compact("<p>1  <  2 and 3 <4</p>"));
+  }
+
+  @Test
+  public void passesUnfinishedTagsThrough() throws IOException {
+    assertEquals("<p>a <di", compact("<p>a <di"));
+  }
+
+  @Test
+  public void streamsDocumentsLargerThanTheBuffer() throws IOException {
+    final StringBuilder document = new StringBuilder();
+    final StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      document.append("<li>  item ").append(i).append("  </li>\n");
+      expected.append("<li> item ").append(i).append(" </li>\n");
+    }
+    assertEquals(expected.toString().trim(), compact(document.toString()).trim());
+  }
+
+  @Test
+  public void countsBytesInUtf8() throws IOException {
+    final StringWriter target = new StringWriter();
+    final HtmlCompactor compactor = new HtmlCompactor(target);
+    compactor.write("<p>\u00e4  \u20ac \uD83D\uDE00</p>");
+    compactor.close();
+
+    assertEquals("<p>\u00e4 \u20ac \uD83D\uDE00</p>", target.toString());
+    assertEquals(3 + 2 + 2 + 3 + 1 + 4 + 4, compactor.getBytesIn());
+    assertEquals(3 + 2 + 1 + 3 + 1 + 4 + 4, compactor.getBytesOut());
+  }
+
+  private static String compact(final String html) throws IOException {
+    final StringWriter target = new StringWriter();
+    final HtmlCompactor compactor = new HtmlCompactor(target);
+    // written in small chunks, so decisions across chunk boundaries are covered as well
+    for (int i = 0; i < html.length(); i += 3) {
+      compactor.write(html, i, Math.min(3, html.length() - i));
+    }
+    compactor.close();
+    return target.toString();
+  }
+}
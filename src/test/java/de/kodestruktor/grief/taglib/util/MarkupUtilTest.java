@@ -0,0 +1,25 @@
+package de.kodestruktor.grief.taglib.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link MarkupUtil}.
+ *
+ * @author Christoph Wende
+ */
+public class MarkupUtilTest {
+
+  @Test
+  public void escapesAttributes() {
+    assertEquals("/fragments/list?a=1&amp;b=&quot;&lt;x&gt;&#39;", MarkupUtil.escapeAttribute("/fragments/list?a=1&b=\"<x>'"));
+  }
+
+  @Test
+  public void keepsValuesWithoutMarkup() {
+    final String value = "/fragments/header";
+    assertSame(value, MarkupUtil.escapeAttribute(value));
+  }
+}
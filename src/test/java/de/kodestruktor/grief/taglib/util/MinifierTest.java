@@ -0,0 +1,84 @@
+package de.kodestruktor.grief.taglib.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link Minifier}.
+ *
+ * @author Christoph Wende
+ */
+public class MinifierTest {
+
+  @Test
+  public void removesCommentsAndWhitespace() {
+    assertEquals("var a=1;function f(b){return b+a;}", Minifier.minifyScript("// header\nvar a = 1;\n/* block\n comment */\nfunction f(b) {\n"
+        + "  return b + a;\n}\n"));
+  }
+
+  @Test
+  public void keepsStrings() {
+    assertEquals("var s=\"a  // b /* c */\",t='it\\'s  \\\\';", Minifier.minifyScript("var s = \"a  // b /* c */\", t = 'it\\'s  \\\\';"));
+  }
+
+  @Test
+  public void keepsControlCharactersInsideLiterals() {
+    assertEquals("var s=\"a\tb\",t='\u0001';", Minifier.minifyScript("var s = \"a\tb\",\tt = '\u0001';"));
+  }
+
+  @Test
+  public void keepsTemplateLiterals() {
+    assertEquals("var t=`line one\n\tindented ${a  +  b} // no comment`;", Minifier.minifyScript("var t = `line one\n\tindented ${a  +  b} "
+        + "// no comment`;"));
+  }
+
+  @Test
+  public void keepsRegularExpressionLiterals() {
+    assertEquals("var r=/[/\\]]+ *\\//g,s=a.replace(/\t/g,'');", Minifier.minifyScript("var r = /[/\\]]+ *\\//g, s = a.replace(/\t/g, '');"));
+  }
+
+  @Test
+  public void tellsDivisionFromRegularExpressions() {
+    assertEquals("var x=a/b/c;", Minifier.minifyScript("var x = a / b / c;"));
+  }
+
+  @Test
+  public void keepsNewlinesRelevantForSemicolonInsertion() {
+    assertEquals("var a=b\n(c||d).e()", Minifier.minifyScript("var a = b\n(c || d).e()"));
+    assertEquals("return\na", Minifier.minifyScript("return\n  a"));
+    assertEquals("a\n++b", Minifier.minifyScript("a\n++b"));
+    assertEquals("x=`t`\ny()", Minifier.minifyScript("x = `t`\ny()"));
+  }
+
+  @Test
+  public void keepsOperatorsApart() {
+    assertEquals("a=b+ +c;d=e- -f;", Minifier.minifyScript("a = b + +c; d = e - -f;"));
+  }
+
+  @Test
+  public void translatesCarriageReturnsOutsideOfLiterals() {
+    assertEquals("a()\nb()", Minifier.minifyScript("a()\r\nb()\r\n"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsUnterminatedStrings() {
+    Minifier.minifyScript("var s = 'open;");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsUnterminatedComments() {
+    Minifier.minifyScript("var a = 1; /* open");
+  }
+
+  @Test
+  public void minifiesStylesheets() {
+    assertEquals("a>b{color:red;margin:0 auto}c d{content:\"  x  \"}", Minifier.minifyStylesheet("/* c */\na > b {\n  color: red;\n"
+        + "  margin: 0 auto;\n}\nc  d { content: \"  x  \"; }\n"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsUnterminatedStylesheetComments() {
+    Minifier.minifyStylesheet("a { color: red; } /* open");
+  }
+}
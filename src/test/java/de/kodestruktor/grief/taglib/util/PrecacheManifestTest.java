@@ -0,0 +1,118 @@
+package de.kodestruktor.grief.taglib.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.FileSystemResourceLoader;
+import org.springframework.mock.web.MockServletContext;
+
+import de.kodestruktor.grief.core.property.GriefProperty;
+import de.kodestruktor.grief.taglib.property.GriefTaglibProperty;
+
+/**
+ * Tests the {@link PrecacheManifest} on resources in a temporary directory.
+ *
+ * @author Christoph Wende
+ */
+public class PrecacheManifestTest {
+
+  private static final Pattern URL = Pattern.compile("\"url\":\"([^\"]*)\"");
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private MockServletContext servletContext;
+
+  private StandardEnvironment env;
+
+  @Before
+  public void setUp() throws IOException {
+    final File revision = new File(this.folder.getRoot(), "resources/r1234");
+    write(new File(revision, "scripts/app.js"), "var app = 1;");
+    write(new File(revision, "scripts/app.min.js"), "var app=1;");
+    write(new File(revision, "scripts/vendor.min.js"), "var v=1;");
+    write(new File(revision, "styles/app.css"), "body { margin: 0; }");
+    write(new File(revision, "styles/app.rewritten.css"), "body { margin: 0; }");
+    write(new File(revision, "styles/app.min.css"), "body{margin:0}");
+    write(new File(revision, "styles/print.css"), "body { color: black; }");
+    write(new File(revision, "styles/print.rewritten.css"), "body { color: black; }");
+    write(new File(revision, "themes/brand/styles/app.css"), "body { margin: 1px; }");
+
+    this.servletContext = new MockServletContext("file:" + this.folder.getRoot().getAbsolutePath(), new FileSystemResourceLoader());
+    this.env = new StandardEnvironment();
+    this.env.getPropertySources().addFirst(new MapPropertySource("grief", createProperties()));
+  }
+
+  @Test
+  public void listsRenderedVariantsOnly() {
+    final Map<String, String> scripts = new HashMap<>();
+    scripts.put("app.js", "app.min.js");
+    final Map<String, String> styles = new HashMap<>();
+    styles.put("app.css", "app.min.css");
+    MinifiedResources.register(this.env, new MinifiedResources(scripts, styles, 0L, 0L));
+    RewrittenStylesheets.register(this.env, new RewrittenStylesheets(Collections.singletonMap("print.css", "print.rewritten.css")));
+
+    assertEquals(urls("/app/resources/r1234/scripts/app.min.js", "/app/resources/r1234/scripts/vendor.min.js",
+        "/app/resources/r1234/styles/app.min.css", "/app/resources/r1234/styles/print.rewritten.css",
+        "/app/resources/r1234/themes/brand/styles/app.css"), this.getUrls());
+  }
+
+  @Test
+  public void listsOriginalsWithoutDerivedResources() {
+    assertEquals(urls("/app/resources/r1234/scripts/app.js", "/app/resources/r1234/scripts/vendor.min.js",
+        "/app/resources/r1234/styles/app.css", "/app/resources/r1234/styles/print.css", "/app/resources/r1234/themes/brand/styles/app.css"),
+        this.getUrls());
+  }
+
+  private List<String> getUrls() {
+    final Matcher matcher = URL.matcher(PrecacheManifest.get(this.servletContext, this.env, "1234").toJson());
+    final List<String> urls = new ArrayList<>();
+    while (matcher.find()) {
+      urls.add(matcher.group(1));
+    }
+    return urls;
+  }
+
+  private static List<String> urls(final String... urls) {
+    final List<String> list = new ArrayList<>();
+    Collections.addAll(list, urls);
+    return list;
+  }
+
+  private static Map<String, Object> createProperties() {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put(GriefProperty.GRIEF_PROP_APP_ROOT, "/app");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_RESOURCES, "/resources");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_BASEDIR_STATIC, "/static");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_VERSIONDIR_PREFIX, "/r");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_IMAGEDIR, "/images");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_SCRIPTDIR, "/scripts");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_STYLEDIR, "/styles");
+    properties.put(GriefTaglibProperty.RESOURCE_PROP_FONTDIR, "/fonts");
+    properties.put(GriefTaglibProperty.THEME_PROP_DIR, "/themes");
+    properties.put(GriefTaglibProperty.MINIFY_PROP_PROFILES, "default");
+    return properties;
+  }
+
+  private static void write(final File file, final String content) throws IOException {
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
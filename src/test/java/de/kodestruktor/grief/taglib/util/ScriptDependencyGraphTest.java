@@ -0,0 +1,81 @@
+package de.kodestruktor.grief.taglib.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Tests the {@link ScriptDependencyGraph}.
+ *
+ * @author Christoph Wende
+ */
+public class ScriptDependencyGraphTest {
+
+  @Test
+  public void resolvesTransitiveDependenciesInExecutionOrder() {
+    final Map<String, List<String>> directDependencies = new HashMap<>();
+    directDependencies.put("app.js", Arrays.asList("widgets.js", "util.js"));
+    directDependencies.put("widgets.js", Arrays.asList("dom.js", "util.js"));
+    directDependencies.put("util.js", Arrays.asList("vendor.js"));
+    directDependencies.put("dom.js", Arrays.asList("vendor.js"));
+
+    final ScriptDependencyGraph graph = new ScriptDependencyGraph(directDependencies);
+
+    assertEquals(Arrays.asList("vendor.js", "dom.js", "util.js", "widgets.js"), graph.getDependencies("app.js"));
+    assertEquals(Arrays.asList("vendor.js", "dom.js", "util.js"), graph.getDependencies("widgets.js"));
+    assertEquals(Collections.emptyList(), graph.getDependencies("vendor.js"));
+    assertEquals(Collections.emptyList(), graph.getDependencies("unknown.js"));
+  }
+
+  @Test
+  public void sortsAllScriptsTopologically() {
+    final Map<String, List<String>> directDependencies = new HashMap<>();
+    directDependencies.put("b.js", Arrays.asList("a.js"));
+    directDependencies.put("c.js", Arrays.asList("b.js"));
+
+    final List<String> order = new ScriptDependencyGraph(directDependencies).getOrder();
+
+    assertEquals(3, order.size());
+    assertTrue(order.indexOf("a.js") < order.indexOf("b.js"));
+    assertTrue(order.indexOf("b.js") < order.indexOf("c.js"));
+  }
+
+  @Test
+  public void ignoresLeadingSlashes() {
+    final ScriptDependencyGraph graph = ScriptDependencyGraph.load(new DefaultResourceLoader(), "classpath:webapp/WEB-INF/scripts.properties");
+
+    assertEquals(Arrays.asList("vendor.js", "util.js"), graph.getDependencies("/app.js"));
+    assertEquals(graph.getDependencies("app.js"), graph.getDependencies(" /app.js "));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rejectsCycles() {
+    final Map<String, List<String>> directDependencies = new HashMap<>();
+    directDependencies.put("a.js", Arrays.asList("b.js"));
+    directDependencies.put("b.js", Arrays.asList("a.js"));
+    new ScriptDependencyGraph(directDependencies);
+  }
+
+  @Test
+  public void ignoresCyclicDescriptors() {
+    final ScriptDependencyGraph graph = ScriptDependencyGraph.load(new DefaultResourceLoader(),
+        "classpath:de/kodestruktor/grief/taglib/util/cyclic-scripts.properties");
+
+    assertTrue(graph.isEmpty());
+    assertEquals(Collections.emptyList(), graph.getDependencies("a.js"));
+  }
+
+  @Test
+  public void ignoresMissingDescriptors() {
+    assertTrue(ScriptDependencyGraph.load(new DefaultResourceLoader(), "classpath:missing.properties").isEmpty());
+    assertTrue(ScriptDependencyGraph.load(new DefaultResourceLoader(), null).isEmpty());
+  }
+}
@@ -0,0 +1,47 @@
+package de.kodestruktor.grief.taglib.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResourceLoader;
+
+/**
+ * Tests the ids of SVGs rendered inline by the {@link SvgCache}.
+ *
+ * @author Christoph Wende
+ */
+public class SvgCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void prefixesIdsAndReferences() throws IOException {
+    final SvgCache.Svg svg = this.load("<svg id=\"root\" viewBox=\"0 0 24 24\"><defs><linearGradient id=\"a\"/><clipPath id='b'/></defs>"
+        + "<path fill=\"url(#a)\" clip-path=\"url('#b')\"/><use xlink:href=\"#a\"/><use href=\"#b\"/><a href=\"#top\"/></svg>");
+
+    assertEquals("<defs><linearGradient id=\"g-1-a\"/><clipPath id='g-1-b'/></defs><path fill=\"url(#g-1-a)\" clip-path=\"url('#g-1-b')\"/>"
+        + "<use xlink:href=\"#g-1-a\"/><use href=\"#g-1-b\"/><a href=\"#top\"/>", svg.getContent("g-1"));
+  }
+
+  @Test
+  public void keepsContentWithoutIds() throws IOException {
+    final SvgCache.Svg svg = this.load("<svg viewBox=\"0 0 24 24\"><path d=\"M0 0h24v24H0z\"/></svg>");
+
+    assertSame(svg.getContent(), svg.getContent("g-1"));
+  }
+
+  private SvgCache.Svg load(final String markup) throws IOException {
+    final File file = this.folder.newFile("icon.svg");
+    Files.write(file.toPath(), markup.getBytes(StandardCharsets.UTF_8));
+    return new SvgCache(new FileSystemResourceLoader(), 4096).get("file:" + file.getAbsolutePath(), "1");
+  }
+}
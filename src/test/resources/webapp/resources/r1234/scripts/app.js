@@ -0,0 +1,2 @@
+import "lit";
+window.app = {};
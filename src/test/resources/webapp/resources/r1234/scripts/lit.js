@@ -0,0 +1 @@
+export const lit = 1;